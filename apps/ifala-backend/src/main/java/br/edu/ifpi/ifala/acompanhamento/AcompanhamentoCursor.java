@@ -0,0 +1,76 @@
+package br.edu.ifpi.ifala.acompanhamento;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Chave de ordenação do histórico de acompanhamentos usada na leitura incremental. Representa a
+ * última mensagem já recebida pelo cliente: (dataEnvio, id), ambos em ordem crescente.
+ *
+ * <p>
+ * O cursor é serializado como Base64 URL-safe para ser opaco ao cliente.
+ * </p>
+ *
+ * @param dataEnvio data de envio da última mensagem recebida
+ * @param id ID da última mensagem recebida (desempate)
+ *
+ * @author Renê Morais
+ */
+public record AcompanhamentoCursor(LocalDateTime dataEnvio, long id) {
+
+  private static final String SEPARADOR = "|";
+
+  /**
+   * Cursor inicial: menor que qualquer chave real, de modo que a leitura começa da primeira
+   * mensagem.
+   *
+   * @return cursor de início do histórico
+   */
+  public static AcompanhamentoCursor inicio() {
+    return new AcompanhamentoCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+  }
+
+  /**
+   * Cursor para mensagens enviadas estritamente depois do instante informado.
+   *
+   * @param desde instante de referência
+   * @return cursor posicionado após todas as mensagens de {@code desde}
+   */
+  public static AcompanhamentoCursor desde(LocalDateTime desde) {
+    return new AcompanhamentoCursor(desde, Long.MAX_VALUE);
+  }
+
+  /**
+   * Serializa o cursor em uma string opaca.
+   *
+   * @return cursor codificado
+   */
+  public String encode() {
+    String raw = dataEnvio + SEPARADOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodifica um cursor recebido do cliente.
+   *
+   * @param cursor cursor codificado
+   * @return cursor decodificado
+   * @throws ResponseStatusException 400 se o cursor for inválido
+   */
+  public static AcompanhamentoCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] partes = raw.split("\\|");
+      if (partes.length != 2) {
+        throw new IllegalArgumentException("Quantidade de campos inválida");
+      }
+      return new AcompanhamentoCursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+    } catch (RuntimeException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido.");
+    }
+  }
+}
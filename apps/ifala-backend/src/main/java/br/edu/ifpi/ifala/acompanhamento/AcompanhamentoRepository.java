@@ -1,11 +1,13 @@
 package br.edu.ifpi.ifala.acompanhamento;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +20,49 @@ public interface AcompanhamentoRepository extends JpaRepository<Acompanhamento,
   List<Acompanhamento> findByDenunciaIdOrderByDataEnvioAsc(Long denunciaId);
   
   Optional<Acompanhamento> findTopByDenuncia_TokenAcompanhamentoOrderByDataEnvioDesc(UUID tokenAcompanhamento);
+
+  /**
+   * Leitura incremental do histórico: mensagens da denúncia posteriores à chave (dataEnvio, id),
+   * em ordem crescente. Usa o índice idx_acompanhamentos_denuncia_data_envio.
+   *
+   * @param denunciaId ID da denúncia
+   * @param dataEnvio data de envio da última mensagem já recebida
+   * @param id ID da última mensagem já recebida
+   * @param pageable limite de linhas (tamanho da página + 1)
+   * @return mensagens após a chave
+   */
+  @Query("""
+      SELECT new br.edu.ifpi.ifala.acompanhamento.AcompanhamentoView(
+        a.id, a.mensagem, a.autor, a.dataEnvio)
+      FROM Acompanhamento a
+      WHERE a.denuncia.id = :denunciaId
+        AND (a.dataEnvio > :dataEnvio OR (a.dataEnvio = :dataEnvio AND a.id > :id))
+      ORDER BY a.dataEnvio ASC, a.id ASC
+      """)
+  List<AcompanhamentoView> findAposChave(@Param("denunciaId") Long denunciaId,
+      @Param("dataEnvio") LocalDateTime dataEnvio, @Param("id") Long id, Pageable pageable);
+
+  /**
+   * Histórico completo da denúncia em ordem de envio, pelo mesmo modelo de leitura e índice da
+   * leitura incremental.
+   *
+   * @param denunciaId ID da denúncia
+   * @return mensagens ordenadas por (dataEnvio, id)
+   */
+  @Query("""
+      SELECT new br.edu.ifpi.ifala.acompanhamento.AcompanhamentoView(
+        a.id, a.mensagem, a.autor, a.dataEnvio)
+      FROM Acompanhamento a
+      WHERE a.denuncia.id = :denunciaId
+      ORDER BY a.dataEnvio ASC, a.id ASC
+      """)
+  List<AcompanhamentoView> findViewsByDenunciaId(@Param("denunciaId") Long denunciaId);
+
+  // data de envio de uma mensagem da denúncia, usada para posicionar o parâmetro afterId
+  @Query("SELECT a.dataEnvio FROM Acompanhamento a "
+      + "WHERE a.id = :id AND a.denuncia.id = :denunciaId")
+  Optional<LocalDateTime> findDataEnvioByIdAndDenunciaId(@Param("id") Long id,
+      @Param("denunciaId") Long denunciaId);
   
   // verifica se existe alguma mensagem não visualizada de um autor específico para uma denúncia
   boolean existsByDenunciaIdAndAutorAndVisualizadoFalse(Long denunciaId, br.edu.ifpi.ifala.shared.enums.Perfis autor);
@@ -0,0 +1,14 @@
+package br.edu.ifpi.ifala.acompanhamento;
+
+import br.edu.ifpi.ifala.shared.enums.Perfis;
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de leitura do histórico incremental: apenas as colunas exibidas, sem carregar a entidade
+ * nem a denúncia associada.
+ *
+ * @author Renê Morais
+ */
+public record AcompanhamentoView(Long id, String mensagem, Perfis autor,
+    LocalDateTime dataEnvio) {
+}
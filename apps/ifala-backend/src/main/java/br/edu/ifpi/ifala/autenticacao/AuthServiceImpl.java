@@ -71,6 +71,7 @@ public class AuthServiceImpl implements AuthService {
   private final NotificacaoExternaService notificacaoExternaService;
   private final AuthenticationManager authenticationManager;
   private final CacheManager cacheManager;
+  private final UsuarioIdentidadeCache usuarioIdentidadeCache;
 
   @Value("${app.frontend.reset-password-url:http://localhost:5173/redefinir-senha}")
   private String resetPasswordUrl;
@@ -78,7 +79,8 @@ public class AuthServiceImpl implements AuthService {
   public AuthServiceImpl(UsuarioRepository userRepository, PasswordEncoder passwordEncoder,
       JwtUtil jwtUtil, TokenBlacklistService tokenBlacklistService,
       RefreshTokenService refreshTokenService, NotificacaoExternaService notificacaoExternaService,
-      AuthenticationManager authenticationManager, CacheManager cacheManager) {
+      AuthenticationManager authenticationManager, CacheManager cacheManager,
+      UsuarioIdentidadeCache usuarioIdentidadeCache) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.jwtUtil = jwtUtil;
@@ -87,6 +89,7 @@ public class AuthServiceImpl implements AuthService {
     this.notificacaoExternaService = notificacaoExternaService;
     this.authenticationManager = authenticationManager;
     this.cacheManager = cacheManager;
+    this.usuarioIdentidadeCache = usuarioIdentidadeCache;
   }
 
   /**
@@ -109,11 +112,13 @@ public class AuthServiceImpl implements AuthService {
 
   /**
    * Invalida todas as entradas de cache para um usuário (email e username). Necessário porque o
-   * cache armazena UserDetails com duas chaves diferentes.
+   * cache armazena UserDetails com duas chaves diferentes. Também invalida o cache de identidade
+   * (indexado por email).
    * 
    * @param user O usuário cujo cache deve ser invalidado
    */
   private void evictUserCache(Usuario user) {
+    usuarioIdentidadeCache.invalidar(user.getEmail());
     var cache = cacheManager.getCache("userDetailsCache");
     if (cache != null) {
       // Invalida cache pelo email
@@ -173,6 +178,8 @@ public class AuthServiceImpl implements AuthService {
     usuario.setUsername(registroRequest.username());
 
     usuario = userRepository.save(usuario);
+    // Remove uma eventual entrada "sem usuário" deixada por consultas anteriores a este email
+    usuarioIdentidadeCache.invalidar(usuario.getEmail());
 
     logger.info("Usuário registrado com sucesso: {}", usuario.getEmail());
 
@@ -22,14 +22,16 @@ public class RefreshTokenService {
   private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
   private final RefreshTokenRepository refreshTokenRepository;
   private final UsuarioRepository usuarioRepository;
+  private final UsuarioIdentidadeCache usuarioIdentidadeCache;
 
   @Value("${jwt.refresh-expiration-seconds}")
   private Long refreshTokenDurationSeconds;
 
   public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
-      UsuarioRepository usuarioRepository) {
+      UsuarioRepository usuarioRepository, UsuarioIdentidadeCache usuarioIdentidadeCache) {
     this.refreshTokenRepository = refreshTokenRepository;
     this.usuarioRepository = usuarioRepository;
+    this.usuarioIdentidadeCache = usuarioIdentidadeCache;
   }
 
   public Optional<RefreshToken> findByToken(String token) {
@@ -38,8 +40,7 @@ public class RefreshTokenService {
 
   // Cria e salva um novo Refresh Token no banco
   public RefreshToken createRefreshToken(String email) {
-    Usuario usuario = usuarioRepository.findByEmail(email)
-        .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    Usuario usuario = referenciaUsuario(email);
 
     // Garante que o usuário tenha apenas um refresh token por vez
     refreshTokenRepository.deleteByUsuario(usuario);
@@ -58,8 +59,7 @@ public class RefreshTokenService {
   }
 
   public RefreshToken createRefreshToken(String email, Instant explicitExpiry) {
-    Usuario usuario = usuarioRepository.findByEmail(email)
-        .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    Usuario usuario = referenciaUsuario(email);
 
     // Garante que o usuário tenha apenas um refresh token por vez
     refreshTokenRepository.deleteByUsuario(usuario);
@@ -73,6 +73,14 @@ public class RefreshTokenService {
     return refreshTokenRepository.save(refreshToken);
   }
 
+  // O token só precisa da chave estrangeira: usa a identidade em cache e uma referência (proxy)
+  // em vez de carregar o usuário com seus perfis
+  private Usuario referenciaUsuario(String email) {
+    UsuarioIdentidade identidade = usuarioIdentidadeCache.buscarPorEmail(email)
+        .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    return usuarioRepository.getReferenceById(identidade.id());
+  }
+
   // Verifica se o token expirou
   public RefreshToken verifyExpiration(RefreshToken token) {
     Instant now = Instant.now();
@@ -0,0 +1,35 @@
+package br.edu.ifpi.ifala.autenticacao;
+
+import br.edu.ifpi.ifala.shared.enums.Perfis;
+import java.util.List;
+
+/**
+ * Fotografia imutável dos dados de identificação de um usuário (sem senha nem tokens), mantida em
+ * cache pelo {@link UsuarioIdentidadeCache}.
+ *
+ * @param id ID do usuário
+ * @param nome nome de exibição
+ * @param email email (identificador usado no JWT)
+ * @param roles perfis do usuário
+ * @param receberNotificacoes se o usuário aceita receber notificações por e-mail
+ *
+ * @author Renê Morais
+ */
+public record UsuarioIdentidade(Long id, String nome, String email, List<Perfis> roles,
+    boolean receberNotificacoes) {
+
+  public UsuarioIdentidade {
+    roles = roles == null ? List.of() : List.copyOf(roles);
+  }
+
+  /**
+   * Cria a fotografia a partir da entidade.
+   *
+   * @param usuario entidade carregada
+   * @return identidade imutável
+   */
+  public static UsuarioIdentidade from(Usuario usuario) {
+    return new UsuarioIdentidade(usuario.getId(), usuario.getNome(), usuario.getEmail(),
+        usuario.getRoles(), usuario.isReceberNotificacoes());
+  }
+}
@@ -0,0 +1,121 @@
+package br.edu.ifpi.ifala.autenticacao;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache de identidade dos usuários (email → id, nome, perfis e preferência de notificação).
+ * Substitui as chamadas a {@code usuarioRepository.findByEmail} nos caminhos quentes de denúncias,
+ * notificações e refresh token, que carregavam a entidade inteira com a coleção EAGER de perfis.
+ *
+ * <p>
+ * Emails sem usuário também ficam em cache (como vazio), pois destinatários externos são
+ * consultados a cada envio de e-mail. As entradas são invalidadas pelo {@link AuthServiceImpl} ao
+ * registrar, atualizar ou trocar a senha de um usuário.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class UsuarioIdentidadeCache {
+
+  private static final Logger log = LoggerFactory.getLogger(UsuarioIdentidadeCache.class);
+
+  private final LoadingCache<String, Optional<UsuarioIdentidade>> cache;
+
+  public UsuarioIdentidadeCache(UsuarioRepository usuarioRepository,
+      @Value("${cache.usuarios.expiration-minutes:5}") int expirationMinutes,
+      @Value("${cache.usuarios.maximum-size:500}") int maximumSize) {
+    this.cache = Caffeine.newBuilder().expireAfterWrite(expirationMinutes, TimeUnit.MINUTES)
+        .maximumSize(maximumSize).recordStats()
+        .build(new CacheLoader<String, Optional<UsuarioIdentidade>>() {
+          @Override
+          public Optional<UsuarioIdentidade> load(String email) {
+            // Mesma consulta do carregamento em lote: perfis vêm no JOIN, sem SELECT adicional
+            return loadAll(Set.of(email)).get(email);
+          }
+
+          @Override
+          public Map<String, Optional<UsuarioIdentidade>> loadAll(Set<? extends String> emails) {
+            Map<String, Optional<UsuarioIdentidade>> encontrados =
+                usuarioRepository.findAllWithRolesByEmailIn(Set.copyOf(emails)).stream()
+                    .collect(Collectors.toMap(Usuario::getEmail,
+                        u -> Optional.of(UsuarioIdentidade.from(u)), (a, b) -> a));
+            Map<String, Optional<UsuarioIdentidade>> resultado = new HashMap<>(encontrados);
+            emails.forEach(email -> resultado.putIfAbsent(email, Optional.empty()));
+            return resultado;
+          }
+        });
+  }
+
+  /**
+   * Busca a identidade do usuário pelo email.
+   *
+   * @param email email do usuário
+   * @return identidade, ou vazio se não houver usuário com esse email
+   */
+  public Optional<UsuarioIdentidade> buscarPorEmail(String email) {
+    if (email == null || email.isBlank()) {
+      return Optional.empty();
+    }
+    return cache.get(email);
+  }
+
+  /**
+   * Busca as identidades de vários emails, consultando o banco uma única vez para os que não
+   * estão em cache.
+   *
+   * @param emails emails dos usuários
+   * @return identidades encontradas, indexadas por email
+   */
+  public Map<String, UsuarioIdentidade> buscarPorEmails(Collection<String> emails) {
+    Set<String> validos = emails.stream().filter(e -> e != null && !e.isBlank())
+        .collect(Collectors.toSet());
+    if (validos.isEmpty()) {
+      return Map.of();
+    }
+    Map<String, UsuarioIdentidade> resultado = new HashMap<>();
+    cache.getAll(validos).forEach((email, identidade) -> identidade
+        .ifPresent(i -> resultado.put(email, i)));
+    return resultado;
+  }
+
+  /**
+   * Invalida as entradas dos emails informados. Dentro de uma transação, a invalidação é repetida
+   * ao final dela para que uma leitura concorrente não recoloque no cache o estado anterior.
+   *
+   * @param emails emails a invalidar (nulos são ignorados)
+   */
+  public void invalidar(String... emails) {
+    Set<String> chaves = Arrays.stream(emails).filter(e -> e != null)
+        .collect(Collectors.toSet());
+    if (chaves.isEmpty()) {
+      return;
+    }
+    cache.invalidateAll(chaves);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidateAll(chaves);
+        }
+      });
+    }
+    log.debug("Cache de identidade invalidado para: {}", chaves);
+  }
+}
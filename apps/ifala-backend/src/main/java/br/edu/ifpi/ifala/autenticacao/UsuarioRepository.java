@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -25,6 +26,9 @@ public interface UsuarioRepository
 
   Optional<Usuario> findByPasswordResetToken(String passwordResetToken);
 
+  @Query("SELECT DISTINCT u FROM Usuario u LEFT JOIN FETCH u.roles WHERE u.email IN :emails")
+  List<Usuario> findAllWithRolesByEmailIn(@Param("emails") Collection<String> emails);
+
   @Query("SELECT u.email FROM Usuario u WHERE u.email IS NOT NULL AND u.email <> '' AND u.receberNotificacoes = true")
   List<String> findAllEmailsExcludingBlanks();
 }
@@ -1,6 +1,8 @@
 package br.edu.ifpi.ifala.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -35,4 +37,63 @@ public class AsyncConfig {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Executor dos envios SMTP da caixa de saída de e-mails. O número de threads limita quantos
+   * e-mails são enviados ao mesmo tempo; a fila comporta um lote inteiro, pois o despachante só
+   * reserva o próximo lote depois que o anterior termina.
+   */
+  @Bean(name = "emailOutboxTaskExecutor")
+  public Executor emailOutboxTaskExecutor(
+      @Value("${email.outbox.concorrencia:4}") int concorrencia,
+      @Value("${email.outbox.tamanho-lote:50}") int tamanhoLote) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(concorrencia);
+    executor.setMaxPoolSize(concorrencia);
+    executor.setQueueCapacity(tamanhoLote);
+    executor.setThreadNamePrefix("Email-Outbox-");
+    // Termina os envios em andamento antes de desligar; o que sobrar é retomado pela reserva
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor da geração de previews das provas. Decodificar imagens ocupa CPU e memória, então
+   * poucas threads e uma fila limitada; tarefas recusadas com a fila cheia são descartadas, pois a
+   * prova continua PENDENTE e a varredura periódica a processa depois.
+   */
+  @Bean(name = "previewTaskExecutor")
+  public Executor previewTaskExecutor(
+      @Value("${app.upload.provas.preview.concorrencia:2}") int concorrencia,
+      @Value("${app.upload.provas.preview.fila:100}") int fila) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(concorrencia);
+    executor.setMaxPoolSize(concorrencia);
+    executor.setQueueCapacity(fila);
+    executor.setThreadNamePrefix("Preview-Prova-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor da recompressão das provas no recebimento. O trabalho é de CPU, então o número de
+   * threads acompanha o de processadores; se a fila encher, a própria requisição processa o
+   * arquivo, como antes desta etapa existir, em vez de recusar a denúncia.
+   */
+  @Bean(name = "ingestaoTaskExecutor")
+  public Executor ingestaoTaskExecutor(
+      @Value("${app.upload.provas.recompressao.concorrencia:"
+          + "#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int concorrencia) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(concorrencia);
+    executor.setMaxPoolSize(concorrencia);
+    executor.setQueueCapacity(50);
+    executor.setThreadNamePrefix("Ingestao-Prova-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
 }
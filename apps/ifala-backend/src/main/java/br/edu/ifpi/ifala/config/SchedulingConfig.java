@@ -0,0 +1,16 @@
+package br.edu.ifpi.ifala.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita os métodos @Scheduled da aplicação (heartbeats dos streams SSE e demais rotinas
+ * periódicas). Usa o agendador padrão do Spring Boot, que roda em threads virtuais quando
+ * spring.threads.virtual.enabled está ativo.
+ *
+ * @author Renê Morais
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,211 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import br.edu.ifpi.ifala.acompanhamento.acompanhamentoDTO.AcompanhamentoDto;
+import br.edu.ifpi.ifala.shared.enums.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Conexões SSE abertas pelos denunciantes na página de acompanhamento, agrupadas pelo token. Em vez
+ * de consultar periodicamente os endpoints públicos, o navegador mantém uma conexão aberta e recebe
+ * as novas mensagens do admin e as mudanças de status assim que a transação que as gravou é
+ * confirmada.
+ *
+ * <p>
+ * Uma conexão ociosa não ocupa thread: a requisição fica em modo assíncrono e só há escrita no
+ * envio de eventos e nos heartbeats periódicos, que mantêm proxies e balanceadores sem encerrar a
+ * conexão. Cada conexão expira após um tempo máximo e o EventSource do navegador reconecta
+ * sozinho. O número de conexões é limitado por nó e por token; acima do limite a requisição recebe
+ * 503 e o cliente volta ao polling com ETag.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class AcompanhamentoPublicoStream {
+
+  private static final Logger log = LoggerFactory.getLogger(AcompanhamentoPublicoStream.class);
+
+  static final String EVENTO_ACOMPANHAMENTO = "acompanhamento";
+  static final String EVENTO_STATUS = "status";
+
+  private final Map<UUID, Set<SseEmitter>> emissoresPorToken = new ConcurrentHashMap<>();
+  private final AtomicInteger conexoesAbertas = new AtomicInteger();
+  private final int maxConexoes;
+  private final int maxConexoesPorToken;
+  private final long timeoutMillis;
+  private final long reconexaoMillis;
+
+  public AcompanhamentoPublicoStream(MeterRegistry meterRegistry,
+      @Value("${sse.acompanhamento.max-conexoes:5000}") int maxConexoes,
+      @Value("${sse.acompanhamento.max-conexoes-por-token:3}") int maxConexoesPorToken,
+      @Value("${sse.acompanhamento.timeout-minutes:30}") long timeoutMinutes,
+      @Value("${sse.acompanhamento.reconnect-seconds:5}") long reconexaoSegundos) {
+    this.maxConexoes = maxConexoes;
+    this.maxConexoesPorToken = maxConexoesPorToken;
+    this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+    this.reconexaoMillis = Duration.ofSeconds(reconexaoSegundos).toMillis();
+    Gauge.builder("sse.conexoes", conexoesAbertas, AtomicInteger::get)
+        .tag("stream", "acompanhamento-publico")
+        .description("Conexões SSE abertas na página pública de acompanhamento")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Evento de mudança de status enviado ao denunciante.
+   */
+  public record StatusEvento(Status status, LocalDateTime alteradoEm) {
+  }
+
+  /**
+   * Abre uma conexão SSE para o token. O chamador deve garantir que o token existe.
+   *
+   * @param token token de acompanhamento da denúncia
+   * @return emissor registrado
+   * @throws ResponseStatusException 503 quando o limite do nó ou do token foi atingido
+   */
+  public SseEmitter conectar(UUID token) {
+    if (conexoesAbertas.incrementAndGet() > maxConexoes) {
+      conexoesAbertas.decrementAndGet();
+      log.warn("Limite de {} conexões SSE de acompanhamento atingido neste nó.", maxConexoes);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Limite de conexões em tempo real atingido. Tente novamente mais tarde.");
+    }
+
+    SseEmitter emissor = new SseEmitter(timeoutMillis);
+    boolean[] aceito = {false};
+    emissoresPorToken.compute(token, (t, emissores) -> {
+      Set<SseEmitter> atuais = emissores != null ? emissores : ConcurrentHashMap.newKeySet();
+      if (atuais.size() < maxConexoesPorToken) {
+        aceito[0] = atuais.add(emissor);
+      }
+      return atuais.isEmpty() ? null : atuais;
+    });
+    if (!aceito[0]) {
+      conexoesAbertas.decrementAndGet();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Muitas conexões abertas para esta denúncia.");
+    }
+
+    Runnable remover = () -> remover(token, emissor);
+    emissor.onCompletion(remover);
+    emissor.onTimeout(emissor::complete);
+    emissor.onError(e -> remover.run());
+
+    try {
+      emissor.send(SseEmitter.event().comment("conectado").reconnectTime(reconexaoMillis));
+    } catch (IOException e) {
+      emissor.completeWithError(e);
+    }
+    return emissor;
+  }
+
+  /**
+   * Publica uma nova mensagem para os denunciantes conectados ao token. Dentro de uma transação, o
+   * envio acontece apenas após o commit.
+   *
+   * @param token token de acompanhamento da denúncia
+   * @param acompanhamento mensagem já persistida
+   */
+  public void publicarAcompanhamento(UUID token, AcompanhamentoDto acompanhamento) {
+    aposCommit(token, () -> SseEmitter.event().name(EVENTO_ACOMPANHAMENTO)
+        .id(String.valueOf(acompanhamento.id())).data(acompanhamento));
+  }
+
+  /**
+   * Publica uma mudança de status para os denunciantes conectados ao token. Dentro de uma
+   * transação, o envio acontece apenas após o commit.
+   *
+   * @param token token de acompanhamento da denúncia
+   * @param status novo status
+   * @param alteradoEm data/hora da alteração
+   */
+  public void publicarStatus(UUID token, Status status, LocalDateTime alteradoEm) {
+    StatusEvento evento = new StatusEvento(status, alteradoEm);
+    aposCommit(token, () -> SseEmitter.event().name(EVENTO_STATUS).data(evento));
+  }
+
+  /**
+   * Envia um comentário vazio a todas as conexões para que proxies não as encerrem por ociosidade e
+   * para detectar clientes que já foram embora.
+   */
+  @Scheduled(fixedDelayString = "${sse.acompanhamento.heartbeat-seconds:25}",
+      initialDelayString = "${sse.acompanhamento.heartbeat-seconds:25}",
+      timeUnit = TimeUnit.SECONDS)
+  public void enviarHeartbeat() {
+    emissoresPorToken.forEach((token, emissores) -> {
+      for (SseEmitter emissor : emissores) {
+        enviar(emissor, () -> SseEmitter.event().comment("heartbeat"));
+      }
+    });
+  }
+
+  private void aposCommit(UUID token, Supplier<SseEmitter.SseEventBuilder> evento) {
+    if (!emissoresPorToken.containsKey(token)) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          difundir(token, evento);
+        }
+      });
+    } else {
+      difundir(token, evento);
+    }
+  }
+
+  private void difundir(UUID token, Supplier<SseEmitter.SseEventBuilder> evento) {
+    Set<SseEmitter> emissores = emissoresPorToken.get(token);
+    if (emissores == null) {
+      return;
+    }
+    for (SseEmitter emissor : emissores) {
+      enviar(emissor, evento);
+    }
+  }
+
+  /**
+   * Envia um evento a um emissor. O evento é montado a cada envio porque o SseEventBuilder não pode
+   * ser reutilizado entre conexões.
+   */
+  private void enviar(SseEmitter emissor, Supplier<SseEmitter.SseEventBuilder> evento) {
+    try {
+      emissor.send(evento.get());
+    } catch (IOException | IllegalStateException e) {
+      // Cliente desconectado; o callback de erro/conclusão remove o emissor
+      log.debug("Falha ao enviar evento SSE de acompanhamento: {}", e.getMessage());
+      emissor.completeWithError(e);
+    }
+  }
+
+  private void remover(UUID token, SseEmitter emissor) {
+    emissoresPorToken.computeIfPresent(token, (t, emissores) -> {
+      if (emissores.remove(emissor)) {
+        conexoesAbertas.decrementAndGet();
+      }
+      return emissores.isEmpty() ? null : emissores;
+    });
+  }
+}
@@ -0,0 +1,167 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache de curta duração das páginas da busca textual da listagem administrativa. Vários admins
+ * costumam repetir a mesma busca enquanto trabalham no mesmo caso; cada repetição reexecutava a
+ * função de busca sobre os dois índices tsvector.
+ *
+ * <p>
+ * A chave é a busca (termo normalizado, filtros e IDs fixados de quem busca) mais a janela da
+ * página; o valor é apenas o que a função paginada devolveu: os IDs da página, o total e os
+ * destaques. Como a chave leva os IDs fixados e não o usuário, admins com as mesmas fixadas (em
+ * geral, nenhuma) compartilham as entradas. O tamanho é limitado pelo total de linhas guardadas.
+ * </p>
+ *
+ * <p>
+ * A invalidação remove todas as páginas das buscas que a escrita pode alterar: as que contêm a
+ * denúncia alterada e as filtradas pelo novo status ou pelo novo admin acompanhando. Uma denúncia
+ * que passa a ser encontrada por um termo aparece quando a entrada expira, em no máximo alguns
+ * segundos. Acertos e falhas são expostos no Micrometer pela métrica {@code cache.gets} com a tag
+ * {@code cache=denuncias.busca}.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class BuscaDenunciaCache {
+
+  private final Cache<Chave, Resultado> cache;
+
+  public BuscaDenunciaCache(MeterRegistry meterRegistry,
+      @Value("${cache.busca-denuncias.expiration-seconds:5}") int expirationSeconds,
+      @Value("${cache.busca-denuncias.maximum-weight:5000}") long maximumWeight) {
+    this.cache = Caffeine.newBuilder().expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
+        .maximumWeight(maximumWeight)
+        .weigher((Chave chave, Resultado resultado) -> resultado.peso())
+        .recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "denuncias.busca");
+  }
+
+  /**
+   * Busca independente da página: termo normalizado, filtros e IDs fixados de quem busca.
+   */
+  public record Busca(String termo, String status, String categoria, String adminEmail,
+      List<Long> fixadas) {
+
+    public Busca {
+      termo = normalizar(termo);
+      fixadas = List.copyOf(fixadas);
+    }
+  }
+
+  /**
+   * Chave do cache: a busca e a janela da página.
+   */
+  public record Chave(Busca busca, int limite, long deslocamento) {
+  }
+
+  /**
+   * IDs da página na ordem da busca, total de resultados após os filtros e destaques por ID.
+   */
+  public record Resultado(List<Long> ids, long total, Map<Long, DenunciaDestaqueBusca> destaques) {
+
+    public Resultado {
+      ids = List.copyOf(ids);
+      destaques = Map.copyOf(destaques);
+    }
+
+    int peso() {
+      return ids.size() + 1;
+    }
+  }
+
+  /**
+   * Retorna o resultado em cache ou executa a busca e guarda o resultado.
+   *
+   * @param chave chave da busca
+   * @param busca busca no banco, executada apenas em caso de falha no cache
+   * @return resultado da busca
+   */
+  public Resultado obter(Chave chave, Supplier<Resultado> busca) {
+    return cache.get(chave, k -> busca.get());
+  }
+
+  /**
+   * Invalida as buscas que contêm a denúncia em alguma página guardada (exclusão ou texto novo).
+   *
+   * @param denunciaId ID da denúncia alterada
+   */
+  public void invalidarDenuncia(long denunciaId) {
+    invalidarSe((busca, resultado) -> resultado.ids().contains(denunciaId));
+  }
+
+  /**
+   * Invalida as buscas afetadas pela mudança de status da denúncia: as que a contêm (ela pode ter
+   * saído) e as filtradas pelo novo status (ela pode ter entrado).
+   *
+   * @param denunciaId ID da denúncia alterada
+   * @param novoStatus nome do novo status
+   */
+  public void invalidarStatus(long denunciaId, String novoStatus) {
+    invalidarSe((busca, resultado) -> novoStatus.equals(busca.status())
+        || resultado.ids().contains(denunciaId));
+  }
+
+  /**
+   * Invalida as buscas afetadas pela troca do admin acompanhando: as que contêm a denúncia e as
+   * filtradas pelo novo admin.
+   *
+   * @param denunciaId ID da denúncia alterada
+   * @param adminEmail email do novo admin acompanhando, ou null quando ninguém acompanha
+   */
+  public void invalidarAdmin(long denunciaId, String adminEmail) {
+    invalidarSe((busca, resultado) -> (adminEmail != null && adminEmail.equals(busca.adminEmail()))
+        || resultado.ids().contains(denunciaId));
+  }
+
+  /**
+   * Remove todas as páginas das buscas em que alguma página atende ao critério. Dentro de uma
+   * transação, repete ao final dela para que uma busca concorrente não guarde o resultado anterior
+   * à escrita.
+   */
+  private void invalidarSe(BiPredicate<Busca, Resultado> criterio) {
+    remover(criterio);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          remover(criterio);
+        }
+      });
+    }
+  }
+
+  private void remover(BiPredicate<Busca, Resultado> criterio) {
+    Set<Busca> afetadas = new HashSet<>();
+    cache.asMap().forEach((chave, resultado) -> {
+      if (criterio.test(chave.busca(), resultado)) {
+        afetadas.add(chave.busca());
+      }
+    });
+    if (!afetadas.isEmpty()) {
+      cache.asMap().keySet().removeIf(chave -> afetadas.contains(chave.busca()));
+    }
+  }
+
+  // plainto_tsquery já ignora caixa e espaços extras; a chave segue a mesma normalização
+  private static String normalizar(String termo) {
+    return termo == null ? "" : termo.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+}
@@ -92,6 +92,32 @@ public class Denuncia implements Serializable {
   @Column(name = "admin_acompanhando_email")
   private String adminAcompanhandoEmail;
 
+  // Resumo de atividade mantido pelo DenunciaService para evitar agregações
+  // sobre acompanhamentos na listagem administrativa. Estas colunas são alteradas
+  // apenas por UPDATEs atômicos do DenunciaRepository (updatable = false), para
+  // que a gravação da entidade inteira não sobrescreva atualizações concorrentes
+  @Column(name = "mensagens_nao_lidas_anonimo", nullable = false, updatable = false)
+  private int mensagensNaoLidasAnonimo;
+
+  @Column(name = "mensagens_nao_lidas_admin", nullable = false, updatable = false)
+  private int mensagensNaoLidasAdmin;
+
+  @Column(name = "possui_resposta_admin", nullable = false, updatable = false)
+  private boolean possuiRespostaAdmin;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "ultimo_autor", updatable = false)
+  private Perfis ultimoAutor;
+
+  @Column(name = "ultima_atividade_em", updatable = false)
+  private LocalDateTime ultimaAtividadeEm;
+
+  // Incrementada a cada alteração visível ao denunciante; usada como ETag pública.
+  // Só muda por UPDATE atômico no banco (versao = versao + 1), para que cada commit
+  // produza um valor distinto mesmo com escritas concorrentes
+  @Column(name = "versao", nullable = false, updatable = false)
+  private long versao;
+
   /**
    * Construtor padrão que inicializa uma nova denúncia. Define um token de acompanhamento único,
    * status inicial como RECEBIDO e a data/hora de criação.
@@ -101,6 +127,7 @@ public class Denuncia implements Serializable {
     this.tokenAcompanhamento = UUID.randomUUID();
     this.status = Status.RECEBIDO;
     this.criadoEm = LocalDateTime.now();
+    this.ultimaAtividadeEm = this.criadoEm;
   }
 
   public Long getId() {
@@ -223,6 +250,92 @@ public class Denuncia implements Serializable {
     this.adminAcompanhandoEmail = adminAcompanhandoEmail;
   }
 
+  public int getMensagensNaoLidasAnonimo() {
+    return mensagensNaoLidasAnonimo;
+  }
+
+  public void setMensagensNaoLidasAnonimo(int mensagensNaoLidasAnonimo) {
+    this.mensagensNaoLidasAnonimo = mensagensNaoLidasAnonimo;
+  }
+
+  public int getMensagensNaoLidasAdmin() {
+    return mensagensNaoLidasAdmin;
+  }
+
+  public void setMensagensNaoLidasAdmin(int mensagensNaoLidasAdmin) {
+    this.mensagensNaoLidasAdmin = mensagensNaoLidasAdmin;
+  }
+
+  public boolean isPossuiRespostaAdmin() {
+    return possuiRespostaAdmin;
+  }
+
+  public void setPossuiRespostaAdmin(boolean possuiRespostaAdmin) {
+    this.possuiRespostaAdmin = possuiRespostaAdmin;
+  }
+
+  public Perfis getUltimoAutor() {
+    return ultimoAutor;
+  }
+
+  public void setUltimoAutor(Perfis ultimoAutor) {
+    this.ultimoAutor = ultimoAutor;
+  }
+
+  public LocalDateTime getUltimaAtividadeEm() {
+    return ultimaAtividadeEm;
+  }
+
+  public void setUltimaAtividadeEm(LocalDateTime ultimaAtividadeEm) {
+    this.ultimaAtividadeEm = ultimaAtividadeEm;
+  }
+
+  public long getVersao() {
+    return versao;
+  }
+
+  /**
+   * Atualiza o resumo de atividade com um novo acompanhamento. Mensagens do denunciante incrementam
+   * o contador de não lidas pelos admins; mensagens de admin marcam a denúncia como respondida e
+   * incrementam o contador de não lidas pelo denunciante.
+   *
+   * <p>
+   * Apenas reflete em memória o que
+   * {@link DenunciaRepository#registrarAtividade(Long, String, LocalDateTime)} já gravou no banco.
+   * Um acompanhamento mais antigo que a última atividade (commit fora de ordem) não altera o último
+   * autor nem a data.
+   * </p>
+   *
+   * @param acompanhamento acompanhamento recém-criado
+   */
+  public void registrarAcompanhamento(Acompanhamento acompanhamento) {
+    if (acompanhamento.getAutor() == Perfis.ANONIMO) {
+      this.mensagensNaoLidasAnonimo++;
+    } else if (acompanhamento.getAutor() == Perfis.ADMIN) {
+      this.possuiRespostaAdmin = true;
+      this.mensagensNaoLidasAdmin++;
+    }
+    if (ultimaAtividadeEm == null || !ultimaAtividadeEm.isAfter(acompanhamento.getDataEnvio())) {
+      this.ultimoAutor = acompanhamento.getAutor();
+      this.ultimaAtividadeEm = acompanhamento.getDataEnvio();
+    }
+  }
+
+  /**
+   * Atualiza o resumo de atividade após as mensagens de um autor serem marcadas como visualizadas.
+   * Reflete em memória o que {@link DenunciaRepository#zerarMensagensNaoLidas(Long, String)} já
+   * gravou no banco.
+   *
+   * @param autor autor cujas mensagens foram visualizadas
+   */
+  public void registrarVisualizacao(Perfis autor) {
+    if (autor == Perfis.ANONIMO) {
+      this.mensagensNaoLidasAnonimo = 0;
+    } else if (autor == Perfis.ADMIN) {
+      this.mensagensNaoLidasAdmin = 0;
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
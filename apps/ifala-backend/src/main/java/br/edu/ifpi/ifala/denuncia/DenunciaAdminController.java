@@ -4,6 +4,8 @@ import br.edu.ifpi.ifala.acompanhamento.acompanhamentoDTO.AcompanhamentoDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.AlterarStatusDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.AtualizarDenunciaDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaAdminResponseDto;
+import br.edu.ifpi.ifala.shared.dto.CursorPageDto;
+import br.edu.ifpi.ifala.shared.dto.SliceDto;
 import br.edu.ifpi.ifala.shared.enums.Categorias;
 import br.edu.ifpi.ifala.shared.enums.Status;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,13 +18,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -103,6 +108,90 @@ public class DenunciaAdminController {
     return ResponseEntity.ok(page);
   }
 
+  /**
+   * Lista denúncias sem calcular o total exato ({@code withTotal=false}). Indicado para o polling do
+   * painel, que não exibe o total: evita a consulta COUNT a cada atualização.
+   *
+   * @param search         busca textual ou por token (opcional)
+   * @param status         filtro por status (opcional)
+   * @param categoria      filtro por categoria (opcional)
+   * @param adminEmail     filtro por email do admin acompanhando (opcional)
+   * @param pageNumber     número da página (base 0)
+   * @param size           tamanho da página
+   * @param sortProperty   campo para ordenação
+   * @param sortDirection  direção da ordenação (ASC ou DESC)
+   * @param authentication contexto de autenticação
+   * @return fatia de denúncias com hasNext e, sem filtros, o total aproximado
+   */
+  @GetMapping(params = "withTotal=false")
+  @Operation(summary = "Lista denúncias sem total exato", description = "Mesma listagem de GET /api/v1/admin/denuncias, mas sem a consulta COUNT. "
+      + "Retorna hasNext e, quando não há filtros, um total aproximado baseado nas estatísticas do banco.")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+      @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content) })
+  public ResponseEntity<SliceDto<DenunciaAdminResponseDto>> listarSemTotal(
+      @Parameter(description = "Busca textual na descrição") @RequestParam(required = false) String search,
+      @Parameter(description = "Filtrar por status") @RequestParam(required = false) Status status,
+      @Parameter(description = "Filtrar por categoria") @RequestParam(required = false) Categorias categoria,
+      @Parameter(description = "Filtrar por email do admin acompanhando") @RequestParam(required = false) String adminEmail,
+      @Parameter(description = "Número da página (base 0)", example = "0") @RequestParam(defaultValue = "0") int pageNumber,
+      @Parameter(description = "Tamanho da página", example = "12") @RequestParam(defaultValue = "12") int size,
+      @Parameter(description = "Campo para ordenação", example = "id") @RequestParam(defaultValue = "id") String sortProperty,
+      @Parameter(description = "Direção da ordenação (ASC ou DESC)", example = "DESC") @RequestParam(defaultValue = "DESC") String sortDirection,
+      Authentication authentication) {
+
+    Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+    Pageable pageable = PageRequest.of(pageNumber, size, Sort.by(direction, sortProperty));
+
+    log.info("Admin requisitou listagem de denúncias sem total: page={}, size={}, "
+        + "filtros(status={}, categoria={}, adminEmail={})", pageNumber, size, status, categoria, adminEmail);
+
+    Slice<DenunciaAdminResponseDto> slice = denunciaService.listarTodasSemTotal(search, status, categoria,
+        adminEmail, pageable, authentication.getName());
+
+    boolean semFiltros = (search == null || search.isBlank()) && status == null && categoria == null
+        && adminEmail == null;
+    Long totalAproximado = semFiltros ? denunciaService.estimarTotalDenuncias() : null;
+
+    log.info("Retornadas {} denúncias (sem total) para a página {}, hasNext={}.", slice.getNumberOfElements(),
+        pageNumber, slice.hasNext());
+    return ResponseEntity.ok(SliceDto.of(slice, totalAproximado));
+  }
+
+  /**
+   * Lista denúncias com paginação por cursor (keyset), sem totais.
+   *
+   * @param status         filtro por status (opcional)
+   * @param categoria      filtro por categoria (opcional)
+   * @param adminEmail     filtro por email do admin acompanhando (opcional)
+   * @param cursor         cursor retornado pela página anterior (opcional)
+   * @param size           tamanho da página
+   * @param authentication contexto de autenticação
+   * @return página de denúncias com o cursor da próxima página
+   */
+  @GetMapping("/cursor")
+  @Operation(summary = "Lista denúncias com paginação por cursor", description = "Retorna a próxima página de denúncias a partir de um cursor opaco. "
+      + "Não calcula totais; use nextCursor enquanto hasNext for verdadeiro.")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+      @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content),
+      @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content) })
+  public ResponseEntity<CursorPageDto<DenunciaAdminResponseDto>> listarComCursor(
+      @Parameter(description = "Filtrar por status") @RequestParam(required = false) Status status,
+      @Parameter(description = "Filtrar por categoria") @RequestParam(required = false) Categorias categoria,
+      @Parameter(description = "Filtrar por email do admin acompanhando") @RequestParam(required = false) String adminEmail,
+      @Parameter(description = "Cursor da próxima página (vazio para a primeira)") @RequestParam(required = false) String cursor,
+      @Parameter(description = "Tamanho da página", example = "12") @RequestParam(defaultValue = "12") int size,
+      Authentication authentication) {
+
+    log.info("Admin requisitou listagem de denúncias por cursor: size={}, "
+        + "filtros(status={}, categoria={}, adminEmail={})", size, status, categoria, adminEmail);
+
+    String username = authentication.getName();
+    CursorPageDto<DenunciaAdminResponseDto> page = denunciaService.listarComCursor(status, categoria,
+        adminEmail, cursor, size, username);
+    log.info("Retornadas {} denúncias (cursor), hasNext={}.", page.items().size(), page.hasNext());
+    return ResponseEntity.ok(page);
+  }
+
   /**
    * Busca uma denúncia pelo ID.
    *
@@ -198,6 +287,38 @@ public class DenunciaAdminController {
     return ResponseEntity.ok(acompanhamentos);
   }
 
+  /**
+   * Lista os acompanhamentos de uma denúncia de forma incremental, em ordem de envio.
+   *
+   * @param id      ID da denúncia
+   * @param cursor  cursor retornado pela página anterior (opcional)
+   * @param afterId ID da última mensagem que o cliente já possui (opcional)
+   * @param since   data/hora a partir da qual buscar mensagens (opcional)
+   * @param size    tamanho máximo da página
+   * @return mensagens novas com o cursor da próxima página
+   */
+  @GetMapping("/{id}/acompanhamentos/cursor")
+  @Operation(summary = "Lista acompanhamentos de forma incremental", description = "Retorna apenas as mensagens posteriores a cursor, afterId ou since "
+      + "(use apenas um), em ordem de envio. Sem nenhum deles, começa da primeira mensagem.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Acompanhamentos listados com sucesso"),
+      @ApiResponse(responseCode = "400", description = "Cursor ou parâmetros inválidos", content = @Content),
+      @ApiResponse(responseCode = "401", description = "Acesso não autorizado. O token de autenticação (JWT) é inválido ou não foi fornecido.", content = @Content),
+      @ApiResponse(responseCode = "404", description = "Denúncia não encontrada", content = @Content) })
+  public ResponseEntity<CursorPageDto<AcompanhamentoDto>> listarAcompanhamentosIncremental(
+      @Parameter(description = "ID da denúncia", required = true) @PathVariable Long id,
+      @Parameter(description = "Cursor da próxima página") @RequestParam(required = false) String cursor,
+      @Parameter(description = "ID da última mensagem recebida") @RequestParam(required = false) Long afterId,
+      @Parameter(description = "Data/hora ISO-8601 da última atualização", example = "2025-10-17T14:30:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+      @Parameter(description = "Tamanho máximo da página", example = "50") @RequestParam(defaultValue = "50") int size) {
+
+    CursorPageDto<AcompanhamentoDto> page = denunciaService.listarAcompanhamentosIncrementalPorId(id, cursor,
+        afterId, since, size);
+    log.debug("Retornados {} acompanhamentos incrementais para a denúncia ID {}, hasNext={}",
+        page.items().size(), id, page.hasNext());
+    return ResponseEntity.ok(page);
+  }
+
   /**
    * Adiciona um novo acompanhamento a uma denúncia.
    *
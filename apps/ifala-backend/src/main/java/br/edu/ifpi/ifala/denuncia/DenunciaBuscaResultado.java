@@ -0,0 +1,19 @@
+package br.edu.ifpi.ifala.denuncia;
+
+/**
+ * Projeção de uma linha retornada pela busca textual paginada. Cada linha traz o ID de uma
+ * denúncia da página, o total de resultados da busca (calculado por window function), a relevância
+ * (ts_rank) e o trecho destacado (ts_headline).
+ *
+ * @author Renê Morais
+ */
+public interface DenunciaBuscaResultado {
+
+  Long getDenunciaId();
+
+  Long getTotal();
+
+  Float getRelevancia();
+
+  String getTrecho();
+}
@@ -0,0 +1,29 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com o ID e a chave de ordenação de uma denúncia na listagem administrativa. Usada pela
+ * paginação por cursor para montar o {@link DenunciaCursor} da próxima página.
+ *
+ * @author Renê Morais
+ */
+public interface DenunciaChaveListagem {
+
+  Long getId();
+
+  Integer getFixada();
+
+  Integer getNaoLida();
+
+  LocalDateTime getCriadoEm();
+
+  /**
+   * Converte a chave desta linha em cursor.
+   *
+   * @return cursor que aponta para esta linha
+   */
+  default DenunciaCursor toCursor() {
+    return new DenunciaCursor(getFixada(), getNaoLida(), getCriadoEm(), getId());
+  }
+}
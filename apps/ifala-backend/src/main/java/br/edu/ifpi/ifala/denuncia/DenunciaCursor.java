@@ -0,0 +1,72 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Chave de ordenação da listagem administrativa usada na paginação por cursor. Representa a
+ * última linha retornada: (fixada, naoLida, criadoEm, id), todos em ordem decrescente.
+ *
+ * <p>
+ * O cursor é serializado como Base64 URL-safe para ser opaco ao cliente.
+ * </p>
+ *
+ * @param fixada 1 se a denúncia está fixada pelo admin, 0 caso contrário
+ * @param naoLida 1 se a denúncia tem mensagens não lidas do denunciante, 0 caso contrário
+ * @param criadoEm data de criação da denúncia
+ * @param id ID da denúncia (desempate)
+ *
+ * @author Renê Morais
+ */
+public record DenunciaCursor(int fixada, int naoLida, LocalDateTime criadoEm, long id) {
+
+  private static final String SEPARADOR = "|";
+
+  /**
+   * Cursor inicial: maior que qualquer chave real, de modo que a primeira página começa do topo.
+   *
+   * @return cursor de início da listagem
+   */
+  public static DenunciaCursor inicio() {
+    return new DenunciaCursor(2, 2, LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+  }
+
+  /**
+   * Serializa o cursor em uma string opaca.
+   *
+   * @return cursor codificado
+   */
+  public String encode() {
+    String raw = fixada + SEPARADOR + naoLida + SEPARADOR + criadoEm + SEPARADOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodifica um cursor recebido do cliente. Cursor nulo ou vazio representa o início da
+   * listagem.
+   *
+   * @param cursor cursor codificado
+   * @return cursor decodificado
+   * @throws ResponseStatusException 400 se o cursor for inválido
+   */
+  public static DenunciaCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return inicio();
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] partes = raw.split("\\|");
+      if (partes.length != 4) {
+        throw new IllegalArgumentException("Quantidade de campos inválida");
+      }
+      return new DenunciaCursor(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]),
+          LocalDateTime.parse(partes[2]), Long.parseLong(partes[3]));
+    } catch (RuntimeException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido.");
+    }
+  }
+}
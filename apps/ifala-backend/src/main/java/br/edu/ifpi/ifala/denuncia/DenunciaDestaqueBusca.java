@@ -0,0 +1,14 @@
+package br.edu.ifpi.ifala.denuncia;
+
+/**
+ * Relevância e trecho destacado de uma denúncia encontrada pela busca textual. Ambos são calculados
+ * no PostgreSQL (ts_rank e ts_headline) apenas para as linhas da página atual.
+ *
+ * @param relevancia maior ts_rank entre a descrição e as mensagens da denúncia
+ * @param trecho trecho do texto correspondente em HTML seguro: os termos são marcados por
+ *     {@code <mark>}, a única marcação presente; o restante do texto vem escapado
+ *
+ * @author Renê Morais
+ */
+public record DenunciaDestaqueBusca(Float relevancia, String trecho) {
+}
@@ -0,0 +1,54 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import br.edu.ifpi.ifala.shared.enums.Ano;
+import br.edu.ifpi.ifala.shared.enums.Categorias;
+import br.edu.ifpi.ifala.shared.enums.Curso;
+import br.edu.ifpi.ifala.shared.enums.Grau;
+import br.edu.ifpi.ifala.shared.enums.Status;
+import br.edu.ifpi.ifala.shared.enums.Turma;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modelo de leitura da listagem administrativa. Contém exatamente as colunas necessárias para
+ * montar um DenunciaAdminResponseDto, carregadas por projeção de construtor JPQL: sem entidades
+ * gerenciadas e sem coleções (acompanhamentos/provas), de modo que a memória por página não
+ * depende do tamanho das conversas.
+ *
+ * @author Renê Morais
+ */
+public record DenunciaListagemView(Long id, UUID tokenAcompanhamento, Status status,
+    Categorias categoria, LocalDateTime criadoEm, LocalDateTime alteradoEm,
+    int mensagensNaoLidasAnonimo, boolean possuiRespostaAdmin, boolean desejaSeIdentificar,
+    String denuncianteNomeCompleto, Grau denuncianteGrau, Curso denuncianteCurso,
+    Ano denuncianteAno, Turma denuncianteTurma, String adminAcompanhandoEmail) {
+
+  /**
+   * Cria a visão de listagem a partir de uma entidade já carregada (fluxos de uma única denúncia).
+   *
+   * @param denuncia entidade de origem
+   * @return visão equivalente
+   */
+  public static DenunciaListagemView from(Denuncia denuncia) {
+    Denunciante denunciante = denuncia.getDenunciante();
+    return new DenunciaListagemView(denuncia.getId(), denuncia.getTokenAcompanhamento(),
+        denuncia.getStatus(), denuncia.getCategoria(), denuncia.getCriadoEm(),
+        denuncia.getAlteradoEm(), denuncia.getMensagensNaoLidasAnonimo(),
+        denuncia.isPossuiRespostaAdmin(), denuncia.isDesejaSeIdentificar(),
+        denunciante != null ? denunciante.getNomeCompleto() : null,
+        denunciante != null ? denunciante.getGrau() : null,
+        denunciante != null ? denunciante.getCurso() : null,
+        denunciante != null ? denunciante.getAno() : null,
+        denunciante != null ? denunciante.getTurma() : null,
+        denuncia.getAdminAcompanhandoEmail());
+  }
+
+  /**
+   * Indica se a denúncia tem dados de denunciante a exibir.
+   *
+   * @return true se o denunciante deseja se identificar e há dados cadastrados
+   */
+  public boolean possuiDenuncianteIdentificado() {
+    return desejaSeIdentificar && denuncianteNomeCompleto != null;
+  }
+}
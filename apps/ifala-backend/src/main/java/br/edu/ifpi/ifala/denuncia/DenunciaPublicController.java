@@ -1,5 +1,7 @@
 package br.edu.ifpi.ifala.denuncia;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -10,9 +12,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,10 +35,13 @@ import org.slf4j.LoggerFactory;
 import br.edu.ifpi.ifala.acompanhamento.acompanhamentoDTO.AcompanhamentoDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.CriarDenunciaDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaResponseDto;
+import br.edu.ifpi.ifala.shared.dto.CursorPageDto;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -49,12 +58,27 @@ import java.util.UUID;
 public class DenunciaPublicController {
 
   private static final Logger log = LoggerFactory.getLogger(DenunciaPublicController.class);
+
+  /**
+   * Respostas por token são privadas do denunciante: nenhum proxy compartilhado pode guardá-las, e
+   * o navegador sempre revalida com If-None-Match antes de reutilizar a cópia local.
+   */
+  private static final CacheControl SEM_CACHE_COMPARTILHADO = CacheControl.noCache().cachePrivate();
   private final DenunciaService denunciaService;
+  private final RecepcaoDenunciaService recepcaoDenunciaService;
   private final ObjectMapper objectMapper;
+  private final AcompanhamentoPublicoStream acompanhamentoPublicoStream;
+  private final TokenAcompanhamentoFiltro tokenAcompanhamentoFiltro;
 
-  public DenunciaPublicController(DenunciaService denunciaService, ObjectMapper objectMapper) {
+  public DenunciaPublicController(DenunciaService denunciaService,
+      RecepcaoDenunciaService recepcaoDenunciaService, ObjectMapper objectMapper,
+      AcompanhamentoPublicoStream acompanhamentoPublicoStream,
+      TokenAcompanhamentoFiltro tokenAcompanhamentoFiltro) {
     this.denunciaService = denunciaService;
+    this.recepcaoDenunciaService = recepcaoDenunciaService;
     this.objectMapper = objectMapper;
+    this.acompanhamentoPublicoStream = acompanhamentoPublicoStream;
+    this.tokenAcompanhamentoFiltro = tokenAcompanhamentoFiltro;
   }
 
   @PostMapping
@@ -71,7 +95,7 @@ public class DenunciaPublicController {
 
     log.info("Recebida requisição para criar nova denúncia pública.");
     try {
-      DenunciaResponseDto denunciaSalvaDto = denunciaService.criarDenuncia(novaDenunciaDto, null);
+      DenunciaResponseDto denunciaSalvaDto = recepcaoDenunciaService.receber(novaDenunciaDto, null);
       URI uri = uriBuilder.path("/api/v1/public/denuncias/{token}")
           .buildAndExpand(denunciaSalvaDto.tokenAcompanhamento()).toUri();
 
@@ -107,7 +131,8 @@ public class DenunciaPublicController {
       CriarDenunciaDto novaDenunciaDto =
           objectMapper.readValue(denunciaJson, CriarDenunciaDto.class);
 
-      DenunciaResponseDto denunciaSalvaDto = denunciaService.criarDenuncia(novaDenunciaDto, provas);
+      DenunciaResponseDto denunciaSalvaDto =
+          recepcaoDenunciaService.receber(novaDenunciaDto, provas);
       URI uri = uriBuilder.path("/api/v1/public/denuncias/{token}")
           .buildAndExpand(denunciaSalvaDto.tokenAcompanhamento()).toUri();
 
@@ -115,9 +140,12 @@ public class DenunciaPublicController {
           maskToken(denunciaSalvaDto.tokenAcompanhamento()));
 
       return ResponseEntity.created(uri).body(denunciaSalvaDto);
-    } catch (Exception e) {
+    } catch (JsonProcessingException e) {
+      log.error("JSON da denúncia com provas inválido: {}", e.getOriginalMessage());
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dados da denúncia inválidos.");
+    } catch (RuntimeException e) {
       log.error("Erro ao criar denúncia com provas: {}", e.getMessage());
-      throw new RuntimeException("Erro ao processar denúncia com provas", e);
+      throw e; // lança a exceção para ser tratada globalmente
     }
   }
 
@@ -128,15 +156,34 @@ public class DenunciaPublicController {
       @ApiResponse(responseCode = "200", description = "Denúncia encontrada",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = DenunciaResponseDto.class))),
+      @ApiResponse(responseCode = "304",
+          description = "Denúncia não mudou desde o ETag informado em If-None-Match",
+          content = @Content),
       @ApiResponse(responseCode = "404",
           description = "Denúncia não encontrada para o token fornecido", content = @Content)})
   public ResponseEntity<DenunciaResponseDto> consultarPorToken(@Parameter(
       description = "Token de acompanhamento da denúncia", required = true,
-      example = "123e4567-e89b-12d3-a456-426614174000") @PathVariable UUID tokenAcompanhamento) {
+      example = "123e4567-e89b-12d3-a456-426614174000") @PathVariable UUID tokenAcompanhamento,
+      WebRequest webRequest) {
     log.info("Recebida requisição de consulta pública por token: {}",
         maskToken(tokenAcompanhamento));
+    if (tokenInexistente(tokenAcompanhamento)) {
+      return ResponseEntity.notFound().build();
+    }
+    Optional<Long> versao = denunciaService.buscarVersaoPorToken(tokenAcompanhamento);
+    if (versao.isEmpty()) {
+      log.warn("Denúncia não encontrada (público) para o token: {}",
+          maskToken(tokenAcompanhamento));
+      return ResponseEntity.notFound().build();
+    }
+    String etag = etag(versao.get());
+    if (webRequest.checkNotModified(etag)) {
+      return naoModificado(etag);
+    }
     return denunciaService.consultarPorTokenAcompanhamento(tokenAcompanhamento)
-        .map(ResponseEntity::ok).orElseGet(() -> {
+        .map(denuncia -> ResponseEntity.ok().eTag(etag).cacheControl(SEM_CACHE_COMPARTILHADO)
+            .body(denuncia))
+        .orElseGet(() -> {
           log.warn("Denúncia não encontrada (público) para o token: {}",
               maskToken(tokenAcompanhamento));
           return ResponseEntity.notFound().build();
@@ -148,17 +195,35 @@ public class DenunciaPublicController {
       description = "Retorna todo o histórico de acompanhamentos de uma denúncia usando o token.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Acompanhamentos listados com sucesso"),
+      @ApiResponse(responseCode = "304",
+          description = "Nenhum acompanhamento novo desde o ETag informado em If-None-Match",
+          content = @Content),
       @ApiResponse(responseCode = "404", description = "Denúncia não encontrada",
           content = @Content)})
   public ResponseEntity<List<AcompanhamentoDto>> listarAcompanhamentos(
       @Parameter(description = "Token de acompanhamento da denúncia",
-          required = true) @PathVariable UUID tokenAcompanhamento) {
+          required = true) @PathVariable UUID tokenAcompanhamento,
+      WebRequest webRequest) {
     log.info("Recebida requisição para listar acompanhamentos (público) por token: {}",
         maskToken(tokenAcompanhamento));
+    if (tokenInexistente(tokenAcompanhamento)) {
+      return ResponseEntity.notFound().build();
+    }
+    Optional<Long> versao = denunciaService.buscarVersaoPorToken(tokenAcompanhamento);
+    if (versao.isEmpty()) {
+      log.warn("Denúncia não encontrada (público) ao listar acompanhamentos por token: {}",
+          maskToken(tokenAcompanhamento));
+      return ResponseEntity.notFound().build();
+    }
+    String etag = etag(versao.get());
+    if (webRequest.checkNotModified(etag)) {
+      return naoModificado(etag);
+    }
     try {
       List<AcompanhamentoDto> acompanhamentos =
           denunciaService.listarAcompanhamentosPorToken(tokenAcompanhamento);
-      return ResponseEntity.ok(acompanhamentos);
+      return ResponseEntity.ok().eTag(etag).cacheControl(SEM_CACHE_COMPARTILHADO)
+          .body(acompanhamentos);
     } catch (EntityNotFoundException e) {
       log.warn("Denúncia não encontrada (público) ao listar acompanhamentos por token: {}",
           maskToken(tokenAcompanhamento));
@@ -166,6 +231,68 @@ public class DenunciaPublicController {
     }
   }
 
+  @GetMapping("/{tokenAcompanhamento}/acompanhamentos/cursor")
+  @Operation(summary = "Lista acompanhamentos de forma incremental pelo token",
+      description = "Retorna apenas as mensagens posteriores a cursor, afterId ou since (use "
+          + "apenas um), em ordem de envio. Sem nenhum deles, começa da primeira mensagem.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Acompanhamentos listados com sucesso"),
+      @ApiResponse(responseCode = "400", description = "Cursor ou parâmetros inválidos",
+          content = @Content),
+      @ApiResponse(responseCode = "404", description = "Denúncia não encontrada",
+          content = @Content)})
+  public ResponseEntity<CursorPageDto<AcompanhamentoDto>> listarAcompanhamentosIncremental(
+      @Parameter(description = "Token de acompanhamento da denúncia",
+          required = true) @PathVariable UUID tokenAcompanhamento,
+      @Parameter(description = "Cursor da próxima página") @RequestParam(
+          required = false) String cursor,
+      @Parameter(description = "ID da última mensagem recebida") @RequestParam(
+          required = false) Long afterId,
+      @Parameter(description = "Data/hora ISO-8601 da última atualização",
+          example = "2025-10-17T14:30:00") @RequestParam(required = false) @DateTimeFormat(
+              iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+      @Parameter(description = "Tamanho máximo da página", example = "50") @RequestParam(
+          defaultValue = "50") int size) {
+    if (tokenInexistente(tokenAcompanhamento)) {
+      return ResponseEntity.notFound().build();
+    }
+    try {
+      return ResponseEntity.ok(denunciaService.listarAcompanhamentosIncrementalPorToken(
+          tokenAcompanhamento, cursor, afterId, since, size));
+    } catch (EntityNotFoundException e) {
+      log.warn("Denúncia não encontrada (público) ao listar acompanhamentos por token: {}",
+          maskToken(tokenAcompanhamento));
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @GetMapping(value = "/{tokenAcompanhamento}/acompanhamentos/stream",
+      produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Acompanha uma denúncia em tempo real (SSE)",
+      description = "Mantém uma conexão Server-Sent Events que recebe os eventos 'acompanhamento' "
+          + "(nova mensagem do admin) e 'status' (mudança de status) da denúncia.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Conexão SSE aberta"),
+      @ApiResponse(responseCode = "404", description = "Denúncia não encontrada",
+          content = @Content),
+      @ApiResponse(responseCode = "503",
+          description = "Limite de conexões atingido; o cliente deve voltar ao polling",
+          content = @Content)})
+  public ResponseEntity<SseEmitter> acompanharEmTempoReal(
+      @Parameter(description = "Token de acompanhamento da denúncia",
+          required = true) @PathVariable UUID tokenAcompanhamento) {
+    if (tokenInexistente(tokenAcompanhamento)
+        || denunciaService.buscarVersaoPorToken(tokenAcompanhamento).isEmpty()) {
+      log.warn("Denúncia não encontrada (público) ao abrir stream por token: {}",
+          maskToken(tokenAcompanhamento));
+      return ResponseEntity.notFound().build();
+    }
+    log.debug("Stream SSE aberto para o token: {}", maskToken(tokenAcompanhamento));
+    // Desativa o buffering do nginx para que cada evento chegue imediatamente
+    return ResponseEntity.ok().header("X-Accel-Buffering", "no")
+        .body(acompanhamentoPublicoStream.conectar(tokenAcompanhamento));
+  }
+
   @PostMapping("/{tokenAcompanhamento}/acompanhamentos")
   @Operation(summary = "Adiciona um novo acompanhamento (pelo denunciante)",
       description = "Permite que o denunciante original adicione uma nova mensagem ou atualização ao histórico da sua denúncia usando o token.")
@@ -182,6 +309,9 @@ public class DenunciaPublicController {
       @Valid @RequestBody AcompanhamentoDto novoAcompanhamento) {
     log.info("Recebida requisição para adicionar acompanhamento (público) por token: {}",
         maskToken(tokenAcompanhamento));
+    if (tokenInexistente(tokenAcompanhamento)) {
+      return ResponseEntity.notFound().build();
+    }
     try {
       AcompanhamentoDto acompanhamentoSalvo = denunciaService
           .adicionarAcompanhamentoDenunciante(tokenAcompanhamento, novoAcompanhamento);
@@ -194,6 +324,35 @@ public class DenunciaPublicController {
     }
   }
 
+  /**
+   * Consulta o filtro de tokens em memória antes de abrir transação. Tokens que certamente não
+   * existem (varredura ou digitação incorreta) recebem 404 sem nenhum acesso ao banco.
+   */
+  private boolean tokenInexistente(UUID tokenAcompanhamento) {
+    if (tokenAcompanhamentoFiltro.podeExistir(tokenAcompanhamento)) {
+      return false;
+    }
+    log.debug("Token recusado pelo filtro de tokens: {}", maskToken(tokenAcompanhamento));
+    return true;
+  }
+
+  /**
+   * ETag forte derivado da versão pública da denúncia. A versão muda a cada novo acompanhamento ou
+   * alteração de status, então o mesmo valor serve para a denúncia e para a lista de
+   * acompanhamentos.
+   *
+   * @param versao versão pública da denúncia
+   * @return valor do ETag entre aspas
+   */
+  private static String etag(long versao) {
+    return "\"" + versao + "\"";
+  }
+
+  private static <T> ResponseEntity<T> naoModificado(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+        .cacheControl(SEM_CACHE_COMPARTILHADO).build();
+  }
+
   /**
    * Mascara um token UUID mostrando apenas os primeiros 8 caracteres seguidos de "...***". Previne
    * exposição completa de tokens sensíveis nos logs.
@@ -0,0 +1,27 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import br.edu.ifpi.ifala.shared.enums.Ano;
+import br.edu.ifpi.ifala.shared.enums.Categorias;
+import br.edu.ifpi.ifala.shared.enums.Curso;
+import br.edu.ifpi.ifala.shared.enums.Grau;
+import br.edu.ifpi.ifala.shared.enums.Status;
+import br.edu.ifpi.ifala.shared.enums.Turma;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modelo de leitura da consulta pública por token. Contém as colunas do DenunciaResponseDto e o
+ * contador de mensagens do admin ainda não lidas, usado para decidir se a confirmação de leitura
+ * precisa ser gravada. Carregado por projeção de construtor, sem acompanhamentos nem provas.
+ *
+ * @author Renê Morais
+ */
+public record DenunciaPublicaView(Long id, UUID tokenAcompanhamento, Status status,
+    Categorias categoria, LocalDateTime criadoEm, LocalDateTime alteradoEm,
+    int mensagensNaoLidasAdmin, boolean desejaSeIdentificar, String denuncianteNomeCompleto,
+    Grau denuncianteGrau, Curso denuncianteCurso, Ano denuncianteAno, Turma denuncianteTurma) {
+
+  public boolean possuiDenuncianteIdentificado() {
+    return desejaSeIdentificar && denuncianteNomeCompleto != null;
+  }
+}
@@ -1,17 +1,25 @@
 package br.edu.ifpi.ifala.denuncia;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
 
 /**
  * Classe repositório para gerenciamento de entidades Denuncia. Responsável por
@@ -31,6 +39,107 @@ public interface DenunciaRepository
   @EntityGraph(attributePaths = { "acompanhamentos", "provas", "denunciante" })
   Optional<Denuncia> findById(Long id);
 
+  /**
+   * Modelo de leitura da consulta pública por token: uma única consulta pela
+   * coluna única token_acompanhamento, sem acompanhamentos nem provas.
+   *
+   * @param tokenAcompanhamento token de acompanhamento da denúncia
+   * @return visão pública, se o token existir
+   */
+  @Query("""
+      SELECT new br.edu.ifpi.ifala.denuncia.DenunciaPublicaView(
+        d.id, d.tokenAcompanhamento, d.status, d.categoria, d.criadoEm, d.alteradoEm,
+        d.mensagensNaoLidasAdmin, d.desejaSeIdentificar,
+        dn.nomeCompleto, dn.grau, dn.curso, dn.ano, dn.turma)
+      FROM Denuncia d
+      LEFT JOIN d.denunciante dn
+      WHERE d.tokenAcompanhamento = :token
+      """)
+  Optional<DenunciaPublicaView> findPublicaByTokenAcompanhamento(@Param("token") UUID token);
+
+  /**
+   * Leitura em streaming de todos os tokens de acompanhamento, usada para montar o filtro de
+   * tokens. Deve ser consumida dentro de uma transação e fechada ao final.
+   *
+   * @return tokens de todas as denúncias
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT d.tokenAcompanhamento FROM Denuncia d")
+  Stream<UUID> streamTokensAcompanhamento();
+
+  @Query("SELECT d.id FROM Denuncia d WHERE d.tokenAcompanhamento = :token")
+  Optional<Long> findIdByTokenAcompanhamento(@Param("token") UUID token);
+
+  /**
+   * Versão pública da denúncia, lida apenas pelo índice único do token. Usada
+   * para responder 304 aos endpoints públicos sem carregar a denúncia.
+   *
+   * @param token token de acompanhamento da denúncia
+   * @return versão atual, se o token existir
+   */
+  @Query("SELECT d.versao FROM Denuncia d WHERE d.tokenAcompanhamento = :token")
+  Optional<Long> findVersaoByTokenAcompanhamento(@Param("token") UUID token);
+
+  /**
+   * Atualiza, em um único UPDATE, o resumo de atividade com um novo acompanhamento: incrementa o
+   * contador de não lidas do destinatário, marca a resposta do admin e avança último autor e
+   * última atividade (sem retroceder, se um acompanhamento mais antigo confirmar depois), além de
+   * incrementar a versão pública. O
+   * bloqueio da linha dura até o commit, então atualizações concorrentes se somam em vez de se
+   * sobrescreverem.
+   *
+   * @param id        ID da denúncia
+   * @param autor     autor do acompanhamento ({@code ANONIMO} ou {@code ADMIN})
+   * @param dataEnvio data de envio do acompanhamento
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = """
+      UPDATE denuncias SET
+        mensagens_nao_lidas_anonimo = mensagens_nao_lidas_anonimo
+          + CASE WHEN :autor = 'ANONIMO' THEN 1 ELSE 0 END,
+        mensagens_nao_lidas_admin = mensagens_nao_lidas_admin
+          + CASE WHEN :autor = 'ADMIN' THEN 1 ELSE 0 END,
+        possui_resposta_admin = possui_resposta_admin OR :autor = 'ADMIN',
+        ultimo_autor = CASE WHEN ultima_atividade_em IS NULL OR ultima_atividade_em <= :dataEnvio
+          THEN :autor ELSE ultimo_autor END,
+        ultima_atividade_em = GREATEST(ultima_atividade_em, :dataEnvio),
+        versao = versao + 1
+      WHERE id = :id
+      """, nativeQuery = true)
+  void registrarAtividade(@Param("id") Long id, @Param("autor") String autor,
+      @Param("dataEnvio") LocalDateTime dataEnvio);
+
+  /**
+   * Marca uma alteração visível ao denunciante (status ou motivo de rejeição), invalidando as ETags
+   * entregues pelos endpoints públicos. O incremento é feito no banco sob o bloqueio da linha, então
+   * commits concorrentes nunca gravam a mesma versão.
+   *
+   * @param id ID da denúncia
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE Denuncia d SET d.versao = d.versao + 1 WHERE d.id = :id")
+  void incrementarVersao(@Param("id") Long id);
+
+  /**
+   * Zera o contador de mensagens de um autor ainda não visualizadas. Deve ser chamado antes de
+   * marcar os acompanhamentos como visualizados: o bloqueio da linha espera as mensagens em
+   * gravação, de modo que a marcação seguinte as enxerga, e as que chegarem depois só incrementam
+   * o contador após este commit.
+   *
+   * @param id    ID da denúncia
+   * @param autor autor das mensagens visualizadas ({@code ANONIMO} ou {@code ADMIN})
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = """
+      UPDATE denuncias SET
+        mensagens_nao_lidas_anonimo = CASE WHEN :autor = 'ANONIMO' THEN 0
+          ELSE mensagens_nao_lidas_anonimo END,
+        mensagens_nao_lidas_admin = CASE WHEN :autor = 'ADMIN' THEN 0
+          ELSE mensagens_nao_lidas_admin END
+      WHERE id = :id
+      """, nativeQuery = true)
+  void zerarMensagensNaoLidas(@Param("id") Long id, @Param("autor") String autor);
+
   /**
    * busca IDs de denúncias com paginação (primeiro passo da estratégia anti-N+1).
    * retorna apenas os IDs para depois buscar as entidades completas com
@@ -44,34 +153,40 @@ public interface DenunciaRepository
   Page<Long> findAllIds(Pageable pageable);
 
   /**
-   * busca denúncias completas com relacionamentos pelos IDs.
-   * segundo passo da estratégia anti-N+1 para listagem paginada.
+   * Modelo de leitura da listagem administrativa: projeção de construtor com
+   * exatamente as colunas do DenunciaAdminResponseDto. Não carrega entidades
+   * gerenciadas nem coleções, apenas denuncias + denunciantes (1:1).
    *
-   * @param ids lista de IDs das denúncias
-   * @return lista de denúncias com todos os relacionamentos carregados
+   * @param ids IDs das denúncias da página
+   * @return visões de listagem (ordem não garantida)
    */
-  @EntityGraph(attributePaths = { "acompanhamentos", "provas", "denunciante" })
-  @Query("SELECT DISTINCT d FROM Denuncia d WHERE d.id IN :ids")
-  List<Denuncia> findAllByIdWithRelations(@Param("ids") List<Long> ids);
+  @Query("""
+      SELECT new br.edu.ifpi.ifala.denuncia.DenunciaListagemView(
+        d.id, d.tokenAcompanhamento, d.status, d.categoria, d.criadoEm, d.alteradoEm,
+        d.mensagensNaoLidasAnonimo, d.possuiRespostaAdmin, d.desejaSeIdentificar,
+        dn.nomeCompleto, dn.grau, dn.curso, dn.ano, dn.turma, d.adminAcompanhandoEmail)
+      FROM Denuncia d
+      LEFT JOIN d.denunciante dn
+      WHERE d.id IN :ids
+      """)
+  List<DenunciaListagemView> findListagemByIdIn(@Param("ids") List<Long> ids);
 
   /**
    * busca IDs de denúncias ordenados por:
    * 1. Se possui mensagens não lidas do ANONIMO (denunciante)
    * 2. Data de criação (mais recente primeiro)
+   * Usa o resumo de atividade mantido em denuncias, sem JOIN com acompanhamentos.
    * 
    * @param pageable configuração de paginação
    * @return Page com os IDs ordenados
    */
-  @Query("""
+  @Query(value = """
       SELECT d.id
       FROM Denuncia d
-      LEFT JOIN d.acompanhamentos a
-      WHERE 1=1
-      GROUP BY d.id, d.criadoEm
       ORDER BY
-        MAX(CASE WHEN a.autor = 'ANONIMO' AND a.visualizado = false THEN 1 ELSE 0 END) DESC,
+        CASE WHEN d.mensagensNaoLidasAnonimo > 0 THEN 1 ELSE 0 END DESC,
         d.criadoEm DESC
-      """)
+      """, countQuery = "SELECT COUNT(d) FROM Denuncia d")
   Page<Long> findAllIdsOrderedByNewMessagesAndDate(Pageable pageable);
 
   /**
@@ -84,19 +199,25 @@ public interface DenunciaRepository
    * @param pageable    configuração de paginação
    * @return Page com os IDs filtrados e ordenados
    */
-  @Query("""
+  @Query(value = """
       SELECT d.id
       FROM Denuncia d
-      LEFT JOIN d.acompanhamentos a
       WHERE
         (:status IS NULL OR d.status = :status) AND
         (:categoria IS NULL OR d.categoria = :categoria) AND
         (:tokenSearch IS NULL OR CAST(d.tokenAcompanhamento AS string) = :tokenSearch) AND
         (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
-      GROUP BY d.id, d.criadoEm
       ORDER BY
-        MAX(CASE WHEN a.autor = 'ANONIMO' AND a.visualizado = false THEN 1 ELSE 0 END) DESC,
+        CASE WHEN d.mensagensNaoLidasAnonimo > 0 THEN 1 ELSE 0 END DESC,
         d.criadoEm DESC
+      """, countQuery = """
+      SELECT COUNT(d)
+      FROM Denuncia d
+      WHERE
+        (:status IS NULL OR d.status = :status) AND
+        (:categoria IS NULL OR d.categoria = :categoria) AND
+        (:tokenSearch IS NULL OR CAST(d.tokenAcompanhamento AS string) = :tokenSearch) AND
+        (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
       """)
   Page<Long> findAllIdsWithFiltersOrderedByNewMessages(
       @Param("status") br.edu.ifpi.ifala.shared.enums.Status status,
@@ -109,6 +230,8 @@ public interface DenunciaRepository
    * Busca IDs de denúncias com filtros, ordenando PRIMEIRO por denúncias fixadas
    * do usuário.
    * Denúncias fixadas aparecem sempre no topo, independente da página.
+   * A prioridade de mensagens não lidas vem do resumo de atividade mantido em
+   * denuncias (sem JOIN/GROUP BY sobre acompanhamentos).
    * 
    * @param usuarioId   ID do usuário logado
    * @param status      filtro de status (opcional)
@@ -118,22 +241,28 @@ public interface DenunciaRepository
    * @param pageable    configuração de paginação
    * @return Page com os IDs filtrados e ordenados (fixadas primeiro)
    */
-  @Query("""
+  @Query(value = """
       SELECT d.id
       FROM Denuncia d
-      LEFT JOIN d.acompanhamentos a
       LEFT JOIN DenunciaFixada df ON df.denuncia.id = d.id AND df.usuario.id = :usuarioId
       WHERE
         (:status IS NULL OR d.status = :status) AND
         (:categoria IS NULL OR d.categoria = :categoria) AND
         (:tokenSearch IS NULL OR CAST(d.tokenAcompanhamento AS string) = :tokenSearch) AND
         (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
-      GROUP BY d.id, d.criadoEm, df.fixadaEm
       ORDER BY
         CASE WHEN df.fixadaEm IS NOT NULL THEN 0 ELSE 1 END,
         df.fixadaEm DESC NULLS LAST,
-        MAX(CASE WHEN a.autor = 'ANONIMO' AND a.visualizado = false THEN 1 ELSE 0 END) DESC,
+        CASE WHEN d.mensagensNaoLidasAnonimo > 0 THEN 1 ELSE 0 END DESC,
         d.criadoEm DESC
+      """, countQuery = """
+      SELECT COUNT(d)
+      FROM Denuncia d
+      WHERE
+        (:status IS NULL OR d.status = :status) AND
+        (:categoria IS NULL OR d.categoria = :categoria) AND
+        (:tokenSearch IS NULL OR CAST(d.tokenAcompanhamento AS string) = :tokenSearch) AND
+        (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
       """)
   Page<Long> findAllIdsWithFiltersOrderedByFixedFirst(
       @Param("usuarioId") Long usuarioId,
@@ -143,6 +272,139 @@ public interface DenunciaRepository
       @Param("adminEmail") String adminEmail,
       Pageable pageable);
 
+  /**
+   * Mesma consulta de {@link #findAllIdsWithFiltersOrderedByFixedFirst}, mas retornando
+   * {@link Slice}: o Spring Data busca size + 1 linhas para calcular {@code hasNext} e não executa
+   * COUNT.
+   *
+   * @param usuarioId   ID do usuário logado
+   * @param status      filtro de status (opcional)
+   * @param categoria   filtro de categoria (opcional)
+   * @param tokenSearch busca por token (opcional)
+   * @param adminEmail  filtro por email do admin acompanhando (opcional)
+   * @param pageable    configuração de paginação
+   * @return Slice com os IDs filtrados e ordenados (fixadas primeiro)
+   */
+  @Query("""
+      SELECT d.id
+      FROM Denuncia d
+      LEFT JOIN DenunciaFixada df ON df.denuncia.id = d.id AND df.usuario.id = :usuarioId
+      WHERE
+        (:status IS NULL OR d.status = :status) AND
+        (:categoria IS NULL OR d.categoria = :categoria) AND
+        (:tokenSearch IS NULL OR CAST(d.tokenAcompanhamento AS string) = :tokenSearch) AND
+        (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
+      ORDER BY
+        CASE WHEN df.fixadaEm IS NOT NULL THEN 0 ELSE 1 END,
+        df.fixadaEm DESC NULLS LAST,
+        CASE WHEN d.mensagensNaoLidasAnonimo > 0 THEN 1 ELSE 0 END DESC,
+        d.criadoEm DESC
+      """)
+  Slice<Long> findIdsSliceWithFiltersOrderedByFixedFirst(
+      @Param("usuarioId") Long usuarioId,
+      @Param("status") br.edu.ifpi.ifala.shared.enums.Status status,
+      @Param("categoria") br.edu.ifpi.ifala.shared.enums.Categorias categoria,
+      @Param("tokenSearch") String tokenSearch,
+      @Param("adminEmail") String adminEmail,
+      Pageable pageable);
+
+  /**
+   * Total aproximado de denúncias segundo as estatísticas do PostgreSQL (atualizadas por
+   * ANALYZE/autovacuum). Retorna -1 se a tabela nunca foi analisada.
+   *
+   * @return estimativa do número de linhas da tabela denuncias
+   */
+  @Query(value = "SELECT CAST(c.reltuples AS BIGINT) FROM pg_class c "
+      + "WHERE c.oid = CAST('denuncias' AS regclass)", nativeQuery = true)
+  Long estimarTotal();
+
+  /**
+   * Busca, entre as denúncias fixadas pelo admin, as chaves seguintes ao cursor na listagem por
+   * cursor (keyset). As fixadas vêm do {@code DenunciaFixadaCache} (poucas por admin), então a
+   * consulta parte da chave primária e ordena apenas essas linhas.
+   *
+   * @param ids        IDs das denúncias fixadas pelo usuário (não vazio)
+   * @param status     filtro de status (opcional, nome do enum)
+   * @param categoria  filtro de categoria (opcional, nome do enum)
+   * @param adminEmail filtro por email do admin acompanhando (opcional)
+   * @param naoLida    componente "não lida" do cursor
+   * @param criadoEm   componente "data de criação" do cursor
+   * @param id         componente "id" do cursor
+   * @param limite     quantidade máxima de linhas
+   * @return chaves das denúncias fixadas da página, na ordem da listagem
+   */
+  @Query(value = """
+      SELECT d.id AS id, 1 AS fixada,
+             CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END AS naoLida,
+             d.criado_em AS criadoEm
+      FROM denuncias d
+      WHERE d.id IN :ids
+        AND (CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR))
+        AND (CAST(:categoria AS VARCHAR) IS NULL OR d.categoria = CAST(:categoria AS VARCHAR))
+        AND (CAST(:adminEmail AS VARCHAR) IS NULL
+             OR d.admin_acompanhando_email = CAST(:adminEmail AS VARCHAR))
+        AND (CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END, d.criado_em, d.id)
+            < (:naoLida, :criadoEm, :id)
+      ORDER BY CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END DESC,
+               d.criado_em DESC, d.id DESC
+      LIMIT :limite
+      """, nativeQuery = true)
+  List<DenunciaChaveListagem> findChavesFixadasAposCursor(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") String status,
+      @Param("categoria") String categoria,
+      @Param("adminEmail") String adminEmail,
+      @Param("naoLida") int naoLida,
+      @Param("criadoEm") LocalDateTime criadoEm,
+      @Param("id") long id,
+      @Param("limite") int limite);
+
+  /**
+   * Busca, entre as denúncias não fixadas pelo admin, as chaves seguintes ao cursor na listagem
+   * por cursor (keyset). A comparação de linha (não lida, criado_em, id) e a ordenação usam
+   * exatamente as expressões do índice idx_denuncias_keyset_listagem (V16), de modo que o
+   * PostgreSQL percorre o índice a partir do cursor e para no LIMIT, sem ordenar. As fixadas são
+   * descartadas por anti-join na unique (usuario_id, denuncia_id) de denuncia_fixada, que preserva
+   * a ordem do índice.
+   *
+   * @param usuarioId  ID do usuário logado (para descartar as denúncias fixadas)
+   * @param status     filtro de status (opcional, nome do enum)
+   * @param categoria  filtro de categoria (opcional, nome do enum)
+   * @param adminEmail filtro por email do admin acompanhando (opcional)
+   * @param naoLida    componente "não lida" do cursor
+   * @param criadoEm   componente "data de criação" do cursor
+   * @param id         componente "id" do cursor
+   * @param limite     quantidade máxima de linhas
+   * @return chaves das denúncias não fixadas da página, na ordem da listagem
+   */
+  @Query(value = """
+      SELECT d.id AS id, 0 AS fixada,
+             CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END AS naoLida,
+             d.criado_em AS criadoEm
+      FROM denuncias d
+      WHERE (CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END, d.criado_em, d.id)
+            < (:naoLida, :criadoEm, :id)
+        AND (CAST(:status AS VARCHAR) IS NULL OR d.status = CAST(:status AS VARCHAR))
+        AND (CAST(:categoria AS VARCHAR) IS NULL OR d.categoria = CAST(:categoria AS VARCHAR))
+        AND (CAST(:adminEmail AS VARCHAR) IS NULL
+             OR d.admin_acompanhando_email = CAST(:adminEmail AS VARCHAR))
+        AND NOT EXISTS (
+          SELECT 1 FROM denuncia_fixada df
+          WHERE df.usuario_id = :usuarioId AND df.denuncia_id = d.id)
+      ORDER BY CASE WHEN d.mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END DESC,
+               d.criado_em DESC, d.id DESC
+      LIMIT :limite
+      """, nativeQuery = true)
+  List<DenunciaChaveListagem> findChavesNaoFixadasAposCursor(
+      @Param("usuarioId") Long usuarioId,
+      @Param("status") String status,
+      @Param("categoria") String categoria,
+      @Param("adminEmail") String adminEmail,
+      @Param("naoLida") int naoLida,
+      @Param("criadoEm") LocalDateTime criadoEm,
+      @Param("id") long id,
+      @Param("limite") int limite);
+
   /**
    * Busca IDs de denúncias usando a função SQL otimizada com índices GIN/trigram.
    * A função buscar_denuncias_por_texto busca em descrição e mensagens de
@@ -155,61 +417,36 @@ public interface DenunciaRepository
   List<Long> buscarIdsPorTexto(@Param("termo") String termo);
 
   /**
-   * Busca denúncias por lista de IDs com filtros opcionais de status e categoria.
-   * Retorna as denúncias ordenadas por: mensagens não lidas do ANONIMO e data de
-   * criação.
-   * 
-   * @param ids       Lista de IDs para filtrar
-   * @param status    Filtro de status (opcional)
-   * @param categoria Filtro de categoria (opcional)
-   * @return Lista de denúncias que atendem aos critérios
-   */
-  @EntityGraph(attributePaths = { "acompanhamentos", "provas", "denunciante" })
-  @Query("""
-      SELECT d FROM Denuncia d
-      WHERE d.id IN :ids
-        AND (:status IS NULL OR d.status = :status)
-        AND (:categoria IS NULL OR d.categoria = :categoria)
-        AND (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
-      ORDER BY d.criadoEm DESC
-      """)
-  List<Denuncia> findByIdsWithFiltersOrdered(
-      @Param("ids") List<Long> ids,
-      @Param("status") br.edu.ifpi.ifala.shared.enums.Status status,
-      @Param("categoria") br.edu.ifpi.ifala.shared.enums.Categorias categoria,
-      @Param("adminEmail") String adminEmail);
-
-  /**
-   * Busca denúncias por lista de IDs com filtros e ordenação por fixadas
-   * primeiro.
-   * Ordena por: fixadas primeiro, depois por data de fixação, depois por data de
-   * criação.
-   * 
-   * @param ids        Lista de IDs para filtrar
-   * @param usuarioId  ID do usuário para verificar fixadas
-   * @param status     Filtro de status (opcional)
-   * @param categoria  Filtro de categoria (opcional)
-   * @param adminEmail Filtro por email do admin acompanhando (opcional)
-   * @return Lista de denúncias ordenadas
+   * Busca textual paginada em uma única consulta. A função SQL
+   * buscar_denuncias_por_texto_paginado aplica filtros, ordenação (fixadas
+   * primeiro) e LIMIT/OFFSET no banco, retornando apenas as linhas da página e o
+   * total de resultados. Recebe os IDs fixados, e não o usuário, para que a
+   * página possa ser compartilhada em cache entre admins com as mesmas fixadas.
+   *
+   * @param termo        Termo de busca (mínimo 3 caracteres)
+   * @param fixadas      IDs das denúncias fixadas do usuário, como literal de
+   *                     array do PostgreSQL (ex.: {1,2})
+   * @param status       filtro de status (opcional, nome do enum)
+   * @param categoria    filtro de categoria (opcional, nome do enum)
+   * @param adminEmail   filtro por email do admin acompanhando (opcional)
+   * @param limite       tamanho da página
+   * @param deslocamento posição inicial da página
+   * @return IDs da página, na ordem da listagem, com o total, a relevância e o trecho destacado
    */
-  @EntityGraph(attributePaths = { "acompanhamentos", "provas", "denunciante" })
-  @Query("""
-      SELECT d FROM Denuncia d
-      LEFT JOIN DenunciaFixada df ON df.denuncia.id = d.id AND df.usuario.id = :usuarioId
-      WHERE d.id IN :ids
-        AND (:status IS NULL OR d.status = :status)
-        AND (:categoria IS NULL OR d.categoria = :categoria)
-        AND (:adminEmail IS NULL OR d.adminAcompanhandoEmail = :adminEmail)
-      ORDER BY
-        CASE WHEN df.fixadaEm IS NOT NULL THEN 0 ELSE 1 END,
-        df.fixadaEm DESC NULLS LAST,
-        d.criadoEm DESC
-      """)
-  List<Denuncia> findByIdsWithFiltersOrderedByFixed(
-      @Param("ids") List<Long> ids,
-      @Param("usuarioId") Long usuarioId,
-      @Param("status") br.edu.ifpi.ifala.shared.enums.Status status,
-      @Param("categoria") br.edu.ifpi.ifala.shared.enums.Categorias categoria,
-      @Param("adminEmail") String adminEmail);
+  @Query(value = """
+      SELECT r.denuncia_id AS denunciaId, r.total AS total, r.relevancia AS relevancia,
+        r.trecho AS trecho
+      FROM buscar_denuncias_por_texto_paginado(:termo, CAST(:fixadas AS BIGINT[]),
+        CAST(:status AS VARCHAR), CAST(:categoria AS VARCHAR), CAST(:adminEmail AS VARCHAR),
+        :limite, :deslocamento) r
+      """, nativeQuery = true)
+  List<DenunciaBuscaResultado> buscarPaginaPorTexto(
+      @Param("termo") String termo,
+      @Param("fixadas") String fixadas,
+      @Param("status") String status,
+      @Param("categoria") String categoria,
+      @Param("adminEmail") String adminEmail,
+      @Param("limite") int limite,
+      @Param("deslocamento") long deslocamento);
 
 }
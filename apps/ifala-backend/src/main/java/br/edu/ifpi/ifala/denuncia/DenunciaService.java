@@ -1,9 +1,13 @@
 package br.edu.ifpi.ifala.denuncia;
 
 import br.edu.ifpi.ifala.acompanhamento.Acompanhamento;
+import br.edu.ifpi.ifala.acompanhamento.AcompanhamentoCursor;
 import br.edu.ifpi.ifala.acompanhamento.AcompanhamentoRepository;
+import br.edu.ifpi.ifala.acompanhamento.AcompanhamentoView;
 import br.edu.ifpi.ifala.acompanhamento.acompanhamentoDTO.AcompanhamentoDto;
 import br.edu.ifpi.ifala.autenticacao.Usuario;
+import br.edu.ifpi.ifala.autenticacao.UsuarioIdentidade;
+import br.edu.ifpi.ifala.autenticacao.UsuarioIdentidadeCache;
 import br.edu.ifpi.ifala.autenticacao.UsuarioRepository;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.AtualizarDenunciaDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.CriarDenunciaDto;
@@ -11,34 +15,49 @@ import br.edu.ifpi.ifala.denuncia.denunciaDTO.DadosDeIdentificacaoDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaAdminResponseDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaResponseDto;
 import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenuncianteResponseDto;
+import br.edu.ifpi.ifala.denuncia.evento.DenunciaCriada;
+import br.edu.ifpi.ifala.denuncia.evento.MensagemRecebida;
+import br.edu.ifpi.ifala.denuncia.evento.StatusAlterado;
 import br.edu.ifpi.ifala.denunciaFixada.DenunciaFixada;
+import br.edu.ifpi.ifala.denunciaFixada.DenunciaFixadaCache;
 import br.edu.ifpi.ifala.denunciaFixada.DenunciaFixadaRepository;
-import br.edu.ifpi.ifala.notificacao.NotificacaoExternaService;
 import br.edu.ifpi.ifala.prova.ProvaService;
-import br.edu.ifpi.ifala.security.recaptcha.RecaptchaService;
+import br.edu.ifpi.ifala.prova.ProvasTemporarias;
+import br.edu.ifpi.ifala.shared.collections.ImmutableLongHashSet;
+import br.edu.ifpi.ifala.shared.dto.CursorPageDto;
 import br.edu.ifpi.ifala.shared.enums.Categorias;
 import br.edu.ifpi.ifala.shared.enums.Perfis;
 import br.edu.ifpi.ifala.shared.enums.Status;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.owasp.html.HtmlPolicyBuilder;
 import org.owasp.html.PolicyFactory;
 import org.owasp.html.Sanitizers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -54,16 +73,24 @@ import org.springframework.web.server.ResponseStatusException;
 public class DenunciaService {
 
   private static final Logger log = LoggerFactory.getLogger(DenunciaService.class);
+  private static final int MAX_ACOMPANHAMENTOS_POR_PAGINA = 200;
+  // O trecho sai do texto armazenado (HTML sanitizado na entrada) com os termos em <mark>;
+  // <mark> sem atributos é a única marcação entregue, o resto vira texto escapado
+  private static final PolicyFactory POLITICA_TRECHO =
+      new HtmlPolicyBuilder().allowElements("mark").toFactory();
 
   private final DenunciaRepository denunciaRepository;
   private final AcompanhamentoRepository acompanhamentoRepository;
   private final UsuarioRepository usuarioRepository;
-  private final RecaptchaService recaptchaService;
-  private final NotificacaoExternaService notificacaoExternaService;
+  private final UsuarioIdentidadeCache usuarioIdentidadeCache;
+  private final ApplicationEventPublisher eventPublisher;
   private final ProvaService provaService;
   private final DenunciaFixadaRepository denunciaFixadaRepository;
+  private final DenunciaFixadaCache denunciaFixadaCache;
+  private final BuscaDenunciaCache buscaDenunciaCache;
+  private final AcompanhamentoPublicoStream acompanhamentoPublicoStream;
+  private final TokenAcompanhamentoFiltro tokenAcompanhamentoFiltro;
   private final PolicyFactory policy;
-  private final Double score = 0.2;
 
   // A SER USADO DEPOIS QUE O RECAPTCHA ESTIVER FUNCIONANDO EM PRODUÇÃO
   // private final RecaptchaService recaptchaService;
@@ -78,38 +105,38 @@ public class DenunciaService {
 
   public DenunciaService(DenunciaRepository denunciaRepository,
       AcompanhamentoRepository acompanhamentoRepository, UsuarioRepository usuarioRepository,
-      RecaptchaService recaptchaService, NotificacaoExternaService notificacaoExternaService,
-      ProvaService provaService, DenunciaFixadaRepository denunciaFixadaRepository) {
+      ApplicationEventPublisher eventPublisher,
+      ProvaService provaService, DenunciaFixadaRepository denunciaFixadaRepository,
+      DenunciaFixadaCache denunciaFixadaCache, UsuarioIdentidadeCache usuarioIdentidadeCache,
+      BuscaDenunciaCache buscaDenunciaCache,
+      AcompanhamentoPublicoStream acompanhamentoPublicoStream,
+      TokenAcompanhamentoFiltro tokenAcompanhamentoFiltro) {
     this.denunciaRepository = denunciaRepository;
     this.acompanhamentoRepository = acompanhamentoRepository;
     this.usuarioRepository = usuarioRepository;
-    this.recaptchaService = recaptchaService;
-    this.notificacaoExternaService = notificacaoExternaService;
+    this.eventPublisher = eventPublisher;
     this.provaService = provaService;
     this.denunciaFixadaRepository = denunciaFixadaRepository;
+    this.denunciaFixadaCache = denunciaFixadaCache;
+    this.usuarioIdentidadeCache = usuarioIdentidadeCache;
+    this.buscaDenunciaCache = buscaDenunciaCache;
+    this.acompanhamentoPublicoStream = acompanhamentoPublicoStream;
+    this.tokenAcompanhamentoFiltro = tokenAcompanhamentoFiltro;
     this.policy = Sanitizers.FORMATTING.and(Sanitizers.LINKS);
   }
 
-  public DenunciaResponseDto criarDenuncia(CriarDenunciaDto dto) {
-    return criarDenuncia(dto, null);
-  }
-
-  public DenunciaResponseDto criarDenuncia(CriarDenunciaDto dto, List<MultipartFile> provas) {
-
-    log.info("Iniciando validação do reCAPTCHA para nova denúncia.");
-
-    boolean isRecaptchaValid =
-        recaptchaService.validarToken(dto.recaptchaToken(), "denuncia", score);
-
-    if (!isRecaptchaValid) {
-      log.warn("Falha na validação do reCAPTCHA para nova denúncia.");
-      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Falha na validação do ReCaptcha.");
-    }
-
-    log.info("reCAPTCHA validado com sucesso para nova denúncia.");
+  /**
+   * Registra uma nova denúncia. Chamado pelo {@link RecepcaoDenunciaService}, que já validou o
+   * reCAPTCHA, validou e sanitizou os dados e gravou as provas em arquivos temporários.
+   *
+   * @param dto dados da denúncia, já sanitizados
+   * @param provas provas preparadas pelo ProvaService
+   * @return denúncia criada
+   */
+  public DenunciaResponseDto criarDenuncia(CriarDenunciaDto dto, ProvasTemporarias provas) {
 
     Denuncia novaDenuncia = new Denuncia();
-    novaDenuncia.setDescricao(policy.sanitize(dto.descricao()));
+    novaDenuncia.setDescricao(dto.descricao());
 
     novaDenuncia.setCategoria(dto.categoria());
 
@@ -121,8 +148,8 @@ public class DenunciaService {
       Denunciante denunciante = new Denunciante();
       DadosDeIdentificacaoDto idDto = dto.dadosDeIdentificacao();
 
-      denunciante.setNomeCompleto(policy.sanitize(idDto.nomeCompleto()));
-      denunciante.setEmail(idDto.email().trim()); // Email não deve ser sanitizado
+      denunciante.setNomeCompleto(idDto.nomeCompleto());
+      denunciante.setEmail(idDto.email());
       denunciante.setGrau(idDto.grau());
       denunciante.setCurso(idDto.curso());
       denunciante.setAno(idDto.ano());
@@ -137,6 +164,7 @@ public class DenunciaService {
     }
 
     Denuncia denunciaSalva = denunciaRepository.save(novaDenuncia);
+    tokenAcompanhamentoFiltro.registrar(denunciaSalva.getTokenAcompanhamento());
 
     log.info("Denúncia salva com sucesso");
     log.info("Denúncia criada com ID: {}", denunciaSalva.getId());
@@ -146,7 +174,7 @@ public class DenunciaService {
     // Processar upload de provas se houver
     if (provas != null && !provas.isEmpty()) {
       try {
-        log.info("Processando upload de {} provas para denúncia ID {}", provas.size(),
+        log.info("Processando upload de {} provas para denúncia ID {}", provas.arquivos().size(),
             denunciaSalva.getId());
         provaService.salvarProvas(denunciaSalva, provas);
         log.info("Provas salvas com sucesso para denúncia ID {}", denunciaSalva.getId());
@@ -163,36 +191,39 @@ public class DenunciaService {
     primeiroAcompanhamento.setMensagem(denunciaSalva.getDescricao());
     primeiroAcompanhamento.setDenuncia(denunciaSalva);
     primeiroAcompanhamento.setAutor(Perfis.ANONIMO);
-    acompanhamentoRepository.save(primeiroAcompanhamento);
+    registrarAcompanhamento(denunciaSalva, primeiroAcompanhamento);
     log.info("Primeiro acompanhamento criado automaticamente com o relato da denúncia.");
 
-    // Notificar administradores/usuários externos sobre a nova denúncia
-    try {
-      notificacaoExternaService.notificarNovaDenuncia(denunciaSalva);
-      log.info("Notificação externa enviada sobre nova denúncia ID {}", denunciaSalva.getId());
-    } catch (Exception e) {
-      log.error("Erro ao notificar administradores sobre nova denúncia ID {}: {}",
-          denunciaSalva.getId(), e.getMessage(), e);
-    }
-
-    // Notificar o denunciante se identificado que a denuncia foi recebida.
-    try {
-      notificacaoExternaService.notificarRegistroDenuncia(denunciaSalva);
-    } catch (Exception e) {
-      log.error("Erro ao notificar registro para o denunciante ID {}: {}", denunciaSalva.getId(),
-          e.getMessage());
-    }
+    // Administradores e denunciante são notificados pela caixa de saída de notificações
+    eventPublisher.publishEvent(new DenunciaCriada(denunciaSalva.getId()));
 
     return mapToDenunciaResponseDto(denunciaSalva);
   }
 
+  /**
+   * Retorna a versão pública da denúncia sem carregá-la, para validação de ETag nos endpoints
+   * públicos.
+   *
+   * @param tokenAcompanhamento token de acompanhamento da denúncia
+   * @return versão atual, ou vazio se o token não existir
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> buscarVersaoPorToken(UUID tokenAcompanhamento) {
+    return denunciaRepository.findVersaoByTokenAcompanhamento(tokenAcompanhamento);
+  }
+
   @Transactional
   public Optional<DenunciaResponseDto> consultarPorTokenAcompanhamento(UUID tokenAcompanhamento) {
-    return denunciaRepository.findByTokenAcompanhamento(tokenAcompanhamento).map(denuncia -> {
-      // Marcar mensagens do ADMIN como visualizadas quando usuário acessa
-      acompanhamentoRepository.marcarComoVisualizadoPorDenunciaEAutor(denuncia.getId(),
-          Perfis.ADMIN);
-      return mapToDenunciaResponseDto(denuncia);
+    // Uma única leitura indexada pelo token; a confirmação de leitura só é gravada quando essa
+    // mesma leitura indica mensagens do ADMIN não visualizadas (polling estável não escreve)
+    return denunciaRepository.findPublicaByTokenAcompanhamento(tokenAcompanhamento).map(view -> {
+      if (view.mensagensNaoLidasAdmin() > 0) {
+        // Zerar primeiro: bloqueia a linha antes da marcação (ver zerarMensagensNaoLidas)
+        denunciaRepository.zerarMensagensNaoLidas(view.id(), Perfis.ADMIN.name());
+        acompanhamentoRepository.marcarComoVisualizadoPorDenunciaEAutor(view.id(), Perfis.ADMIN);
+      }
+      // As mensagens do ADMIN acabaram de ser marcadas como visualizadas
+      return mapToDenunciaResponseDto(view, false);
     });
   }
 
@@ -217,150 +248,233 @@ public class DenunciaService {
   @Transactional(readOnly = true)
   public Page<DenunciaAdminResponseDto> listarTodas(String search, Status status,
       Categorias categoria, String adminEmail, Pageable pageable, String username) {
+    logInicioListagem(search, status, categoria, adminEmail);
+    return listarPagina(TermoBusca.de(search), status, categoria, adminEmail, pageable,
+        buscarUsuarioId(username));
+  }
 
+  /**
+   * Lista denúncias com filtros e paginação sem calcular o total exato (modo
+   * {@code withTotal=false}). Busca size + 1 IDs para saber se existe próxima página, dispensando o
+   * COUNT. Na busca textual o total já sai da mesma consulta e é mantido.
+   *
+   * @param search filtro de busca por token ou texto
+   * @param status filtro de status
+   * @param categoria filtro de categoria
+   * @param adminEmail filtro por email do admin acompanhando
+   * @param pageable informações de paginação
+   * @param username nome do usuário logado para verificar denúncias fixadas
+   * @return fatia de denúncias
+   */
+  @Transactional(readOnly = true)
+  public Slice<DenunciaAdminResponseDto> listarTodasSemTotal(String search, Status status,
+      Categorias categoria, String adminEmail, Pageable pageable, String username) {
+    logInicioListagem(search, status, categoria, adminEmail);
+    return listarSlice(TermoBusca.de(search), status, categoria, adminEmail, pageable,
+        buscarUsuarioId(username));
+  }
+
+  /**
+   * Estimativa do total de denúncias lida das estatísticas do PostgreSQL (pg_class.reltuples), sem
+   * varrer a tabela. Só faz sentido para a listagem sem filtros.
+   *
+   * @return total aproximado, ou null se a tabela ainda não tiver estatísticas
+   */
+  @Transactional(readOnly = true)
+  public Long estimarTotalDenuncias() {
+    Long estimativa = denunciaRepository.estimarTotal();
+    return estimativa != null && estimativa >= 0 ? estimativa : null;
+  }
+
+  private static void logInicioListagem(String search, Status status, Categorias categoria,
+      String adminEmail) {
     log.info(
         "Iniciando listagem de denúncias com filtros: status={}, categoria={}, search={}, adminEmail={}",
         status, categoria, search, adminEmail);
+  }
 
-    // Buscar o usuário pelo username para obter o ID
-    Usuario usuario = usuarioRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
-
-    Long usuarioId = usuario.getId();
-
-    // Passo 1: Buscar apenas os IDs com paginação e ordenação personalizada
-    // (fixadas primeiro)
-    Page<Long> idsPage;
+  /**
+   * Termo de busca da listagem: token de acompanhamento (busca exata), texto livre (busca textual)
+   * ou nenhum.
+   */
+  private record TermoBusca(String token, String texto) {
 
-    if (search != null && !search.trim().isEmpty()) {
+    static TermoBusca de(String search) {
+      if (search == null || search.trim().isEmpty()) {
+        return new TermoBusca(null, null);
+      }
       String termo = search.trim();
-
-      // Tenta primeiro como UUID (busca exata por token)
       try {
-        UUID token = UUID.fromString(termo);
-        String tokenSearch = token.toString();
-        log.debug("Busca por token UUID: {}", maskToken(token));
-
-        idsPage = denunciaRepository.findAllIdsWithFiltersOrderedByFixedFirst(usuarioId, status,
-            categoria, tokenSearch, adminEmail, pageable);
+        return new TermoBusca(UUID.fromString(termo).toString(), null);
       } catch (IllegalArgumentException e) {
-        // Não é UUID - verifica se tem pelo menos 3 caracteres para busca textual
-        if (termo.length() >= 3) {
-          log.info("Busca textual por termo: '{}' (caracteres: {})", termo, termo.length());
-
-          // Usa a função SQL otimizada para buscar IDs das denúncias
-          List<Long> idsEncontrados = denunciaRepository.buscarIdsPorTexto(termo);
-
-          if (idsEncontrados.isEmpty()) {
-            // Nenhum resultado encontrado - retorna página vazia
-            log.info("Nenhuma denúncia encontrada com o termo de busca: '{}'", termo);
-            return Page.empty(pageable);
-          }
-
-          log.info("Busca textual encontrou {} denúncias com o termo '{}'", idsEncontrados.size(),
-              termo);
-
-          // Buscar denúncias completas com filtros de status e categoria
-          // Este método já aplica os filtros e ordenação (fixadas primeiro + data)
-          List<Denuncia> denunciasFiltradas = denunciaRepository.findByIdsWithFiltersOrderedByFixed(
-              idsEncontrados, usuarioId, status, categoria, adminEmail);
-          if (denunciasFiltradas.isEmpty()) {
-            log.info("Nenhuma denúncia encontrada após aplicar filtros (status={}, categoria={})",
-                status, categoria);
-            return Page.empty(pageable);
-          }
-
-          log.info("Após filtros: {} denúncias (de {} encontradas pela busca)",
-              denunciasFiltradas.size(), idsEncontrados.size());
-
-          // Extrair apenas os IDs ordenados
-          List<Long> idsOrdenados =
-              denunciasFiltradas.stream().map(Denuncia::getId).collect(Collectors.toList());
-
-          // Aplicar paginação MANUALMENTE sobre os IDs ordenados e filtrados
-          int pageSize = pageable.getPageSize();
-          int currentPage = pageable.getPageNumber();
-          int startItem = currentPage * pageSize;
-          int totalElements = idsOrdenados.size();
-
-          // Verificar se a página solicitada está dentro dos limites
-          if (startItem >= totalElements) {
-            log.info("Página {} está fora dos limites (total: {} elementos)", currentPage,
-                totalElements);
-            return Page.empty(pageable);
-          }
-
-          // Calcular índice final (não pode ultrapassar o tamanho da lista)
-          int endItem = Math.min(startItem + pageSize, totalElements);
-
-          // Extrair apenas os IDs da página atual
-          List<Long> idsPaginados = idsOrdenados.subList(startItem, endItem);
-
-          log.info("Página {}: retornando {} IDs (de {} até {}) de um total de {} após filtros",
-              currentPage, idsPaginados.size(), startItem, endItem - 1, totalElements);
-
-          // Buscar as denúncias da página (já estão na lista, só precisamos filtrar)
-          List<Denuncia> denunciasPagina =
-              denunciasFiltradas.stream().filter(d -> idsPaginados.contains(d.getId()))
-                  .sorted(Comparator.comparingInt(d -> idsPaginados.indexOf(d.getId())))
-                  .collect(Collectors.toList());
-
-          // Buscar IDs das denúncias fixadas pelo usuário
-          List<Long> denunciasFixadasIds = buscarDenunciasFixadas(username);
-
-          // Converter para DTO
-          List<DenunciaAdminResponseDto> dtos = denunciasPagina.stream()
-              .map(d -> mapToDenunciaAdminResponseDto(d, denunciasFixadasIds.contains(d.getId())))
-              .collect(Collectors.toList());
-
-          // Retornar Page com o total correto de elementos
-          return new PageImpl<>(dtos, pageable, totalElements);
-        } else {
-          log.warn("Termo de busca muito curto (< 3 caracteres): '{}' - retornando vazio", termo);
-          return Page.empty(pageable);
-        }
+        return new TermoBusca(null, termo);
       }
-    } else {
-      // Sem busca por token
-      idsPage = denunciaRepository.findAllIdsWithFiltersOrderedByFixedFirst(usuarioId, status,
-          categoria, null, adminEmail, pageable);
     }
+  }
 
-    // Se não encontrou nada, retorna página vazia
-    if (idsPage.isEmpty()) {
-      log.info("Nenhuma denúncia encontrada com os filtros aplicados");
+  /**
+   * Listagem com total: os IDs vêm da consulta paginada com COUNT.
+   */
+  private Page<DenunciaAdminResponseDto> listarPagina(TermoBusca termo, Status status,
+      Categorias categoria, String adminEmail, Pageable pageable, Long usuarioId) {
+    if (termo.texto() != null) {
+      return listarBuscaTextual(termo.texto(), status, categoria, adminEmail, pageable,
+          usuarioId);
+    }
+    Page<Long> ids = denunciaRepository.findAllIdsWithFiltersOrderedByFixedFirst(usuarioId,
+        status, categoria, termo.token(), adminEmail, pageable);
+    return new PageImpl<>(montarListagem(ids.getContent(), usuarioId, Map.of()), pageable,
+        ids.getTotalElements());
+  }
+
+  /**
+   * Listagem sem total: os IDs vêm da consulta de size + 1 linhas, sem COUNT. A busca textual
+   * continua devolvendo página com total, que já sai da mesma consulta.
+   */
+  private Slice<DenunciaAdminResponseDto> listarSlice(TermoBusca termo, Status status,
+      Categorias categoria, String adminEmail, Pageable pageable, Long usuarioId) {
+    if (termo.texto() != null) {
+      return listarBuscaTextual(termo.texto(), status, categoria, adminEmail, pageable,
+          usuarioId);
+    }
+    Slice<Long> ids = denunciaRepository.findIdsSliceWithFiltersOrderedByFixedFirst(usuarioId,
+        status, categoria, termo.token(), adminEmail, pageable);
+    return new SliceImpl<>(montarListagem(ids.getContent(), usuarioId, Map.of()), pageable,
+        ids.hasNext());
+  }
+
+  /**
+   * Busca textual da listagem. Filtros, ordenação (fixadas primeiro) e paginação são aplicados em
+   * uma única consulta no banco; apenas as linhas da página atual saem do PostgreSQL. A chave do
+   * cache leva os IDs fixados em vez do usuário, então admins com as mesmas fixadas compartilham a
+   * página.
+   */
+  private Page<DenunciaAdminResponseDto> listarBuscaTextual(String termo, Status status,
+      Categorias categoria, String adminEmail, Pageable pageable, Long usuarioId) {
+    if (termo.length() < 3) {
+      log.warn("Termo de busca muito curto (< 3 caracteres): '{}' - retornando vazio", termo);
+      return Page.empty(pageable);
+    }
+    log.info("Busca textual por termo: '{}' (caracteres: {})", termo, termo.length());
+
+    List<Long> fixadas =
+        Arrays.stream(denunciaFixadaCache.getFixadas(usuarioId).toSortedArray()).boxed().toList();
+    BuscaDenunciaCache.Busca busca = new BuscaDenunciaCache.Busca(termo,
+        status != null ? status.name() : null, categoria != null ? categoria.name() : null,
+        adminEmail, fixadas);
+    BuscaDenunciaCache.Chave chave =
+        new BuscaDenunciaCache.Chave(busca, pageable.getPageSize(), pageable.getOffset());
+    BuscaDenunciaCache.Resultado resultado =
+        buscaDenunciaCache.obter(chave, () -> buscarPaginaPorTexto(chave));
+
+    if (resultado.ids().isEmpty()) {
+      log.info("Nenhuma denúncia encontrada com o termo de busca: '{}' (página {})", termo,
+          pageable.getPageNumber());
       return Page.empty(pageable);
     }
 
-    log.debug("Encontrados {} IDs de denúncias", idsPage.getContent().size());
+    log.info("Busca textual '{}': página {} com {} IDs de um total de {} após filtros", termo,
+        pageable.getPageNumber(), resultado.ids().size(), resultado.total());
 
-    // Passo 2: Buscar as entidades completas com relacionamentos (1 query com
-    // JOINs)
-    List<Denuncia> denuncias = denunciaRepository.findAllByIdWithRelations(idsPage.getContent());
+    return new PageImpl<>(montarListagem(resultado.ids(), usuarioId, resultado.destaques()),
+        pageable, resultado.total());
+  }
 
-    log.debug("Carregadas {} denúncias com relacionamentos", denuncias.size());
+  /**
+   * Converte os IDs de uma página da listagem em DTOs, na mesma ordem: carrega o modelo de leitura
+   * (projeção, sem entidades nem coleções) e marca fixadas e nomes dos admins em lote.
+   *
+   * @param idsOrder IDs da página, na ordem da listagem
+   * @param usuarioId ID do usuário logado (para denúncias fixadas)
+   * @param destaques relevância e trecho destacado por ID (somente na busca textual)
+   * @return denúncias da página
+   */
+  private List<DenunciaAdminResponseDto> montarListagem(List<Long> idsOrder, Long usuarioId,
+      Map<Long, DenunciaDestaqueBusca> destaques) {
+    if (idsOrder.isEmpty()) {
+      log.info("Nenhuma denúncia encontrada com os filtros aplicados");
+      return List.of();
+    }
+    List<DenunciaListagemView> denuncias =
+        ordenarPorIds(denunciaRepository.findListagemByIdIn(idsOrder), idsOrder);
+    ImmutableLongHashSet denunciasFixadasIds = denunciaFixadaCache.getFixadas(usuarioId);
+    List<DenunciaAdminResponseDto> dtos =
+        montarPagina(denuncias, denunciasFixadasIds::contains, destaques);
+    log.info("Retornando {} denúncias", dtos.size());
+    return dtos;
+  }
 
-    // Buscar IDs das denúncias fixadas pelo usuário para marcar nos DTOs
-    List<Long> denunciasFixadasIds = buscarDenunciasFixadas(username);
+  /**
+   * Lista denúncias com paginação por cursor (keyset), sem OFFSET e sem COUNT. Ordena por fixada,
+   * não lida, data de criação e ID (todos DESC); difere da listagem paginada, que ordena as fixadas
+   * pela data em que foram fixadas. As fixadas do admin (poucas, já em cache) são servidas primeiro
+   * por uma consulta própria; depois, as demais são lidas percorrendo o índice
+   * idx_denuncias_keyset_listagem a partir da última chave retornada.
+   *
+   * @param status filtro de status
+   * @param categoria filtro de categoria
+   * @param adminEmail filtro por email do admin acompanhando
+   * @param cursor cursor opaco retornado pela página anterior (null para a primeira página)
+   * @param size tamanho da página
+   * @param username nome do usuário logado para verificar denúncias fixadas
+   * @return página de denúncias com o cursor da próxima página
+   */
+  @Transactional(readOnly = true)
+  public CursorPageDto<DenunciaAdminResponseDto> listarComCursor(Status status,
+      Categorias categoria, String adminEmail, String cursor, int size, String username) {
 
-    // Passo 3: Manter a ordem retornada pelo banco (já ordenada com fixadas
-    // primeiro)
-    List<Long> idsOrder = idsPage.getContent();
-    Map<Long, Integer> orderMap = IntStream.range(0, idsOrder.size()).boxed()
-        .collect(Collectors.toMap(idsOrder::get, i -> i));
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "O tamanho da página deve ser maior que zero.");
+    }
 
-    denuncias
-        .sort(Comparator.comparingInt(d -> orderMap.getOrDefault(d.getId(), Integer.MAX_VALUE)));
+    DenunciaCursor atual = DenunciaCursor.decode(cursor);
 
-    // Passo 4: Converter para DTO
-    List<DenunciaAdminResponseDto> dtos = denuncias.stream()
-        .map(d -> mapToDenunciaAdminResponseDto(d, denunciasFixadasIds.contains(d.getId())))
-        .collect(Collectors.toList());
+    Long usuarioId = buscarUsuarioId(username);
+
+    String statusNome = status != null ? status.name() : null;
+    String categoriaNome = categoria != null ? categoria.name() : null;
+
+    // Busca size + 1 chaves para saber se existe próxima página sem COUNT
+    List<DenunciaChaveListagem> chaves = new ArrayList<>(size + 1);
+    DenunciaCursor naoFixadas = atual;
+    if (atual.fixada() > 0) {
+      ImmutableLongHashSet fixadas = denunciaFixadaCache.getFixadas(usuarioId);
+      if (!fixadas.isEmpty()) {
+        List<Long> ids = Arrays.stream(fixadas.toSortedArray()).boxed().toList();
+        chaves.addAll(denunciaRepository.findChavesFixadasAposCursor(ids, statusNome,
+            categoriaNome, adminEmail, atual.naoLida(), atual.criadoEm(), atual.id(), size + 1));
+      }
+      // Se as fixadas não completarem a página, as não fixadas começam do topo
+      naoFixadas = DenunciaCursor.inicio();
+    }
+    if (chaves.size() <= size) {
+      chaves.addAll(denunciaRepository.findChavesNaoFixadasAposCursor(usuarioId, statusNome,
+          categoriaNome, adminEmail, naoFixadas.naoLida(), naoFixadas.criadoEm(), naoFixadas.id(),
+          size + 1 - chaves.size()));
+    }
 
-    log.info("Retornando {} denúncias para a página {}", dtos.size(), pageable.getPageNumber());
+    boolean hasNext = chaves.size() > size;
+    List<DenunciaChaveListagem> chavesPagina = hasNext ? chaves.subList(0, size) : chaves;
 
-    // Retornar Page com os dados originais de paginação
-    return new PageImpl<>(dtos, pageable, idsPage.getTotalElements());
+    if (chavesPagina.isEmpty()) {
+      return new CursorPageDto<>(List.of(), null, false, size);
+    }
+
+    List<Long> idsOrder = chavesPagina.stream().map(DenunciaChaveListagem::getId).toList();
+    List<DenunciaListagemView> denuncias =
+        ordenarPorIds(denunciaRepository.findListagemByIdIn(idsOrder), idsOrder);
+
+    Set<Long> fixadasIds = chavesPagina.stream().filter(c -> c.getFixada() == 1)
+        .map(DenunciaChaveListagem::getId).collect(Collectors.toSet());
+
+    List<DenunciaAdminResponseDto> dtos = montarPagina(denuncias, fixadasIds::contains, Map.of());
+
+    String nextCursor = hasNext ? chavesPagina.get(chavesPagina.size() - 1).toCursor().encode()
+        : null;
+
+    log.info("Retornando {} denúncias (cursor), hasNext={}", dtos.size(), hasNext);
+    return new CursorPageDto<>(dtos, nextCursor, hasNext, size);
   }
 
   // buscar denúncia por ID
@@ -370,7 +484,7 @@ public class DenunciaService {
         .orElseThrow(() -> new EntityNotFoundException("Denúncia não encontrada com o ID: " + id));
 
     // Marcar mensagens do ANONIMO (usuário) como visualizadas quando admin acessa
-    acompanhamentoRepository.marcarComoVisualizadoPorDenunciaEAutor(id, Perfis.ANONIMO);
+    marcarComoVisualizado(denuncia, Perfis.ANONIMO);
 
     boolean fixada = isDenunciaFixada(id, username);
     return mapToDenunciaAdminResponseDto(denuncia, fixada);
@@ -399,6 +513,10 @@ public class DenunciaService {
       }
 
       Denuncia denunciaAtualizada = denunciaRepository.save(denuncia);
+      denunciaRepository.incrementarVersao(id);
+      buscaDenunciaCache.invalidarStatus(id, dto.status().name());
+      acompanhamentoPublicoStream.publicarStatus(denunciaAtualizada.getTokenAcompanhamento(),
+          denunciaAtualizada.getStatus(), denunciaAtualizada.getAlteradoEm());
       log.info("Denúncia id {} atualizada com sucesso para o status {}.", id, dto.status());
       return mapToDenunciaAdminResponseDto(denunciaAtualizada, false);
     });
@@ -409,6 +527,7 @@ public class DenunciaService {
     if (denuncia.isPresent()) {
       log.info("Iniciando deleção da denúncia id {}.", id);
       denunciaRepository.delete(denuncia.get());
+      buscaDenunciaCache.invalidarDenuncia(id);
       log.info("Denúncia id {} deletada com sucesso.", id);
       return true;
     }
@@ -419,22 +538,100 @@ public class DenunciaService {
   @Transactional(readOnly = true)
   public List<AcompanhamentoDto> listarAcompanhamentosPorToken(UUID tokenAcompanhamento) {
     log.info("Listando acompanhamentos (público) para o token: {}", maskToken(tokenAcompanhamento));
-    Denuncia denuncia =
-        denunciaRepository.findByTokenAcompanhamento(tokenAcompanhamento).orElseThrow(
+    Long denunciaId = denunciaRepository.findIdByTokenAcompanhamento(tokenAcompanhamento)
+        .orElseThrow(
             () -> new EntityNotFoundException("Denúncia não encontrada com o token informado."));
 
-    return denuncia.getAcompanhamentos().stream().map(this::mapToAcompanhamentoResponseDto)
-        .collect(Collectors.toList());
+    return acompanhamentoRepository.findViewsByDenunciaId(denunciaId).stream()
+        .map(this::mapToAcompanhamentoResponseDto).toList();
   }
 
   @Transactional(readOnly = true)
   public List<AcompanhamentoDto> listarAcompanhamentosPorId(Long id) {
     log.info("Listando acompanhamentos (admin) para a denúncia ID: {}", id);
-    Denuncia denuncia = denunciaRepository.findById(id).orElseThrow(
-        () -> new EntityNotFoundException("Denúncia não encontrada com o ID informado."));
+    if (!denunciaRepository.existsById(id)) {
+      throw new EntityNotFoundException("Denúncia não encontrada com o ID informado.");
+    }
 
-    return denuncia.getAcompanhamentos().stream().map(this::mapToAcompanhamentoResponseDto)
-        .collect(Collectors.toList());
+    return acompanhamentoRepository.findViewsByDenunciaId(id).stream()
+        .map(this::mapToAcompanhamentoResponseDto).toList();
+  }
+
+  /**
+   * Leitura incremental do histórico pelo token (público). Ver
+   * {@link #listarAcompanhamentosAposChave}.
+   */
+  @Transactional(readOnly = true)
+  public CursorPageDto<AcompanhamentoDto> listarAcompanhamentosIncrementalPorToken(
+      UUID tokenAcompanhamento, String cursor, Long afterId, LocalDateTime since, int size) {
+    Long denunciaId = denunciaRepository.findIdByTokenAcompanhamento(tokenAcompanhamento)
+        .orElseThrow(
+            () -> new EntityNotFoundException("Denúncia não encontrada com o token informado."));
+    return listarAcompanhamentosAposChave(denunciaId, cursor, afterId, since, size);
+  }
+
+  /**
+   * Leitura incremental do histórico pelo ID (admin). Ver {@link #listarAcompanhamentosAposChave}.
+   */
+  @Transactional(readOnly = true)
+  public CursorPageDto<AcompanhamentoDto> listarAcompanhamentosIncrementalPorId(Long id,
+      String cursor, Long afterId, LocalDateTime since, int size) {
+    if (!denunciaRepository.existsById(id)) {
+      throw new EntityNotFoundException("Denúncia não encontrada com o ID informado.");
+    }
+    return listarAcompanhamentosAposChave(id, cursor, afterId, since, size);
+  }
+
+  /**
+   * Retorna as mensagens posteriores a uma posição do histórico, em ordem de envio. A posição vem
+   * de apenas um dos parâmetros: {@code cursor} (continuação da carga inicial), {@code afterId}
+   * (última mensagem que o cliente já tem) ou {@code since} (data/hora); sem nenhum deles, a
+   * leitura começa da primeira mensagem.
+   *
+   * @return página com no máximo {@code size} mensagens e o cursor da próxima página
+   */
+  private CursorPageDto<AcompanhamentoDto> listarAcompanhamentosAposChave(Long denunciaId,
+      String cursor, Long afterId, LocalDateTime since, int size) {
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "O tamanho da página deve ser maior que zero.");
+    }
+    long informados = Stream.of(cursor, afterId, since).filter(Objects::nonNull).count();
+    if (informados > 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Informe apenas um entre cursor, afterId e since.");
+    }
+    int limite = Math.min(size, MAX_ACOMPANHAMENTOS_POR_PAGINA);
+
+    AcompanhamentoCursor atual;
+    if (cursor != null) {
+      atual = AcompanhamentoCursor.decode(cursor);
+    } else if (afterId != null) {
+      LocalDateTime dataEnvio = acompanhamentoRepository
+          .findDataEnvioByIdAndDenunciaId(afterId, denunciaId)
+          .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+              "afterId não pertence a esta denúncia."));
+      atual = new AcompanhamentoCursor(dataEnvio, afterId);
+    } else if (since != null) {
+      atual = AcompanhamentoCursor.desde(since);
+    } else {
+      atual = AcompanhamentoCursor.inicio();
+    }
+
+    // Busca size + 1 linhas para saber se existe próxima página sem COUNT
+    List<AcompanhamentoView> linhas = acompanhamentoRepository.findAposChave(denunciaId,
+        atual.dataEnvio(), atual.id(), PageRequest.of(0, limite + 1));
+    boolean hasNext = linhas.size() > limite;
+    List<AcompanhamentoView> pagina = hasNext ? linhas.subList(0, limite) : linhas;
+
+    String nextCursor = null;
+    if (hasNext) {
+      AcompanhamentoView ultima = pagina.get(pagina.size() - 1);
+      nextCursor = new AcompanhamentoCursor(ultima.dataEnvio(), ultima.id()).encode();
+    }
+    List<AcompanhamentoDto> itens =
+        pagina.stream().map(this::mapToAcompanhamentoResponseDto).toList();
+    return new CursorPageDto<>(itens, nextCursor, hasNext, limite);
   }
 
   public AcompanhamentoDto adicionarAcompanhamentoDenunciante(UUID tokenAcompanhamento,
@@ -469,22 +666,12 @@ public class DenunciaService {
     // público)
     novoAcompanhamento.setAutor(Perfis.ANONIMO);
 
-    Acompanhamento salvo = acompanhamentoRepository.save(novoAcompanhamento);
+    Acompanhamento salvo = registrarAcompanhamento(denuncia, novoAcompanhamento);
     log.info("Acompanhamento adicionado com sucesso a denúncia de token: {}",
         maskToken(tokenAcompanhamento));
-    // Disparar notificação externa para informar que uma nova mensagem do
-    // denunciante
-    // foi recebida para a denúncia. Envolve apenas mensagens enviadas pelo
-    // denunciante
-    // (perfil ANONIMO) — trata-se do fluxo público.
-    try {
-      notificacaoExternaService.notificarNovaMensagem(salvo);
-      log.info("Notificação externa enviada para nova mensagem (denúncia ID {}).",
-          salvo.getDenuncia().getId());
-    } catch (Exception e) {
-      log.error("Erro ao enviar notificação externa para nova mensagem (denúncia ID {}): {}",
-          salvo.getDenuncia().getId(), e.getMessage(), e);
-    }
+    // Os administradores são notificados da mensagem do denunciante pela caixa de saída
+    eventPublisher.publishEvent(
+        new MensagemRecebida(salvo.getId(), denuncia.getId(), Perfis.ANONIMO));
 
     return mapToAcompanhamentoResponseDto(salvo);
 
@@ -507,17 +694,15 @@ public class DenunciaService {
     novoAcompanhamento.setDenuncia(denuncia);
     novoAcompanhamento.setAutor(Perfis.ADMIN);
 
-    Acompanhamento salvo = acompanhamentoRepository.save(novoAcompanhamento);
-    // Notificar o denunciante sobre a nova mensagem do admin
-    try {
-      notificacaoExternaService.notificarNovaRespostaAdmin(denuncia);
-    } catch (Exception e) {
-      log.error("Erro ao notificar denunciante sobre nova mensagem admin na denúncia ID {}: {}", id,
-          e.getMessage());
-    }
+    Acompanhamento salvo = registrarAcompanhamento(denuncia, novoAcompanhamento);
+    AcompanhamentoDto resposta = mapToAcompanhamentoResponseDto(salvo);
+    acompanhamentoPublicoStream.publicarAcompanhamento(denuncia.getTokenAcompanhamento(),
+        resposta);
+    // O denunciante é notificado da mensagem do admin pela caixa de saída
+    eventPublisher.publishEvent(new MensagemRecebida(salvo.getId(), id, Perfis.ADMIN));
 
     log.info("Acompanhamento adicionado com sucesso à denúncia ID: {}", id);
-    return mapToAcompanhamentoResponseDto(salvo);
+    return resposta;
   }
 
   public DenunciaAdminResponseDto alterarStatus(Long id, Status novoStatus, String adminName) {
@@ -538,6 +723,7 @@ public class DenunciaService {
     denuncia.setAlteradoPor(adminName);
 
     Denuncia denunciaAtualizada = denunciaRepository.save(denuncia);
+    buscaDenunciaCache.invalidarStatus(id, novoStatus.name());
 
     // Criar mensagem automática de mudança de status
     String mensagemStatus = gerarMensagemMudancaStatus(statusAnterior, novoStatus);
@@ -545,15 +731,16 @@ public class DenunciaService {
     acompanhamentoStatus.setMensagem(mensagemStatus);
     acompanhamentoStatus.setDenuncia(denunciaAtualizada);
     acompanhamentoStatus.setAutor(Perfis.ADMIN);
-    acompanhamentoRepository.save(acompanhamentoStatus);
+    Acompanhamento acompanhamentoSalvo =
+        registrarAcompanhamento(denunciaAtualizada, acompanhamentoStatus);
+    acompanhamentoPublicoStream.publicarStatus(denunciaAtualizada.getTokenAcompanhamento(),
+        novoStatus, denunciaAtualizada.getAlteradoEm());
+    acompanhamentoPublicoStream.publicarAcompanhamento(
+        denunciaAtualizada.getTokenAcompanhamento(),
+        mapToAcompanhamentoResponseDto(acompanhamentoSalvo));
 
-    // Notificar o denunciante sobre a mudança de status
-    try {
-      notificacaoExternaService.notificarAtualizacaoStatus(denunciaAtualizada);
-    } catch (Exception e) {
-      log.error("Erro ao notificar atualização de status para denúncia ID {}: {}", id,
-          e.getMessage());
-    }
+    // O denunciante é notificado da mudança de status pela caixa de saída
+    eventPublisher.publishEvent(new StatusAlterado(id, statusAnterior, novoStatus));
 
     log.info(
         "Status da denúncia ID {} alterado de {} para {} com mensagem automática de acompanhamento.",
@@ -562,6 +749,39 @@ public class DenunciaService {
     return mapToDenunciaAdminResponseDto(denunciaAtualizada, false);
   }
 
+  /**
+   * Persiste um acompanhamento e atualiza o resumo de atividade da denúncia (não lidas, resposta do
+   * admin, último autor e última atividade) na mesma transação. O resumo é atualizado no banco por
+   * um UPDATE atômico; a entidade apenas reflete os novos valores.
+   *
+   * @param denuncia denúncia dona do acompanhamento
+   * @param acompanhamento acompanhamento a ser salvo
+   * @return acompanhamento salvo
+   */
+  private Acompanhamento registrarAcompanhamento(Denuncia denuncia,
+      Acompanhamento acompanhamento) {
+    Acompanhamento salvo = acompanhamentoRepository.save(acompanhamento);
+    denunciaRepository.registrarAtividade(denuncia.getId(), salvo.getAutor().name(),
+        salvo.getDataEnvio());
+    denuncia.registrarAcompanhamento(salvo);
+    buscaDenunciaCache.invalidarDenuncia(denuncia.getId());
+    return salvo;
+  }
+
+  /**
+   * Marca as mensagens de um autor como visualizadas e mantém o resumo de atividade da denúncia
+   * consistente com a marcação.
+   *
+   * @param denuncia denúncia cujas mensagens foram visualizadas
+   * @param autor autor das mensagens visualizadas
+   */
+  private void marcarComoVisualizado(Denuncia denuncia, Perfis autor) {
+    // Zerar primeiro: bloqueia a linha antes da marcação (ver zerarMensagensNaoLidas)
+    denunciaRepository.zerarMensagensNaoLidas(denuncia.getId(), autor.name());
+    acompanhamentoRepository.marcarComoVisualizadoPorDenunciaEAutor(denuncia.getId(), autor);
+    denuncia.registrarVisualizacao(autor);
+  }
+
   private String gerarMensagemMudancaStatus(Status statusAnterior, Status novoStatus) {
     String statusAnteriorFormatado = formatarStatusParaMensagem(statusAnterior);
     String novoStatusFormatado = formatarStatusParaMensagem(novoStatus);
@@ -582,9 +802,9 @@ public class DenunciaService {
   }
 
   private DenunciaResponseDto mapToDenunciaResponseDto(Denuncia denuncia) {
-    // Verifica se há mensagens não lidas do ADMIN para o ANONIMO (usuário)
-    boolean temMensagemNaoLida = acompanhamentoRepository
-        .existsByDenunciaIdAndAutorAndVisualizadoFalse(denuncia.getId(), Perfis.ADMIN);
+    // Verifica se há mensagens não lidas do ADMIN para o ANONIMO (usuário) pelo resumo de
+    // atividade mantido na própria denúncia
+    boolean temMensagemNaoLida = denuncia.getMensagensNaoLidasAdmin() > 0;
 
     // Mapear dados do denunciante, se existir e se deseja se identificar
     DenuncianteResponseDto denuncianteDto = null;
@@ -601,45 +821,154 @@ public class DenunciaService {
   }
 
   /**
-   * Mapeia uma entidade Denuncia para DenunciaAdminResponseDto.
+   * Mapeia a visão pública (consulta por token) para DenunciaResponseDto sem realizar consultas.
    *
-   * @param denuncia entidade a ser mapeada
-   * @param fixada indica se a denúncia está fixada pelo usuário
+   * @param denuncia visão pública
+   * @param temMensagemNaoLida se ainda há mensagens do ADMIN não visualizadas pelo denunciante
    * @return DTO mapeado
    */
-  private DenunciaAdminResponseDto mapToDenunciaAdminResponseDto(Denuncia denuncia,
-      boolean fixada) {
-    // Verificar se tem mensagens não lidas do ANONIMO (usuário/denunciante)
-    boolean temMensagemNaoLida = denuncia.getAcompanhamentos().stream()
-        .anyMatch(a -> a.getAutor() == Perfis.ANONIMO && !a.getVisualizado());
+  private DenunciaResponseDto mapToDenunciaResponseDto(DenunciaPublicaView denuncia,
+      boolean temMensagemNaoLida) {
+    DenuncianteResponseDto denuncianteDto = null;
+    if (denuncia.possuiDenuncianteIdentificado()) {
+      denuncianteDto = new DenuncianteResponseDto(denuncia.denuncianteNomeCompleto(),
+          denuncia.denuncianteGrau(), denuncia.denuncianteCurso(), denuncia.denuncianteAno(),
+          denuncia.denuncianteTurma());
+    }
 
-    boolean existeMensagemAdmin =
-        acompanhamentoRepository.existsByDenunciaIdAndAutor(denuncia.getId(), Perfis.ADMIN);
+    return new DenunciaResponseDto(denuncia.id(), denuncia.tokenAcompanhamento(),
+        denuncia.status(), denuncia.categoria(), denuncia.criadoEm(), denuncia.alteradoEm(),
+        temMensagemNaoLida, denuncianteDto);
+  }
 
-    boolean isRecemCriada = temMensagemNaoLida && !existeMensagemAdmin;
+  /**
+   * Monta os DTOs de uma página da listagem administrativa. As chaves da página (emails dos admins
+   * acompanhando) são coletadas e resolvidas pelo cache de identidade, com no máximo uma consulta
+   * IN para os que ainda não estão em cache. Mensagens não lidas e resposta do admin vêm do resumo
+   * de atividade da denúncia.
+   *
+   * @param denuncias denúncias da página, já na ordem final
+   * @param isFixada indica, por ID, se a denúncia está fixada pelo usuário logado
+   * @param destaques relevância e trecho destacado por ID (vazio fora da busca textual)
+   * @return DTOs da página na mesma ordem
+   */
+  private List<DenunciaAdminResponseDto> montarPagina(List<DenunciaListagemView> denuncias,
+      Predicate<Long> isFixada, Map<Long, DenunciaDestaqueBusca> destaques) {
+    Set<String> adminEmails = denuncias.stream().map(DenunciaListagemView::adminAcompanhandoEmail)
+        .filter(email -> email != null && !email.isEmpty()).collect(Collectors.toSet());
+
+    Map<String, UsuarioIdentidade> admins = usuarioIdentidadeCache.buscarPorEmails(adminEmails);
+
+    return denuncias.stream().map(d -> {
+      UsuarioIdentidade admin = admins.get(d.adminAcompanhandoEmail());
+      return mapToDenunciaAdminResponseDto(d, isFixada.test(d.id()),
+          admin != null ? admin.nome() : null, destaques.get(d.id()));
+    }).collect(Collectors.toList());
+  }
 
+  /**
+   * Executa a busca textual paginada no banco (em caso de falha no cache). O trecho destacado é
+   * sanitizado para que {@code <mark>} seja a única marcação, mesmo que o texto original contenha
+   * HTML ou o recorte do ts_headline deixe tags desbalanceadas.
+   *
+   * @param chave busca e janela da página
+   * @return IDs da página, total e destaques
+   */
+  private BuscaDenunciaCache.Resultado buscarPaginaPorTexto(BuscaDenunciaCache.Chave chave) {
+    BuscaDenunciaCache.Busca busca = chave.busca();
+    String fixadas = busca.fixadas().stream().map(String::valueOf)
+        .collect(Collectors.joining(",", "{", "}"));
+    List<DenunciaBuscaResultado> resultados = denunciaRepository.buscarPaginaPorTexto(
+        busca.termo(), fixadas, busca.status(), busca.categoria(), busca.adminEmail(),
+        chave.limite(), chave.deslocamento());
+    long total = resultados.isEmpty() ? 0 : resultados.get(0).getTotal();
+    Map<Long, DenunciaDestaqueBusca> destaques = resultados.stream()
+        .collect(Collectors.toMap(DenunciaBuscaResultado::getDenunciaId,
+            r -> new DenunciaDestaqueBusca(r.getRelevancia(),
+                r.getTrecho() != null ? POLITICA_TRECHO.sanitize(r.getTrecho()) : null),
+            (a, b) -> a));
+    return new BuscaDenunciaCache.Resultado(
+        resultados.stream().map(DenunciaBuscaResultado::getDenunciaId).toList(), total, destaques);
+  }
 
-    // Mapear dados do denunciante, se existir e se deseja se identificar
-    DenuncianteResponseDto denuncianteDto = null;
-    if (denuncia.isDesejaSeIdentificar() && denuncia.getDenunciante() != null) {
-      Denunciante denunciante = denuncia.getDenunciante();
-      denuncianteDto =
-          new DenuncianteResponseDto(denunciante.getNomeCompleto(), denunciante.getGrau(),
-              denunciante.getCurso(), denunciante.getAno(), denunciante.getTurma());
-    }
+  /**
+   * Resolve o ID do usuário logado pelo cache de identidade.
+   *
+   * @param username email do usuário logado
+   * @return ID do usuário
+   */
+  private Long buscarUsuarioId(String username) {
+    return usuarioIdentidadeCache.buscarPorEmail(username).map(UsuarioIdentidade::id)
+        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
+  }
+
+  /**
+   * Reordena as visões da página conforme a ordem dos IDs retornada pela consulta de paginação.
+   *
+   * @param denuncias visões a reordenar
+   * @param idsOrder IDs na ordem da listagem
+   * @return nova lista na ordem da listagem
+   */
+  private static List<DenunciaListagemView> ordenarPorIds(List<DenunciaListagemView> denuncias,
+      List<Long> idsOrder) {
+    Map<Long, Integer> orderMap = IntStream.range(0, idsOrder.size()).boxed()
+        .collect(Collectors.toMap(idsOrder::get, i -> i));
+    return denuncias.stream()
+        .sorted(Comparator.comparingInt(d -> orderMap.getOrDefault(d.id(), Integer.MAX_VALUE)))
+        .collect(Collectors.toList());
+  }
 
+  /**
+   * Mapeia uma entidade Denuncia para DenunciaAdminResponseDto, buscando o nome do admin
+   * acompanhando. Usado nos fluxos de uma única denúncia.
+   *
+   * @param denuncia entidade a ser mapeada
+   * @param fixada indica se a denúncia está fixada pelo usuário
+   * @return DTO mapeado
+   */
+  private DenunciaAdminResponseDto mapToDenunciaAdminResponseDto(Denuncia denuncia,
+      boolean fixada) {
     // Buscar nome do admin acompanhando pelo email
     String adminAcompanhandoNome = null;
     String adminAcompanhandoEmail = denuncia.getAdminAcompanhandoEmail();
     if (adminAcompanhandoEmail != null && !adminAcompanhandoEmail.isEmpty()) {
-      adminAcompanhandoNome =
-          usuarioRepository.findByEmail(adminAcompanhandoEmail).map(Usuario::getNome).orElse(null);
+      adminAcompanhandoNome = usuarioIdentidadeCache.buscarPorEmail(adminAcompanhandoEmail)
+          .map(UsuarioIdentidade::nome).orElse(null);
     }
+    return mapToDenunciaAdminResponseDto(DenunciaListagemView.from(denuncia), fixada,
+        adminAcompanhandoNome, null);
+  }
 
-    return new DenunciaAdminResponseDto(denuncia.getId(), denuncia.getTokenAcompanhamento(),
-        denuncia.getStatus(), denuncia.getCategoria(), denuncia.getCriadoEm(),
-        denuncia.getAlteradoEm(), temMensagemNaoLida, isRecemCriada, denuncianteDto, adminAcompanhandoEmail,
-        adminAcompanhandoNome, fixada);
+  /**
+   * Mapeia uma visão de listagem para DenunciaAdminResponseDto sem realizar consultas.
+   *
+   * @param denuncia visão a ser mapeada
+   * @param fixada indica se a denúncia está fixada pelo usuário
+   * @param adminAcompanhandoNome nome do admin acompanhando (já resolvido)
+   * @param destaque relevância e trecho da busca textual (null fora da busca)
+   * @return DTO mapeado
+   */
+  private DenunciaAdminResponseDto mapToDenunciaAdminResponseDto(DenunciaListagemView denuncia,
+      boolean fixada, String adminAcompanhandoNome, DenunciaDestaqueBusca destaque) {
+    // Verificar se tem mensagens não lidas do ANONIMO (usuário/denunciante) pelo resumo de
+    // atividade mantido na própria denúncia
+    boolean temMensagemNaoLida = denuncia.mensagensNaoLidasAnonimo() > 0;
+
+    boolean isRecemCriada = temMensagemNaoLida && !denuncia.possuiRespostaAdmin();
+
+    // Mapear dados do denunciante, se existir e se deseja se identificar
+    DenuncianteResponseDto denuncianteDto = null;
+    if (denuncia.possuiDenuncianteIdentificado()) {
+      denuncianteDto = new DenuncianteResponseDto(denuncia.denuncianteNomeCompleto(),
+          denuncia.denuncianteGrau(), denuncia.denuncianteCurso(), denuncia.denuncianteAno(),
+          denuncia.denuncianteTurma());
+    }
+
+    return new DenunciaAdminResponseDto(denuncia.id(), denuncia.tokenAcompanhamento(),
+        denuncia.status(), denuncia.categoria(), denuncia.criadoEm(), denuncia.alteradoEm(),
+        temMensagemNaoLida, isRecemCriada, denuncianteDto, denuncia.adminAcompanhandoEmail(),
+        adminAcompanhandoNome, fixada, destaque != null ? destaque.relevancia() : null,
+        destaque != null ? destaque.trecho() : null);
   }
 
   private AcompanhamentoDto mapToAcompanhamentoResponseDto(Acompanhamento acompanhamento) {
@@ -647,6 +976,11 @@ public class DenunciaService {
         acompanhamento.getAutor().getDisplayName(), acompanhamento.getDataEnvio());
   }
 
+  private AcompanhamentoDto mapToAcompanhamentoResponseDto(AcompanhamentoView acompanhamento) {
+    return new AcompanhamentoDto(acompanhamento.id(), acompanhamento.mensagem(),
+        acompanhamento.autor().getDisplayName(), acompanhamento.dataEnvio());
+  }
+
   /**
    * Mascara um token UUID mostrando apenas os primeiros 8 caracteres seguidos de "...***". Previne
    * exposição completa de tokens sensíveis nos logs.
@@ -675,9 +1009,9 @@ public class DenunciaService {
   public void fixarDenuncia(Long denunciaId, String username) {
     log.info("Usuário {} fixando denúncia ID {}", username, denunciaId);
 
-    // Buscar usuário
-    Usuario usuario = usuarioRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
+    // Buscar usuário (a associação só precisa da referência)
+    Long usuarioId = buscarUsuarioId(username);
+    Usuario usuario = usuarioRepository.getReferenceById(usuarioId);
 
     // Buscar denúncia
     Denuncia denuncia = denunciaRepository.findById(denunciaId).orElseThrow(
@@ -685,7 +1019,7 @@ public class DenunciaService {
 
     // Verificar se já está fixada
     boolean jaFixada =
-        denunciaFixadaRepository.existsByUsuarioIdAndDenunciaId(usuario.getId(), denunciaId);
+        denunciaFixadaRepository.existsByUsuarioIdAndDenunciaId(usuarioId, denunciaId);
 
     if (jaFixada) {
       log.warn("Denúncia ID {} já está fixada pelo usuário {}", denunciaId, username);
@@ -695,6 +1029,7 @@ public class DenunciaService {
     // Criar e salvar a associação
     DenunciaFixada denunciaFixada = new DenunciaFixada(usuario, denuncia);
     denunciaFixadaRepository.save(denunciaFixada);
+    denunciaFixadaCache.invalidar(usuarioId);
 
     log.info("Denúncia ID {} fixada com sucesso pelo usuário {}", denunciaId, username);
   }
@@ -710,12 +1045,11 @@ public class DenunciaService {
     log.info("Usuário {} desfixando denúncia ID {}", username, denunciaId);
 
     // Buscar usuário
-    Usuario usuario = usuarioRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
+    Long usuarioId = buscarUsuarioId(username);
 
     // Verificar se está fixada
     Optional<DenunciaFixada> denunciaFixada =
-        denunciaFixadaRepository.findByUsuarioIdAndDenunciaId(usuario.getId(), denunciaId);
+        denunciaFixadaRepository.findByUsuarioIdAndDenunciaId(usuarioId, denunciaId);
 
     if (denunciaFixada.isEmpty()) {
       log.warn("Denúncia ID {} não está fixada pelo usuário {}", denunciaId, username);
@@ -724,6 +1058,7 @@ public class DenunciaService {
 
     // Remover a associação
     denunciaFixadaRepository.delete(denunciaFixada.get());
+    denunciaFixadaCache.invalidar(usuarioId);
 
     log.info("Denúncia ID {} desfixada com sucesso pelo usuário {}", denunciaId, username);
   }
@@ -737,10 +1072,9 @@ public class DenunciaService {
    */
   @Transactional(readOnly = true)
   public boolean isDenunciaFixada(Long denunciaId, String username) {
-    Usuario usuario = usuarioRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
+    Long usuarioId = buscarUsuarioId(username);
 
-    return denunciaFixadaRepository.existsByUsuarioIdAndDenunciaId(usuario.getId(), denunciaId);
+    return denunciaFixadaCache.isFixada(usuarioId, denunciaId);
   }
 
   /**
@@ -751,10 +1085,10 @@ public class DenunciaService {
    */
   @Transactional(readOnly = true)
   public List<Long> buscarDenunciasFixadas(String username) {
-    Usuario usuario = usuarioRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado: " + username));
+    Long usuarioId = buscarUsuarioId(username);
 
-    return denunciaFixadaRepository.findDenunciaIdsByUsuarioId(usuario.getId());
+    return Arrays.stream(denunciaFixadaCache.getFixadas(usuarioId).toSortedArray()).boxed()
+        .toList();
   }
 
   /**
@@ -782,6 +1116,7 @@ public class DenunciaService {
 
     denuncia.setAdminAcompanhandoEmail(adminEmail);
     Denuncia denunciaAtualizada = denunciaRepository.save(denuncia);
+    buscaDenunciaCache.invalidarAdmin(id, adminEmail);
 
     log.info("Admin {} agora está acompanhando a denúncia ID {}", adminEmail, id);
     return mapToDenunciaAdminResponseDto(denunciaAtualizada, false);
@@ -819,6 +1154,7 @@ public class DenunciaService {
 
     denuncia.setAdminAcompanhandoEmail(null);
     Denuncia denunciaAtualizada = denunciaRepository.save(denuncia);
+    buscaDenunciaCache.invalidarAdmin(id, null);
 
     log.info("Admin {} deixou de acompanhar a denúncia ID {}", adminEmail, id);
     return mapToDenunciaAdminResponseDto(denunciaAtualizada, false);
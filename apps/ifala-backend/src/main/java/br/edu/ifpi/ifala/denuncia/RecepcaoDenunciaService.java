@@ -0,0 +1,145 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import br.edu.ifpi.ifala.denuncia.denunciaDTO.CriarDenunciaDto;
+import br.edu.ifpi.ifala.denuncia.denunciaDTO.DadosDeIdentificacaoDto;
+import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaResponseDto;
+import br.edu.ifpi.ifala.prova.ProvaService;
+import br.edu.ifpi.ifala.prova.ProvasTemporarias;
+import br.edu.ifpi.ifala.security.recaptcha.RecaptchaService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.owasp.html.PolicyFactory;
+import org.owasp.html.Sanitizers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Recebe novas denúncias do formulário público.
+ *
+ * <p>
+ * A validação do reCAPTCHA é uma chamada HTTP ao Google e não depende das demais etapas. Por isso
+ * ela roda em uma thread virtual enquanto a requisição é validada e sanitizada e os arquivos de
+ * prova são gravados em um diretório temporário (em outra thread virtual). O escopo das threads é
+ * fechado antes de qualquer decisão, então nenhuma tarefa sobrevive à requisição. Só depois que o
+ * reCAPTCHA é aceito a denúncia é registrada, na transação do {@link DenunciaService}; os arquivos
+ * temporários são descartados em qualquer caso de falha.
+ * </p>
+ *
+ * <p>
+ * Esta classe não é transacional: nenhuma conexão com o banco é ocupada durante a espera pelo
+ * Google.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Service
+public class RecepcaoDenunciaService {
+
+  private static final Logger log = LoggerFactory.getLogger(RecepcaoDenunciaService.class);
+  private static final String ACAO_RECAPTCHA = "denuncia";
+  private static final double SCORE_MINIMO_RECAPTCHA = 0.2;
+
+  private final DenunciaService denunciaService;
+  private final RecaptchaService recaptchaService;
+  private final ProvaService provaService;
+  private final Validator validator;
+  private final PolicyFactory policy = Sanitizers.FORMATTING.and(Sanitizers.LINKS);
+
+  public RecepcaoDenunciaService(DenunciaService denunciaService,
+      RecaptchaService recaptchaService, ProvaService provaService, Validator validator) {
+    this.denunciaService = denunciaService;
+    this.recaptchaService = recaptchaService;
+    this.provaService = provaService;
+    this.validator = validator;
+  }
+
+  /**
+   * Valida o reCAPTCHA, a requisição e as provas e registra a nova denúncia.
+   *
+   * @param dto dados enviados pelo formulário
+   * @param provas arquivos de prova (opcional)
+   * @return denúncia criada, com o token de acompanhamento
+   */
+  public DenunciaResponseDto receber(CriarDenunciaDto dto, List<MultipartFile> provas) {
+    log.info("Iniciando validação do reCAPTCHA para nova denúncia.");
+
+    Future<Boolean> recaptcha;
+    Future<ProvasTemporarias> preparacaoProvas;
+    CriarDenunciaDto sanitizado = null;
+    RuntimeException erroValidacao = null;
+
+    // O close() do escopo aguarda as duas tarefas, com ou sem erro na thread atual
+    try (ExecutorService escopo = Executors.newVirtualThreadPerTaskExecutor()) {
+      recaptcha = escopo.submit(() -> recaptchaService.validarToken(dto.recaptchaToken(),
+          ACAO_RECAPTCHA, SCORE_MINIMO_RECAPTCHA));
+      preparacaoProvas = escopo.submit(() -> provaService.prepararProvas(provas));
+      try {
+        sanitizado = validarESanitizar(dto);
+      } catch (RuntimeException e) {
+        erroValidacao = e;
+      }
+    }
+
+    try {
+      if (!Boolean.TRUE.equals(resultado(recaptcha))) {
+        log.warn("Falha na validação do reCAPTCHA para nova denúncia.");
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+            "Falha na validação do ReCaptcha.");
+      }
+      log.info("reCAPTCHA validado com sucesso para nova denúncia.");
+
+      if (erroValidacao != null) {
+        throw erroValidacao;
+      }
+      return denunciaService.criarDenuncia(sanitizado, resultado(preparacaoProvas));
+    } finally {
+      // Após o registro os arquivos já foram movidos; resta apenas o diretório temporário
+      if (preparacaoProvas.state() == Future.State.SUCCESS) {
+        preparacaoProvas.resultNow().descartar();
+      }
+    }
+  }
+
+  private CriarDenunciaDto validarESanitizar(CriarDenunciaDto dto) {
+    // O endpoint multipart recebe a denúncia como texto JSON, sem passar pelo @Valid
+    Set<ConstraintViolation<CriarDenunciaDto>> violacoes = validator.validate(dto);
+    if (!violacoes.isEmpty()) {
+      throw new ConstraintViolationException(violacoes);
+    }
+
+    DadosDeIdentificacaoDto identificacao = dto.dadosDeIdentificacao();
+    if (identificacao != null) {
+      identificacao = new DadosDeIdentificacaoDto(policy.sanitize(identificacao.nomeCompleto()),
+          identificacao.email().trim(), // Email não deve ser sanitizado
+          identificacao.grau(), identificacao.curso(), identificacao.ano(), identificacao.turma());
+    }
+    return new CriarDenunciaDto(dto.desejaSeIdentificar(), identificacao,
+        policy.sanitize(dto.descricao()), dto.categoria(), dto.recaptchaToken());
+  }
+
+  private static <T> T resultado(Future<T> tarefa) {
+    try {
+      return tarefa.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException erro) {
+        throw erro;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Recebimento da denúncia interrompido.");
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import br.edu.ifpi.ifala.shared.collections.UuidBloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Filtro em memória dos tokens de acompanhamento existentes. As consultas públicas por token
+ * passam primeiro por aqui: um token que certamente não existe é recusado sem nenhuma consulta ao
+ * banco, o que protege a base de varreduras de tokens aleatórios.
+ *
+ * <p>
+ * O filtro é um {@link UuidBloomFilter} montado a partir de uma leitura em streaming de todos os
+ * tokens, na inicialização e depois periodicamente (para descartar tokens de denúncias excluídas).
+ * Novas denúncias entram no filtro ao serem criadas, antes do commit. Tokens criados durante uma
+ * reconstrução também são mantidos em um conjunto recente e copiados para o novo filtro, para que
+ * uma denúncia ainda não confirmada no momento da leitura não fique de fora. Enquanto o primeiro
+ * filtro não estiver pronto, todos os tokens são aceitos.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class TokenAcompanhamentoFiltro {
+
+  private static final Logger log = LoggerFactory.getLogger(TokenAcompanhamentoFiltro.class);
+
+  private final DenunciaRepository denunciaRepository;
+  private final Cache<UUID, Boolean> recentes;
+  private final Counter rejeitados;
+  private final double taxaFalsoPositivo;
+  private volatile UuidBloomFilter filtro;
+
+  public TokenAcompanhamentoFiltro(DenunciaRepository denunciaRepository,
+      MeterRegistry meterRegistry,
+      @Value("${denuncias.filtro-tokens.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+    this.denunciaRepository = denunciaRepository;
+    this.taxaFalsoPositivo = taxaFalsoPositivo;
+    this.recentes = Caffeine.newBuilder().expireAfterWrite(30, TimeUnit.MINUTES).build();
+    this.rejeitados = Counter.builder("denuncias.token.rejeitados")
+        .description("Consultas públicas recusadas pelo filtro de tokens sem acesso ao banco")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Indica se o token pode pertencer a uma denúncia. {@code false} significa que certamente não
+   * pertence.
+   *
+   * @param token token de acompanhamento
+   * @return false se o token certamente não existe
+   */
+  public boolean podeExistir(UUID token) {
+    UuidBloomFilter atual = filtro;
+    if (atual == null || atual.podeConter(token)) {
+      return true;
+    }
+    rejeitados.increment();
+    return false;
+  }
+
+  /**
+   * Registra o token de uma denúncia recém-criada.
+   *
+   * @param token token de acompanhamento
+   */
+  public void registrar(UUID token) {
+    synchronized (this) {
+      recentes.put(token, Boolean.TRUE);
+      UuidBloomFilter atual = filtro;
+      if (atual != null) {
+        atual.adicionar(token);
+      }
+    }
+  }
+
+  /**
+   * Reconstrói o filtro a partir de todos os tokens gravados. Executa logo após a inicialização e
+   * depois no intervalo configurado.
+   */
+  @Scheduled(initialDelay = 0,
+      fixedDelayString = "${denuncias.filtro-tokens.reconstrucao-minutes:60}",
+      timeUnit = TimeUnit.MINUTES)
+  @Transactional(readOnly = true)
+  public void reconstruir() {
+    long inicio = System.nanoTime();
+    long total = denunciaRepository.count();
+    // Folga para as denúncias criadas até a próxima reconstrução
+    UuidBloomFilter novo = UuidBloomFilter.criar(total + Math.max(1_000, total / 2),
+        taxaFalsoPositivo);
+    long[] lidos = {0};
+    try (Stream<UUID> tokens = denunciaRepository.streamTokensAcompanhamento()) {
+      tokens.forEach(token -> {
+        novo.adicionar(token);
+        lidos[0]++;
+      });
+    }
+    synchronized (this) {
+      recentes.asMap().keySet().forEach(novo::adicionar);
+      filtro = novo;
+    }
+    log.info("Filtro de tokens reconstruído com {} tokens ({} KiB) em {} ms.", lidos[0],
+        novo.tamanhoEmBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+  }
+}
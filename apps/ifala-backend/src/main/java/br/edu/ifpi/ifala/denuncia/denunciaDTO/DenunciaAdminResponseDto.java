@@ -2,6 +2,7 @@ package br.edu.ifpi.ifala.denuncia.denunciaDTO;
 
 import br.edu.ifpi.ifala.shared.enums.Categorias;
 import br.edu.ifpi.ifala.shared.enums.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -12,6 +13,8 @@ import java.util.UUID;
  * Data Transfer Object (DTO) para representar a resposta de uma denúncia com
  * informações adicionais
  * para administradores.
+ * Os campos relevancia e trechoDestacado só são preenchidos (e serializados) na busca textual;
+ * trechoDestacado é HTML escapado em que {@code <mark>} é a única marcação.
  *
  * @author Jhonatas G Ribeiro
  */
@@ -27,5 +30,7 @@ public record DenunciaAdminResponseDto(
     DenuncianteResponseDto denunciante,
     String adminAcompanhandoEmail,
     String adminAcompanhandoNome,
-    Boolean fixada) {
+    Boolean fixada,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Float relevancia,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String trechoDestacado) {
 }
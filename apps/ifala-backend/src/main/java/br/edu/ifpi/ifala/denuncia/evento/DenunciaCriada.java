@@ -0,0 +1,12 @@
+package br.edu.ifpi.ifala.denuncia.evento;
+
+/**
+ * Evento publicado quando uma nova denúncia é registrada. Os ouvintes recebem o evento
+ * imediatamente antes do commit, ainda na transação que registrou a denúncia.
+ *
+ * @param denunciaId ID da denúncia criada
+ *
+ * @author Renê Morais
+ */
+public record DenunciaCriada(Long denunciaId) {
+}
@@ -0,0 +1,16 @@
+package br.edu.ifpi.ifala.denuncia.evento;
+
+import br.edu.ifpi.ifala.shared.enums.Perfis;
+
+/**
+ * Evento publicado quando uma nova mensagem é adicionada ao acompanhamento de uma denúncia, pelo
+ * denunciante (ANONIMO) ou por um admin (ADMIN).
+ *
+ * @param acompanhamentoId ID da mensagem criada
+ * @param denunciaId ID da denúncia
+ * @param autor autor da mensagem
+ *
+ * @author Renê Morais
+ */
+public record MensagemRecebida(Long acompanhamentoId, Long denunciaId, Perfis autor) {
+}
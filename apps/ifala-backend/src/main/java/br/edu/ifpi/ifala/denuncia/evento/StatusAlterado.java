@@ -0,0 +1,15 @@
+package br.edu.ifpi.ifala.denuncia.evento;
+
+import br.edu.ifpi.ifala.shared.enums.Status;
+
+/**
+ * Evento publicado quando um admin altera o status de uma denúncia.
+ *
+ * @param denunciaId ID da denúncia
+ * @param statusAnterior status antes da alteração
+ * @param novoStatus status após a alteração
+ *
+ * @author Renê Morais
+ */
+public record StatusAlterado(Long denunciaId, Status statusAnterior, Status novoStatus) {
+}
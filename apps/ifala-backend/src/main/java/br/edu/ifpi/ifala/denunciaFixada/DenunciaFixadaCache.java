@@ -0,0 +1,80 @@
+package br.edu.ifpi.ifala.denunciaFixada;
+
+import br.edu.ifpi.ifala.shared.collections.ImmutableLongHashSet;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache, por usuário, dos IDs de denúncias fixadas. Cada entrada guarda o conjunto completo de
+ * fixadas do usuário em um {@link ImmutableLongHashSet}, de modo que a listagem e o detalhe
+ * consultam "está fixada?" em memória, sem ir ao banco a cada requisição.
+ *
+ * <p>
+ * A entrada do usuário é invalidada ao fixar/desfixar uma denúncia; a expiração por tempo limita a
+ * defasagem caso a tabela seja alterada por fora da aplicação.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class DenunciaFixadaCache {
+
+  private static final Logger log = LoggerFactory.getLogger(DenunciaFixadaCache.class);
+
+  private final LoadingCache<Long, ImmutableLongHashSet> cache;
+
+  public DenunciaFixadaCache(DenunciaFixadaRepository denunciaFixadaRepository,
+      @Value("${cache.denuncias-fixadas.expiration-minutes:10}") int expirationMinutes,
+      @Value("${cache.denuncias-fixadas.maximum-size:500}") int maximumSize) {
+    this.cache = Caffeine.newBuilder().expireAfterWrite(expirationMinutes, TimeUnit.MINUTES)
+        .maximumSize(maximumSize).recordStats().build(usuarioId -> ImmutableLongHashSet
+            .of(denunciaFixadaRepository.findDenunciaIdsByUsuarioId(usuarioId)));
+  }
+
+  /**
+   * Retorna o conjunto de denúncias fixadas pelo usuário, carregando do banco se necessário.
+   *
+   * @param usuarioId ID do usuário
+   * @return IDs das denúncias fixadas
+   */
+  public ImmutableLongHashSet getFixadas(Long usuarioId) {
+    return cache.get(usuarioId);
+  }
+
+  /**
+   * Verifica se a denúncia está fixada pelo usuário.
+   *
+   * @param usuarioId  ID do usuário
+   * @param denunciaId ID da denúncia
+   * @return true se estiver fixada
+   */
+  public boolean isFixada(Long usuarioId, Long denunciaId) {
+    return denunciaId != null && getFixadas(usuarioId).contains(denunciaId);
+  }
+
+  /**
+   * Invalida o conjunto do usuário. Dentro de uma transação, a invalidação é repetida após o commit
+   * para que uma leitura concorrente não recoloque no cache o estado anterior à alteração.
+   *
+   * @param usuarioId ID do usuário
+   */
+  public void invalidar(Long usuarioId) {
+    cache.invalidate(usuarioId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidate(usuarioId);
+        }
+      });
+    }
+    log.debug("Cache de denúncias fixadas invalidado para o usuário ID {}", usuarioId);
+  }
+}
@@ -0,0 +1,158 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.notificacao.dto.EmailRequest;
+import br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * E-mail gravado na caixa de saída. A linha é criada na transação de quem gerou o e-mail (a
+ * alteração de negócio ou o processamento de um evento de notificação) e enviada depois pelo
+ * {@link EmailOutboxDespachante}.
+ *
+ * @author Renê Morais
+ */
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutbox {
+
+  private static final String SEPARADOR = ",";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String destinatarios;
+
+  private String copia;
+
+  @Column(name = "copia_oculta")
+  private String copiaOculta;
+
+  @Column(nullable = false)
+  private String assunto;
+
+  @Column(nullable = false)
+  private String corpo;
+
+  private boolean html;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private StatusEnvioEmail status;
+
+  private int tentativas;
+
+  @Column(name = "proxima_tentativa_em", nullable = false)
+  private LocalDateTime proximaTentativaEm;
+
+  @Column(name = "ultimo_erro")
+  private String ultimoErro;
+
+  @Column(name = "criado_em", nullable = false, updatable = false)
+  private LocalDateTime criadoEm;
+
+  @Column(name = "enviado_em")
+  private LocalDateTime enviadoEm;
+
+  protected EmailOutbox() {}
+
+  /**
+   * Cria uma linha pendente, disponível para envio imediato.
+   *
+   * @param request e-mail já com os destinatários filtrados
+   * @return linha pendente
+   */
+  public static EmailOutbox pendente(EmailRequest request) {
+    EmailOutbox email = new EmailOutbox();
+    LocalDateTime agora = LocalDateTime.now();
+    email.destinatarios = juntar(request.to());
+    email.copia = juntar(request.cc());
+    email.copiaOculta = juntar(request.bcc());
+    email.assunto = request.subject();
+    email.corpo = request.body();
+    email.html = request.html();
+    email.status = StatusEnvioEmail.PENDENTE;
+    email.proximaTentativaEm = agora;
+    email.criadoEm = agora;
+    return email;
+  }
+
+  /**
+   * Marca o início de uma tentativa. Enquanto a tentativa durar, a linha não volta a ser reservada
+   * até {@code prazo}; se a instância cair no meio do envio, a linha é retomada depois do prazo.
+   *
+   * @param prazo limite da reserva
+   */
+  public void reservar(LocalDateTime prazo) {
+    this.tentativas++;
+    this.proximaTentativaEm = prazo;
+  }
+
+  /**
+   * Reconstrói a requisição de envio a partir da linha gravada.
+   *
+   * @return requisição de envio
+   */
+  public EmailRequest toEmailRequest() {
+    return new EmailRequest(separar(destinatarios), separar(copia), separar(copiaOculta), assunto,
+        corpo, html);
+  }
+
+  private static String juntar(List<String> emails) {
+    if (emails == null || emails.isEmpty()) {
+      return null;
+    }
+    return String.join(SEPARADOR, emails);
+  }
+
+  private static List<String> separar(String emails) {
+    if (emails == null || emails.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(emails.split(SEPARADOR)).map(String::trim).filter(s -> !s.isEmpty())
+        .toList();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getAssunto() {
+    return assunto;
+  }
+
+  public StatusEnvioEmail getStatus() {
+    return status;
+  }
+
+  public int getTentativas() {
+    return tentativas;
+  }
+
+  public LocalDateTime getProximaTentativaEm() {
+    return proximaTentativaEm;
+  }
+
+  public String getUltimoErro() {
+    return ultimoErro;
+  }
+
+  public LocalDateTime getCriadoEm() {
+    return criadoEm;
+  }
+
+  public LocalDateTime getEnviadoEm() {
+    return enviadoEm;
+  }
+}
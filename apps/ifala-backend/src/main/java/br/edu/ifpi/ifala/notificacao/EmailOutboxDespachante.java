@@ -0,0 +1,189 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Envia os e-mails gravados na caixa de saída (tabela email_outbox).
+ *
+ * <p>
+ * A cada ciclo, reserva um lote de linhas pendentes com FOR UPDATE SKIP LOCKED em uma transação
+ * curta, que só adia a próxima tentativa de cada linha pelo prazo da reserva. O envio SMTP acontece
+ * fora da transação, no executor {@code emailOutboxTaskExecutor}, cujo tamanho limita a
+ * concorrência. Enquanto os lotes vierem cheios, o ciclo continua reservando, para escoar picos.
+ * </p>
+ *
+ * <p>
+ * Falhas são reagendadas com backoff exponencial até o limite de tentativas, quando a linha passa
+ * para FALHOU e fica disponível para análise.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class EmailOutboxDespachante {
+
+  private static final Logger log = LoggerFactory.getLogger(EmailOutboxDespachante.class);
+  private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final SmtpEmailService smtpEmailService;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor executor;
+  private final int tamanhoLote;
+  private final int maxTentativas;
+  private final Duration prazoReserva;
+  private final Duration backoffInicial;
+  private final Duration backoffMaximo;
+  private final int retencaoDias;
+
+  private final AtomicLong pendentes = new AtomicLong();
+  private final AtomicLong atrasoSegundos = new AtomicLong();
+  private final Counter enviados;
+  private final Counter reagendados;
+  private final Counter falhas;
+
+  public EmailOutboxDespachante(EmailOutboxRepository emailOutboxRepository,
+      SmtpEmailService smtpEmailService, PlatformTransactionManager transactionManager,
+      @Qualifier("emailOutboxTaskExecutor") Executor executor, MeterRegistry meterRegistry,
+      @Value("${email.outbox.tamanho-lote:50}") int tamanhoLote,
+      @Value("${email.outbox.max-tentativas:8}") int maxTentativas,
+      @Value("${email.outbox.prazo-reserva-seconds:300}") long prazoReservaSegundos,
+      @Value("${email.outbox.backoff-inicial-seconds:30}") long backoffInicialSegundos,
+      @Value("${email.outbox.backoff-maximo-minutes:60}") long backoffMaximoMinutos,
+      @Value("${email.outbox.retencao-dias:7}") int retencaoDias) {
+    this.emailOutboxRepository = emailOutboxRepository;
+    this.smtpEmailService = smtpEmailService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.executor = executor;
+    this.tamanhoLote = tamanhoLote;
+    this.maxTentativas = maxTentativas;
+    this.prazoReserva = Duration.ofSeconds(prazoReservaSegundos);
+    this.backoffInicial = Duration.ofSeconds(backoffInicialSegundos);
+    this.backoffMaximo = Duration.ofMinutes(backoffMaximoMinutos);
+    this.retencaoDias = retencaoDias;
+
+    Gauge.builder("email.outbox.pendentes", pendentes, AtomicLong::get)
+        .description("E-mails pendentes na caixa de saída").register(meterRegistry);
+    Gauge.builder("email.outbox.atraso", atrasoSegundos, AtomicLong::get).baseUnit("seconds")
+        .description("Idade do e-mail pendente mais antigo").register(meterRegistry);
+    this.enviados = contador(meterRegistry, "enviado");
+    this.reagendados = contador(meterRegistry, "reagendado");
+    this.falhas = contador(meterRegistry, "falhou");
+  }
+
+  private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+    return Counter.builder("email.outbox.tentativas").tag("resultado", resultado)
+        .description("Tentativas de envio da caixa de saída por resultado")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reserva e envia lotes até esvaziar os e-mails prontos, e então atualiza as métricas de backlog.
+   */
+  @Scheduled(fixedDelayString = "${email.outbox.intervalo-ms:2000}")
+  public void despachar() {
+    List<EmailOutbox> lote;
+    do {
+      lote = reservarLote();
+      if (!lote.isEmpty()) {
+        CompletableFuture<?>[] envios = lote.stream()
+            .map(email -> CompletableFuture.runAsync(() -> enviar(email), executor))
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(envios).join();
+      }
+    } while (lote.size() == tamanhoLote);
+    atualizarBacklog();
+  }
+
+  private List<EmailOutbox> reservarLote() {
+    List<EmailOutbox> lote = transactionTemplate.execute(status -> {
+      LocalDateTime agora = LocalDateTime.now();
+      List<EmailOutbox> reservados = emailOutboxRepository.reservarLote(agora, tamanhoLote);
+      reservados.forEach(email -> email.reservar(agora.plus(prazoReserva)));
+      return reservados;
+    });
+    return lote == null ? List.of() : lote;
+  }
+
+  private void enviar(EmailOutbox email) {
+    try {
+      smtpEmailService.entregar(email.toEmailRequest());
+      emailOutboxRepository.marcarEnviado(email.getId(), email.getTentativas(),
+          LocalDateTime.now());
+      enviados.increment();
+      log.info("E-mail {} enviado com sucesso: '{}'", email.getId(), email.getAssunto());
+    } catch (Exception e) {
+      registrarFalha(email, e);
+    }
+  }
+
+  private void registrarFalha(EmailOutbox email, Exception e) {
+    String erro = resumirErro(e);
+    try {
+      if (email.getTentativas() >= maxTentativas) {
+        emailOutboxRepository.marcarFalha(email.getId(), email.getTentativas(), erro);
+        falhas.increment();
+        log.error("FALHA DEFINITIVA: e-mail {} ('{}') não enviado após {} tentativas. Erro: {}",
+            email.getId(), email.getAssunto(), email.getTentativas(), erro);
+      } else {
+        LocalDateTime proxima = LocalDateTime.now().plus(backoff(email.getTentativas()));
+        emailOutboxRepository.reagendar(email.getId(), email.getTentativas(), proxima, erro);
+        reagendados.increment();
+        log.warn("Erro no envio do e-mail {} ('{}'), tentativa {}. Nova tentativa em {}. Erro: {}",
+            email.getId(), email.getAssunto(), email.getTentativas(), proxima, erro);
+      }
+    } catch (Exception ex) {
+      // A reserva expira sozinha e a linha volta a ser tentada
+      log.error("Não foi possível registrar a falha do e-mail {}: {}", email.getId(),
+          ex.getMessage());
+    }
+  }
+
+  private Duration backoff(int tentativas) {
+    Duration atraso = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+    return atraso.compareTo(backoffMaximo) > 0 ? backoffMaximo : atraso;
+  }
+
+  private static String resumirErro(Exception e) {
+    String erro = e.getClass().getSimpleName() + ": " + e.getMessage();
+    return erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+  }
+
+  private void atualizarBacklog() {
+    pendentes.set(emailOutboxRepository.countByStatus(StatusEnvioEmail.PENDENTE));
+    LocalDateTime maisAntigo = emailOutboxRepository.findCriadoEmPendenteMaisAntigo();
+    atrasoSegundos.set(maisAntigo == null ? 0
+        : Math.max(0, Duration.between(maisAntigo, LocalDateTime.now()).toSeconds()));
+  }
+
+  /**
+   * Remove os e-mails já enviados há mais dias que o período de retenção.
+   */
+  @Scheduled(fixedDelayString = "${email.outbox.limpeza-minutes:60}",
+      timeUnit = TimeUnit.MINUTES)
+  public void limparEnviados() {
+    int removidos =
+        emailOutboxRepository.excluirEnviadosAntesDe(LocalDateTime.now().minusDays(retencaoDias));
+    if (removidos > 0) {
+      log.info("{} e-mails enviados removidos da caixa de saída.", removidos);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositório da caixa de saída de e-mails.
+ *
+ * <p>
+ * As atualizações de resultado conferem o número da tentativa: se uma reserva expirou e outra
+ * instância já retomou a linha, o resultado da tentativa antiga é descartado.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+  /**
+   * Reserva um lote de e-mails prontos para envio. Deve ser chamado dentro de uma transação; as
+   * linhas bloqueadas por outra instância são puladas em vez de aguardadas.
+   *
+   * @param agora instante de referência
+   * @param lote quantidade máxima de linhas
+   * @return linhas bloqueadas até o fim da transação
+   */
+  @Query(value = """
+      SELECT * FROM email_outbox
+      WHERE status = 'PENDENTE' AND proxima_tentativa_em <= :agora
+      ORDER BY proxima_tentativa_em, id
+      LIMIT :lote
+      FOR UPDATE SKIP LOCKED
+      """, nativeQuery = true)
+  List<EmailOutbox> reservarLote(@Param("agora") LocalDateTime agora, @Param("lote") int lote);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update EmailOutbox e
+      set e.status = br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail.ENVIADO,
+        e.enviadoEm = :agora, e.ultimoErro = null
+      where e.id = :id and e.tentativas = :tentativa
+      """)
+  int marcarEnviado(@Param("id") Long id, @Param("tentativa") int tentativa,
+      @Param("agora") LocalDateTime agora);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update EmailOutbox e set e.proximaTentativaEm = :proxima, e.ultimoErro = :erro
+      where e.id = :id and e.tentativas = :tentativa
+      """)
+  int reagendar(@Param("id") Long id, @Param("tentativa") int tentativa,
+      @Param("proxima") LocalDateTime proxima, @Param("erro") String erro);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update EmailOutbox e
+      set e.status = br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail.FALHOU,
+        e.ultimoErro = :erro
+      where e.id = :id and e.tentativas = :tentativa
+      """)
+  int marcarFalha(@Param("id") Long id, @Param("tentativa") int tentativa,
+      @Param("erro") String erro);
+
+  long countByStatus(StatusEnvioEmail status);
+
+  /**
+   * Data de criação do e-mail pendente mais antigo, usada na métrica de atraso da caixa de saída.
+   *
+   * @return data de criação, ou null se não houver pendentes
+   */
+  @Query("select min(e.criadoEm) from EmailOutbox e "
+      + "where e.status = br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail.PENDENTE")
+  LocalDateTime findCriadoEmPendenteMaisAntigo();
+
+  @Transactional
+  @Modifying
+  @Query("delete from EmailOutbox e "
+      + "where e.status = br.edu.ifpi.ifala.notificacao.enums.StatusEnvioEmail.ENVIADO "
+      + "and e.enviadoEm < :limite")
+  int excluirEnviadosAntesDe(@Param("limite") LocalDateTime limite);
+}
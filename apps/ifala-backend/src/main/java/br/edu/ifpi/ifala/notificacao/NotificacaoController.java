@@ -2,17 +2,21 @@ package br.edu.ifpi.ifala.notificacao;
 
 import br.edu.ifpi.ifala.notificacao.dto.NotificacaoDto;
 import br.edu.ifpi.ifala.notificacao.dto.PaginatedNotificacaoDto;
+import br.edu.ifpi.ifala.shared.dto.SliceDto;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controlador REST para gerenciar notificações no sistema.
@@ -25,9 +29,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotificacaoController {
 
   private final NotificacaoService service;
+  private final NotificacaoStream notificacaoStream;
 
-  public NotificacaoController(NotificacaoService service) {
+  public NotificacaoController(NotificacaoService service, NotificacaoStream notificacaoStream) {
     this.service = service;
+    this.notificacaoStream = notificacaoStream;
   }
 
   /**
@@ -42,6 +48,35 @@ public class NotificacaoController {
     return service.listarNaoLidas(pageable);
   }
 
+  /**
+   * Lista as notificações não lidas sem calcular o total ({@code withTotal=false}).
+   * 
+   * @param pageable Parâmetros de paginação (page, size, sort)
+   * @return Fatia com notificações e indicação de próxima página
+   */
+  @GetMapping(params = "withTotal=false")
+  public SliceDto<NotificacaoDto> listarSemTotal(@PageableDefault(size = 5, sort = "dataEnvio",
+      direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
+    return service.listarNaoLidasSemTotal(pageable);
+  }
+
+  /**
+   * Stream SSE de notificações. Envia o evento {@code contador} ao conectar, {@code notificacao} a
+   * cada nova notificação e {@code contador} quando notificações são lidas ou removidas. Ao
+   * reconectar com {@code Last-Event-ID}, reenvia os eventos perdidos ou {@code reset} quando não é
+   * possível retomar.
+   *
+   * @param ultimoEventoId cabeçalho Last-Event-ID enviado na reconexão
+   * @return conexão SSE
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> stream(
+      @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+    // Desativa o buffering do nginx para que cada evento chegue imediatamente
+    return ResponseEntity.ok().header("X-Accel-Buffering", "no")
+        .body(notificacaoStream.conectar(ultimoEventoId));
+  }
+
   @PutMapping("/{id}/ler")
   public ResponseEntity<NotificacaoDto> marcarComoLida(@PathVariable Long id) {
     String usuario = (SecurityContextHolder.getContext().getAuthentication() != null)
@@ -0,0 +1,56 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.denuncia.evento.DenunciaCriada;
+import br.edu.ifpi.ifala.denuncia.evento.MensagemRecebida;
+import br.edu.ifpi.ifala.denuncia.evento.StatusAlterado;
+import br.edu.ifpi.ifala.notificacao.enums.TipoEventoNotificacao;
+import br.edu.ifpi.ifala.shared.enums.Perfis;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Ouvinte dos eventos de domínio das denúncias que dispara as notificações externas (e-mails e
+ * notificações do painel). Executa imediatamente antes do commit, dentro da transação que publicou
+ * o evento, e grava apenas uma linha pequena na caixa de saída de notificações
+ * (notificacao_outbox): o evento é confirmado junto com a alteração de negócio, ou descartado com
+ * ela.
+ *
+ * <p>
+ * A busca dos destinatários, a notificação do painel e a montagem do HTML ficam com o
+ * {@link NotificacaoOutboxDespachante}, fora da requisição e sem o bloqueio da linha da denúncia.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class NotificacaoEventosListener {
+
+  private final NotificacaoOutboxRepository notificacaoOutboxRepository;
+
+  public NotificacaoEventosListener(NotificacaoOutboxRepository notificacaoOutboxRepository) {
+    this.notificacaoOutboxRepository = notificacaoOutboxRepository;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void aoCriarDenuncia(DenunciaCriada evento) {
+    notificacaoOutboxRepository.save(NotificacaoOutbox
+        .pendente(TipoEventoNotificacao.NOVA_DENUNCIA, evento.denunciaId(), null, null));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void aoReceberMensagem(MensagemRecebida evento) {
+    // Mensagem do denunciante avisa os administradores; mensagem do admin avisa o denunciante
+    TipoEventoNotificacao tipo = evento.autor() == Perfis.ANONIMO
+        ? TipoEventoNotificacao.NOVA_MENSAGEM
+        : TipoEventoNotificacao.RESPOSTA_ADMIN;
+    notificacaoOutboxRepository.save(NotificacaoOutbox.pendente(tipo, evento.denunciaId(),
+        evento.acompanhamentoId(), null));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void aoAlterarStatus(StatusAlterado evento) {
+    notificacaoOutboxRepository.save(NotificacaoOutbox.pendente(
+        TipoEventoNotificacao.STATUS_ALTERADO, evento.denunciaId(), null, evento.novoStatus()));
+  }
+}
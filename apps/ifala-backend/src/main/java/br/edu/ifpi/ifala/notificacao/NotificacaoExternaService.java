@@ -2,6 +2,7 @@ package br.edu.ifpi.ifala.notificacao;
 
 import br.edu.ifpi.ifala.denuncia.Denuncia;
 import br.edu.ifpi.ifala.acompanhamento.Acompanhamento;
+import br.edu.ifpi.ifala.shared.enums.Status;
 
 public interface NotificacaoExternaService {
 
@@ -34,8 +35,11 @@ public interface NotificacaoExternaService {
 
   /**
    * Notifica o denunciante sobre uma alteração no status da sua denúncia.
+   *
+   * @param denuncia denúncia alterada
+   * @param novoStatus status informado no e-mail, o da alteração que originou a notificação
    */
-  void notificarAtualizacaoStatus(Denuncia denuncia);
+  void notificarAtualizacaoStatus(Denuncia denuncia, Status novoStatus);
 
   /**
    * Notifica o denunciante sobre uma nova resposta do administrador na sua denúncia.
@@ -5,6 +5,7 @@ import br.edu.ifpi.ifala.acompanhamento.Acompanhamento;
 import br.edu.ifpi.ifala.autenticacao.UsuarioRepository;
 import br.edu.ifpi.ifala.notificacao.dto.EmailRequest;
 import br.edu.ifpi.ifala.notificacao.enums.TiposNotificacao;
+import br.edu.ifpi.ifala.shared.enums.Status;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -28,16 +29,19 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
   private final EmailService emailService;
   private final UsuarioRepository usuarioRepository;
   private final NotificacaoRepository notificacaoRepository;
+  private final NotificacaoStream notificacaoStream;
 
   @Value("${app.frontend.base-url:http://localhost:5173}")
   private String frontendBaseUrl;
 
   // Injeção de dependência via construtor
   public NotificacaoExternaServiceImpl(EmailService emailService,
-      UsuarioRepository usuarioRepository, NotificacaoRepository notificacaoRepository) {
+      UsuarioRepository usuarioRepository, NotificacaoRepository notificacaoRepository,
+      NotificacaoStream notificacaoStream) {
     this.emailService = emailService;
     this.usuarioRepository = usuarioRepository;
     this.notificacaoRepository = notificacaoRepository;
+    this.notificacaoStream = notificacaoStream;
   }
 
   @Override
@@ -76,7 +80,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
         n.setDenuncia(novaDenuncia);
         n.setLida(false);
         n.setDataEnvio(LocalDateTime.now());
-        notificacaoRepository.save(n);
+        notificacaoStream.publicarNotificacao(notificacaoRepository.save(n));
       } catch (Exception e) {
         log.warn("Não foi possível persistir Notificacao para nova denúncia ID {}: {}",
             novaDenuncia.getId(), e.getMessage());
@@ -128,7 +132,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
         n.setDenuncia(denuncia);
         n.setLida(false);
         n.setDataEnvio(LocalDateTime.now());
-        notificacaoRepository.save(n);
+        notificacaoStream.publicarNotificacao(notificacaoRepository.save(n));
       } catch (Exception e) {
         log.warn("Não foi possível persistir Notificacao para nova mensagem (denúncia ID {}) : {}",
             denuncia.getId(), e.getMessage());
@@ -379,7 +383,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
 
   // Função para notificar atualização de status
   @Override
-  public void notificarAtualizacaoStatus(Denuncia denuncia) {
+  public void notificarAtualizacaoStatus(Denuncia denuncia, Status novoStatus) {
     
     if (denuncia.getDenunciante() == null || denuncia.getDenunciante().getEmail() == null) {
       log.warn("Cidadão sem e-mail na denúncia ID {}. Notificação de status cancelada.",
@@ -391,7 +395,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
     final String subject = "[IFala] Atualização de Status da Denúncia";
     String linkPublico = getFrontendUrl("/acompanhamento/" + denuncia.getTokenAcompanhamento());
 
-    final String body = buildAtualizacaoStatusBody(denuncia, linkPublico);
+    final String body = buildAtualizacaoStatusBody(novoStatus, linkPublico);
 
     EmailRequest req = new EmailRequest(List.of(emailDestinatario), new ArrayList<>(),
         new ArrayList<>(), subject, body, true);
@@ -405,7 +409,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
     }
   }
 
-  private String buildAtualizacaoStatusBody(Denuncia denuncia, String link) {
+  private String buildAtualizacaoStatusBody(Status novoStatus, String link) {
     return """
         <!doctype html>
         <html>
@@ -424,7 +428,7 @@ public class NotificacaoExternaServiceImpl implements NotificacaoExternaService
         </body>
         </html>
         """
-        .formatted(denuncia.getStatus().name(), link);
+        .formatted(novoStatus.name(), link);
   }
 
   private String buildRegistroDenunciaBody(Denuncia denuncia, String link) {
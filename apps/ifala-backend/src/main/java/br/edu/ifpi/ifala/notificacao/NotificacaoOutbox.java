@@ -0,0 +1,121 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.notificacao.enums.TipoEventoNotificacao;
+import br.edu.ifpi.ifala.shared.enums.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de notificação gravado na caixa de saída. A linha é criada na mesma transação da
+ * alteração que originou o evento e guarda apenas o necessário para processá-lo depois; os
+ * destinatários, a notificação do painel e o HTML dos e-mails são resolvidos pelo
+ * {@link NotificacaoOutboxDespachante}.
+ *
+ * @author Renê Morais
+ */
+@Entity
+@Table(name = "notificacao_outbox")
+public class NotificacaoOutbox {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 30)
+  private TipoEventoNotificacao tipo;
+
+  @Column(name = "denuncia_id", nullable = false)
+  private Long denunciaId;
+
+  @Column(name = "acompanhamento_id")
+  private Long acompanhamentoId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 50)
+  private Status status;
+
+  private int tentativas;
+
+  @Column(name = "proxima_tentativa_em", nullable = false)
+  private LocalDateTime proximaTentativaEm;
+
+  private boolean falhou;
+
+  @Column(name = "ultimo_erro")
+  private String ultimoErro;
+
+  @Column(name = "criado_em", nullable = false, updatable = false)
+  private LocalDateTime criadoEm;
+
+  protected NotificacaoOutbox() {}
+
+  /**
+   * Cria um evento pendente, disponível para processamento imediato.
+   *
+   * @param tipo tipo do evento
+   * @param denunciaId ID da denúncia
+   * @param acompanhamentoId ID da mensagem que originou o evento, se houver
+   * @param status novo status da denúncia, se for uma mudança de status
+   * @return evento pendente
+   */
+  public static NotificacaoOutbox pendente(TipoEventoNotificacao tipo, Long denunciaId,
+      Long acompanhamentoId, Status status) {
+    NotificacaoOutbox evento = new NotificacaoOutbox();
+    evento.tipo = tipo;
+    evento.denunciaId = denunciaId;
+    evento.acompanhamentoId = acompanhamentoId;
+    evento.status = status;
+    LocalDateTime agora = LocalDateTime.now();
+    evento.proximaTentativaEm = agora;
+    evento.criadoEm = agora;
+    return evento;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public TipoEventoNotificacao getTipo() {
+    return tipo;
+  }
+
+  public Long getDenunciaId() {
+    return denunciaId;
+  }
+
+  public Long getAcompanhamentoId() {
+    return acompanhamentoId;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public int getTentativas() {
+    return tentativas;
+  }
+
+  public LocalDateTime getProximaTentativaEm() {
+    return proximaTentativaEm;
+  }
+
+  public boolean isFalhou() {
+    return falhou;
+  }
+
+  public String getUltimoErro() {
+    return ultimoErro;
+  }
+
+  public LocalDateTime getCriadoEm() {
+    return criadoEm;
+  }
+}
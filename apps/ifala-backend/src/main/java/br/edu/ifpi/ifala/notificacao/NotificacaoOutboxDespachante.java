@@ -0,0 +1,167 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.acompanhamento.AcompanhamentoRepository;
+import br.edu.ifpi.ifala.denuncia.DenunciaRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Processa os eventos gravados na caixa de saída de notificações (tabela notificacao_outbox).
+ *
+ * <p>
+ * Cada evento é processado em uma transação própria: a linha é reservada com FOR UPDATE SKIP
+ * LOCKED, a denúncia (ou a mensagem) é carregada, a notificação do painel e as linhas de
+ * email_outbox são gravadas pelo {@link NotificacaoExternaService} e o evento é removido. Tudo é
+ * confirmado junto; se a instância cair no meio, a transação é desfeita e outra instância retoma o
+ * evento. A entrega SMTP continua com o {@link EmailOutboxDespachante}.
+ * </p>
+ *
+ * <p>
+ * Falhas são reagendadas com backoff exponencial até o limite de tentativas, quando a linha é
+ * marcada como falha e fica disponível para análise.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class NotificacaoOutboxDespachante {
+
+  private static final Logger log = LoggerFactory.getLogger(NotificacaoOutboxDespachante.class);
+  private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+  private final NotificacaoOutboxRepository notificacaoOutboxRepository;
+  private final NotificacaoExternaService notificacaoExternaService;
+  private final DenunciaRepository denunciaRepository;
+  private final AcompanhamentoRepository acompanhamentoRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int tamanhoLote;
+  private final int maxTentativas;
+  private final Duration backoffInicial;
+  private final Duration backoffMaximo;
+
+  public NotificacaoOutboxDespachante(NotificacaoOutboxRepository notificacaoOutboxRepository,
+      NotificacaoExternaService notificacaoExternaService, DenunciaRepository denunciaRepository,
+      AcompanhamentoRepository acompanhamentoRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${notificacao.outbox.tamanho-lote:100}") int tamanhoLote,
+      @Value("${notificacao.outbox.max-tentativas:8}") int maxTentativas,
+      @Value("${notificacao.outbox.backoff-inicial-seconds:30}") long backoffInicialSegundos,
+      @Value("${notificacao.outbox.backoff-maximo-minutes:60}") long backoffMaximoMinutos) {
+    this.notificacaoOutboxRepository = notificacaoOutboxRepository;
+    this.notificacaoExternaService = notificacaoExternaService;
+    this.denunciaRepository = denunciaRepository;
+    this.acompanhamentoRepository = acompanhamentoRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.tamanhoLote = tamanhoLote;
+    this.maxTentativas = maxTentativas;
+    this.backoffInicial = Duration.ofSeconds(backoffInicialSegundos);
+    this.backoffMaximo = Duration.ofMinutes(backoffMaximoMinutos);
+  }
+
+  /**
+   * Processa os eventos prontos, até o tamanho do lote por ciclo.
+   */
+  @Scheduled(fixedDelayString = "${notificacao.outbox.intervalo-ms:1000}")
+  public void despachar() {
+    for (int i = 0; i < tamanhoLote && processarProximo(); i++) {
+      // Continua enquanto houver eventos prontos
+    }
+  }
+
+  /**
+   * Reserva, processa e remove o próximo evento pronto.
+   *
+   * @return false se não havia evento pronto
+   */
+  private boolean processarProximo() {
+    AtomicReference<NotificacaoOutbox> reservado = new AtomicReference<>();
+    try {
+      Boolean processado = transactionTemplate.execute(status -> notificacaoOutboxRepository
+          .reservarProximo(LocalDateTime.now()).map(evento -> {
+            reservado.set(evento);
+            processar(evento);
+            notificacaoOutboxRepository.delete(evento);
+            return true;
+          }).orElse(false));
+      return Boolean.TRUE.equals(processado);
+    } catch (Exception e) {
+      if (reservado.get() == null) {
+        log.error("Não foi possível reservar eventos de notificação: {}", e.getMessage());
+        return false;
+      }
+      registrarFalha(reservado.get(), e);
+      return true;
+    }
+  }
+
+  private void processar(NotificacaoOutbox evento) {
+    switch (evento.getTipo()) {
+      case NOVA_DENUNCIA -> denunciaRepository.findById(evento.getDenunciaId())
+          .ifPresentOrElse(denuncia -> {
+            // Notificar administradores sobre a nova denúncia
+            notificacaoExternaService.notificarNovaDenuncia(denuncia);
+            log.info("Notificação externa registrada sobre nova denúncia ID {}", denuncia.getId());
+
+            // Notificar o denunciante, se identificado, de que a denúncia foi recebida
+            notificacaoExternaService.notificarRegistroDenuncia(denuncia);
+          }, () -> log.warn("Denúncia ID {} não encontrada ao processar evento {}.",
+              evento.getDenunciaId(), evento.getId()));
+      case NOVA_MENSAGEM -> {
+        // Mensagem do denunciante: avisa os administradores
+        acompanhamentoRepository.findById(evento.getAcompanhamentoId())
+            .ifPresent(notificacaoExternaService::notificarNovaMensagem);
+        log.info("Notificação externa registrada para nova mensagem (denúncia ID {}).",
+            evento.getDenunciaId());
+      }
+      // Mensagem do admin: avisa o denunciante
+      case RESPOSTA_ADMIN -> denunciaRepository.findById(evento.getDenunciaId())
+          .ifPresent(notificacaoExternaService::notificarNovaRespostaAdmin);
+      case STATUS_ALTERADO -> denunciaRepository.findById(evento.getDenunciaId()).ifPresent(
+          denuncia -> notificacaoExternaService.notificarAtualizacaoStatus(denuncia,
+              evento.getStatus()));
+      default -> throw new IllegalStateException(
+          "Tipo de evento desconhecido: " + evento.getTipo());
+    }
+  }
+
+  private void registrarFalha(NotificacaoOutbox evento, Exception e) {
+    String erro = resumirErro(e);
+    int tentativas = evento.getTentativas() + 1;
+    try {
+      if (tentativas >= maxTentativas) {
+        notificacaoOutboxRepository.marcarFalha(evento.getId(), erro);
+        log.error("FALHA DEFINITIVA: evento {} ({}, denúncia ID {}) não processado após {} "
+            + "tentativas. Erro: {}", evento.getId(), evento.getTipo(), evento.getDenunciaId(),
+            tentativas, erro);
+      } else {
+        LocalDateTime proxima = LocalDateTime.now().plus(backoff(tentativas));
+        notificacaoOutboxRepository.reagendar(evento.getId(), proxima, erro);
+        log.warn("Erro ao processar evento {} ({}, denúncia ID {}), tentativa {}. Nova tentativa "
+            + "em {}. Erro: {}", evento.getId(), evento.getTipo(), evento.getDenunciaId(),
+            tentativas, proxima, erro);
+      }
+    } catch (Exception ex) {
+      // A linha continua pendente e volta a ser tentada no próximo ciclo
+      log.error("Não foi possível registrar a falha do evento {}: {}", evento.getId(),
+          ex.getMessage());
+    }
+  }
+
+  private Duration backoff(int tentativas) {
+    Duration atraso = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+    return atraso.compareTo(backoffMaximo) > 0 ? backoffMaximo : atraso;
+  }
+
+  private static String resumirErro(Exception e) {
+    String erro = e.getClass().getSimpleName() + ": " + e.getMessage();
+    return erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+  }
+}
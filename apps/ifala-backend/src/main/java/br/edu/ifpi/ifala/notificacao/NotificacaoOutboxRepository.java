@@ -0,0 +1,53 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositório da caixa de saída de eventos de notificação.
+ *
+ * @author Renê Morais
+ */
+public interface NotificacaoOutboxRepository extends JpaRepository<NotificacaoOutbox, Long> {
+
+  /**
+   * Reserva o próximo evento pronto para processamento. Deve ser chamado dentro de uma transação;
+   * a linha fica bloqueada até o fim dela, e as linhas bloqueadas por outra instância são puladas
+   * em vez de aguardadas.
+   *
+   * @param agora instante de referência
+   * @return evento bloqueado, se houver
+   */
+  @Query(value = """
+      SELECT * FROM notificacao_outbox
+      WHERE NOT falhou AND proxima_tentativa_em <= :agora
+      ORDER BY proxima_tentativa_em, id
+      LIMIT 1
+      FOR UPDATE SKIP LOCKED
+      """, nativeQuery = true)
+  Optional<NotificacaoOutbox> reservarProximo(@Param("agora") LocalDateTime agora);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update NotificacaoOutbox n set n.tentativas = n.tentativas + 1,
+        n.proximaTentativaEm = :proxima, n.ultimoErro = :erro
+      where n.id = :id
+      """)
+  int reagendar(@Param("id") Long id, @Param("proxima") LocalDateTime proxima,
+      @Param("erro") String erro);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update NotificacaoOutbox n set n.tentativas = n.tentativas + 1, n.falhou = true,
+        n.ultimoErro = :erro
+      where n.id = :id
+      """)
+  int marcarFalha(@Param("id") Long id, @Param("erro") String erro);
+}
@@ -2,6 +2,7 @@ package br.edu.ifpi.ifala.notificacao;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -31,6 +32,24 @@ public interface NotificacaoRepository extends JpaRepository<Notificacao, Long>
   @Query("SELECT n FROM Notificacao n WHERE n.lida = false ORDER BY n.dataEnvio DESC")
   Page<Notificacao> findLidaFalseOrderByDataEnvioDesc(Pageable pageable);
 
+  /**
+   * Busca notificações não lidas sem a consulta COUNT. O Spring Data busca size + 1 linhas para
+   * calcular se existe próxima página.
+   *
+   * @param pageable Paginação com limite configurável
+   *
+   * @return Fatia de notificações não lidas ordenadas da mais recente para a mais antiga
+   */
+  @Query("SELECT n FROM Notificacao n WHERE n.lida = false ORDER BY n.dataEnvio DESC")
+  Slice<Notificacao> findSliceLidaFalseOrderByDataEnvioDesc(Pageable pageable);
+
+  /**
+   * Total de notificações não lidas, enviado nos eventos do stream de notificações.
+   *
+   * @return quantidade de notificações não lidas
+   */
+  long countByLidaFalse();
+
   @Modifying
   @Query("update Notificacao n set n.lida = true, n.lidaPor = :user where n.denuncia.id = :denunciaId and n.lida = false")
   int marcarComoLidaPorDenuncia(@Param("denunciaId") Long denunciaId, @Param("user") String user);
@@ -2,6 +2,7 @@ package br.edu.ifpi.ifala.notificacao;
 
 import br.edu.ifpi.ifala.notificacao.dto.NotificacaoDto;
 import br.edu.ifpi.ifala.notificacao.dto.PaginatedNotificacaoDto;
+import br.edu.ifpi.ifala.shared.dto.SliceDto;
 import java.util.Optional;
 import org.springframework.data.domain.Pageable;
 
@@ -15,6 +16,14 @@ public interface NotificacaoService {
    */
   PaginatedNotificacaoDto listarNaoLidas(Pageable pageable);
 
+  /**
+   * Lista as notificações não lidas sem calcular o total (sem consulta COUNT).
+   * 
+   * @param pageable Parâmetros de paginação
+   * @return Fatia de notificações não lidas com indicação de próxima página
+   */
+  SliceDto<NotificacaoDto> listarNaoLidasSemTotal(Pageable pageable);
+
   /**
    * Marca uma notificação como lida e retorna o DTO.
    * 
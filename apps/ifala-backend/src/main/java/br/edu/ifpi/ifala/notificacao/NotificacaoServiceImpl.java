@@ -2,9 +2,11 @@ package br.edu.ifpi.ifala.notificacao;
 
 import br.edu.ifpi.ifala.notificacao.dto.NotificacaoDto;
 import br.edu.ifpi.ifala.notificacao.dto.PaginatedNotificacaoDto;
+import br.edu.ifpi.ifala.shared.dto.SliceDto;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,10 +15,13 @@ public class NotificacaoServiceImpl implements NotificacaoService {
 
   private final NotificacaoRepository repository;
   private final NotificacaoMapper mapper;
+  private final NotificacaoStream notificacaoStream;
 
-  public NotificacaoServiceImpl(NotificacaoRepository repository, NotificacaoMapper mapper) {
+  public NotificacaoServiceImpl(NotificacaoRepository repository, NotificacaoMapper mapper,
+      NotificacaoStream notificacaoStream) {
     this.repository = repository;
     this.mapper = mapper;
+    this.notificacaoStream = notificacaoStream;
   }
 
   @Override
@@ -26,12 +31,20 @@ public class NotificacaoServiceImpl implements NotificacaoService {
     return mapper.toPaginatedDto(page);
   }
 
+  @Override
+  public SliceDto<NotificacaoDto> listarNaoLidasSemTotal(final Pageable pageable) {
+    // Sem COUNT: usado pelo polling do painel, que só precisa saber se há mais itens
+    Slice<Notificacao> slice = repository.findSliceLidaFalseOrderByDataEnvioDesc(pageable);
+    return SliceDto.of(slice.map(mapper::toDto), null);
+  }
+
   @Override
   public Optional<NotificacaoDto> marcarComoLidaDto(Long id, String usuario) {
     return repository.findById(id).map(n -> {
       n.setLida(true);
       n.setLidaPor(usuario);
       Notificacao saved = repository.save(n);
+      notificacaoStream.publicarContador();
       return mapper.toDto(saved);
     });
   }
@@ -41,14 +54,18 @@ public class NotificacaoServiceImpl implements NotificacaoService {
     return repository.findById(id).map(n -> {
       n.setLida(true);
       n.setLidaPor(usuario);
-      return repository.save(n);
+      Notificacao saved = repository.save(n);
+      notificacaoStream.publicarContador();
+      return saved;
     });
   }
 
   @Override
   @Transactional
   public void marcarComoLidaPorDenuncia(Long denunciaId, String usuario) {
-    repository.marcarComoLidaPorDenuncia(denunciaId, usuario);
+    if (repository.marcarComoLidaPorDenuncia(denunciaId, usuario) > 0) {
+      notificacaoStream.publicarContador();
+    }
   }
 
   @Override
@@ -59,5 +76,6 @@ public class NotificacaoServiceImpl implements NotificacaoService {
   @Override
   public void deletar(Long id) {
     repository.deleteById(id);
+    notificacaoStream.publicarContador();
   }
 }
@@ -0,0 +1,234 @@
+package br.edu.ifpi.ifala.notificacao;
+
+import br.edu.ifpi.ifala.notificacao.dto.NotificacaoEventoDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Canal SSE de notificações para os admins autenticados. Substitui o polling de
+ * /api/v1/notificacoes: cada notificação persistida pelo {@link NotificacaoExternaServiceImpl} e
+ * cada mudança no total de não lidas gera um evento pequeno com o contador atualizado, e o painel
+ * só busca a página completa quando o admin abre a lista.
+ *
+ * <p>
+ * Os eventos recentes ficam em um buffer circular em memória. Cada evento tem o ID
+ * {@code <início do nó>-<sequência>}; ao reconectar com {@code Last-Event-ID}, o cliente recebe os
+ * eventos que perdeu. Se o ID for de outro processo (reinício do nó) ou mais antigo que o buffer, o
+ * cliente recebe um evento {@code reset} e deve recarregar a lista. Os eventos perdidos são
+ * reenviados antes de a conexão passar a receber eventos novos, sob o mesmo bloqueio que numera os
+ * eventos: o cliente os recebe em ordem e sem repetição.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Component
+public class NotificacaoStream {
+
+  private static final Logger log = LoggerFactory.getLogger(NotificacaoStream.class);
+
+  static final String EVENTO_NOTIFICACAO = "notificacao";
+  static final String EVENTO_CONTADOR = "contador";
+  static final String EVENTO_RESET = "reset";
+
+  private final NotificacaoRepository notificacaoRepository;
+  private final Set<SseEmitter> emissores = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger conexoesAbertas = new AtomicInteger();
+  private final Deque<Evento> recentes = new ArrayDeque<>();
+  private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+  private final int capacidadeBuffer;
+  private final int maxConexoes;
+  private final long timeoutMillis;
+  private long sequencia;
+
+  public NotificacaoStream(NotificacaoRepository notificacaoRepository,
+      MeterRegistry meterRegistry,
+      @Value("${sse.notificacoes.buffer-size:100}") int capacidadeBuffer,
+      @Value("${sse.notificacoes.max-conexoes:200}") int maxConexoes,
+      @Value("${sse.notificacoes.timeout-minutes:15}") long timeoutMinutes) {
+    this.notificacaoRepository = notificacaoRepository;
+    this.capacidadeBuffer = capacidadeBuffer;
+    this.maxConexoes = maxConexoes;
+    this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+    Gauge.builder("sse.conexoes", conexoesAbertas, AtomicInteger::get)
+        .tag("stream", "notificacoes-admin")
+        .description("Conexões SSE abertas no painel de notificações dos admins")
+        .register(meterRegistry);
+  }
+
+  private record Evento(String id, long sequencia, String nome, NotificacaoEventoDto dados) {
+
+    SseEmitter.SseEventBuilder montar() {
+      return SseEmitter.event().id(id).name(nome).data(dados);
+    }
+  }
+
+  /**
+   * Abre uma conexão SSE, reenviando os eventos perdidos desde {@code ultimoEventoId}.
+   *
+   * @param ultimoEventoId valor do cabeçalho Last-Event-ID, ou null na primeira conexão
+   * @return emissor registrado
+   * @throws ResponseStatusException 503 quando o limite de conexões do nó foi atingido
+   */
+  public SseEmitter conectar(String ultimoEventoId) {
+    if (conexoesAbertas.incrementAndGet() > maxConexoes) {
+      conexoesAbertas.decrementAndGet();
+      log.warn("Limite de {} conexões SSE de notificações atingido neste nó.", maxConexoes);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Limite de conexões em tempo real atingido. Tente novamente mais tarde.");
+    }
+
+    SseEmitter emissor = new SseEmitter(timeoutMillis);
+    emissor.onCompletion(() -> remover(emissor));
+    emissor.onTimeout(emissor::complete);
+    emissor.onError(e -> remover(emissor));
+
+    Long ultimaSequencia = sequenciaDoId(ultimoEventoId);
+    boolean reset;
+    long enviadoAte;
+    synchronized (recentes) {
+      reset = ultimoEventoId != null && (ultimaSequencia == null
+          || (!recentes.isEmpty() && ultimaSequencia < recentes.peekFirst().sequencia() - 1));
+      enviadoAte = ultimaSequencia != null && !reset ? ultimaSequencia : sequencia;
+    }
+
+    // Contador inicial lido fora do bloqueio; eventos publicados durante a leitura são reenviados
+    SseEmitter.SseEventBuilder inicial = null;
+    if (reset || ultimoEventoId == null) {
+      inicial = SseEmitter.event().name(reset ? EVENTO_RESET : EVENTO_CONTADOR)
+          .data(NotificacaoEventoDto.contador(notificacaoRepository.countByLidaFalse()));
+    }
+
+    // Antes do retorno, os envios ao emissor só ficam em memória e não seguram o bloqueio
+    synchronized (recentes) {
+      if (inicial != null) {
+        enviar(emissor, inicial);
+      }
+      for (Evento evento : recentes) {
+        if (evento.sequencia() > enviadoAte) {
+          enviar(emissor, evento.montar());
+        }
+      }
+      emissores.add(emissor);
+    }
+    return emissor;
+  }
+
+  /**
+   * Publica uma notificação recém-persistida. Dentro de uma transação, o evento é enviado apenas
+   * após o commit, já com o total de não lidas atualizado.
+   *
+   * @param notificacao notificação persistida
+   */
+  public void publicarNotificacao(Notificacao notificacao) {
+    Long id = notificacao.getId();
+    Long denunciaId = notificacao.getDenuncia() != null ? notificacao.getDenuncia().getId() : null;
+    aposCommit(() -> registrar(EVENTO_NOTIFICACAO,
+        new NotificacaoEventoDto(id, notificacao.getTipo(), denunciaId,
+            notificacao.getDataEnvio(), notificacaoRepository.countByLidaFalse())));
+  }
+
+  /**
+   * Publica o total atualizado de não lidas após notificações serem lidas ou removidas.
+   */
+  public void publicarContador() {
+    aposCommit(() -> registrar(EVENTO_CONTADOR,
+        NotificacaoEventoDto.contador(notificacaoRepository.countByLidaFalse())));
+  }
+
+  /**
+   * Envia um comentário a todas as conexões para que proxies não as encerrem por ociosidade.
+   */
+  @Scheduled(fixedDelayString = "${sse.notificacoes.heartbeat-seconds:25}",
+      initialDelayString = "${sse.notificacoes.heartbeat-seconds:25}", timeUnit = TimeUnit.SECONDS)
+  public void enviarHeartbeat() {
+    for (SseEmitter emissor : emissores) {
+      enviar(emissor, SseEmitter.event().comment("heartbeat"));
+    }
+  }
+
+  private void aposCommit(Runnable publicacao) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          publicacao.run();
+        }
+      });
+    } else {
+      publicacao.run();
+    }
+  }
+
+  private void registrar(String nome, NotificacaoEventoDto dados) {
+    Evento evento;
+    List<SseEmitter> destinos;
+    synchronized (recentes) {
+      sequencia++;
+      evento = new Evento(inicio + "-" + sequencia, sequencia, nome, dados);
+      recentes.addLast(evento);
+      if (recentes.size() > capacidadeBuffer) {
+        recentes.removeFirst();
+      }
+      // Conexões registradas depois deste ponto recebem o evento pelo reenvio do buffer
+      destinos = List.copyOf(emissores);
+    }
+    for (SseEmitter emissor : destinos) {
+      enviar(emissor, evento.montar());
+    }
+  }
+
+  /**
+   * Extrai a sequência de um ID de evento emitido por este processo.
+   *
+   * @return sequência, ou null se o ID for inválido ou de outro processo
+   */
+  private Long sequenciaDoId(String id) {
+    if (id == null) {
+      return null;
+    }
+    int separador = id.lastIndexOf('-');
+    if (separador < 0 || !inicio.equals(id.substring(0, separador))) {
+      return null;
+    }
+    try {
+      return Long.parseLong(id.substring(separador + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private void enviar(SseEmitter emissor, SseEmitter.SseEventBuilder evento) {
+    try {
+      emissor.send(evento);
+    } catch (IOException | IllegalStateException e) {
+      // Cliente desconectado; o callback de erro/conclusão remove o emissor
+      log.debug("Falha ao enviar evento SSE de notificação: {}", e.getMessage());
+      emissor.completeWithError(e);
+    }
+  }
+
+  private void remover(SseEmitter emissor) {
+    if (emissores.remove(emissor)) {
+      conexoesAbertas.decrementAndGet();
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package br.edu.ifpi.ifala.notificacao;
 
 import br.edu.ifpi.ifala.notificacao.dto.EmailRequest;
-import br.edu.ifpi.ifala.shared.exceptions.EmailServiceException;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -9,22 +8,26 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
-import br.edu.ifpi.ifala.autenticacao.Usuario;
-import br.edu.ifpi.ifala.autenticacao.UsuarioRepository;
-import java.util.Optional;
+import br.edu.ifpi.ifala.autenticacao.UsuarioIdentidade;
+import br.edu.ifpi.ifala.autenticacao.UsuarioIdentidadeCache;
+import java.util.Map;
 
 /**
  * Serviço para enviar e-mails via SMTP.
  *
+ * <p>
+ * Os métodos de {@link EmailService} não falam com o servidor SMTP: gravam o e-mail na caixa de
+ * saída (tabela email_outbox) na transação de quem chamou. Se a alteração de negócio sofrer
+ * rollback, o e-mail também é descartado; se for confirmada, o e-mail sobrevive a reinícios e é
+ * entregue pelo {@link EmailOutboxDespachante}, que chama {@link #entregar(EmailRequest)}.
+ * </p>
+ *
  * @author Phaola
  * @author Renê Morais
  */
@@ -33,26 +36,22 @@ public class SmtpEmailService implements EmailService {
 
   private static final Logger log = LoggerFactory.getLogger(SmtpEmailService.class);
   private final JavaMailSender mailSender;
-  private final UsuarioRepository usuarioRepository;
+  private final UsuarioIdentidadeCache usuarioIdentidadeCache;
+  private final EmailOutboxRepository emailOutboxRepository;
 
   @Value("${spring.mail.username:}")
   private String fromAddress;
 
-  public SmtpEmailService(JavaMailSender mailSender, UsuarioRepository usuarioRepository) {
+  public SmtpEmailService(JavaMailSender mailSender,
+      UsuarioIdentidadeCache usuarioIdentidadeCache,
+      EmailOutboxRepository emailOutboxRepository) {
     this.mailSender = mailSender;
-    this.usuarioRepository = usuarioRepository;
+    this.usuarioIdentidadeCache = usuarioIdentidadeCache;
+    this.emailOutboxRepository = emailOutboxRepository;
   }
 
-  /*
-   * LÓGICA: 1. O Java tenta enviar. Fica "preso" até atingir o timeout configurado no properties
-   * (ex: 60s). 2. Se der timeout, lança exceção. 3. O @Retryable captura. 4. Espera o delay do
-   * backoff. 5. Tenta de novo.
-   */
   @Override
-  @Async
-  @Retryable(retryFor = {Exception.class}, maxAttempts = 3,
-      backoff = @Backoff(delay = 5000, multiplier = 2))
-  @Transactional(readOnly = true)
+  @Transactional
   public void sendEmail(EmailRequest request) {
 
     // --- NOVO BLOQUEIO: Verifica se o usuário desativou notificações
@@ -73,35 +72,27 @@ public class SmtpEmailService implements EmailService {
     EmailRequest filteredRequest = new EmailRequest(toFiltered, ccFiltered, bccFiltered,
         request.subject(), request.body(), request.html());
 
-    log.info("[ASYNC] Tentando enviar e-mail (Assunto: '{}')", request.subject());
-    try {
-      executeSend(filteredRequest);
-      log.info("E-mail enviado com sucesso: '{}'", request.subject());
-    } catch (Exception e) {
-      log.warn(
-          "Erro no envio (Assunto: '{}'). O sistema tentará novamente se houver tentativas restantes. Erro: {}",
-          request.subject(), e.getMessage());
-      // Re-lança para ativar o Retry
-      throw new EmailServiceException("Erro de envio SMTP: " + e.getMessage());
-    }
+    enfileirar(filteredRequest);
   }
 
   /**
-   * Filtra lista de emails removendo usuários que desativaram notificações.
+   * Filtra lista de emails removendo usuários que desativaram notificações. As preferências são
+   * lidas do cache de identidade, com uma única consulta para os emails ainda não carregados.
    */
   private java.util.List<String> filterByNotificationPreference(java.util.List<String> emails) {
     if (emails == null || emails.isEmpty()) {
       return emails;
     }
 
+    Map<String, UsuarioIdentidade> usuarios = usuarioIdentidadeCache.buscarPorEmails(emails);
     java.util.List<String> filtered = new java.util.ArrayList<>();
     for (String email : emails) {
-      Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
+      UsuarioIdentidade usuario = usuarios.get(email);
 
-      if (usuarioOpt.isEmpty()) {
+      if (usuario == null) {
         // Se não encontrou usuário no banco, permite envio (pode ser email externo)
         filtered.add(email);
-      } else if (usuarioOpt.get().isReceberNotificacoes()) {
+      } else if (usuario.receberNotificacoes()) {
         // Usuário existe e quer receber notificações
         filtered.add(email);
       } else {
@@ -113,38 +104,28 @@ public class SmtpEmailService implements EmailService {
   }
 
   @Override
-  @Async
-  @Retryable(retryFor = {Exception.class}, maxAttempts = 3,
-      backoff = @Backoff(delay = 5000, multiplier = 2))
+  @Transactional
   public void sendPasswordResetEmail(String email, String subject, String body) {
-    log.info("[ASYNC] Tentando enviar reset de senha para: {}", email);
-    try {
-      executeSendRaw(email, subject, body);
-      log.info("Reset de senha enviado para: {}", email);
-    } catch (Exception e) {
-      log.warn("Erro ao enviar reset de senha para {}. Retentando... Erro: {}", email,
-          e.getMessage());
-      throw new EmailServiceException("Erro de envio SMTP:" + e.getMessage());
-    }
+    // Reset de senha não respeita a preferência de notificações: o usuário pediu o e-mail
+    enfileirar(new EmailRequest(List.of(email), null, null, subject, body, true));
   }
 
-  // --- Método Fallback (Quando desiste de vez) ---
-  @Recover
-  public void recoverEmail(Exception e, EmailRequest request) {
-    log.error(
-        "FALHA DEFINITIVA: Não foi possível enviar o e-mail '{}' após todas as tentativas e timeouts.",
+  private void enfileirar(EmailRequest request) {
+    EmailOutbox email = emailOutboxRepository.save(EmailOutbox.pendente(request));
+    log.info("E-mail {} gravado na caixa de saída (Assunto: '{}')", email.getId(),
         request.subject());
-    // Sugestão: Salvar no banco com status 'ERRO' para reprocessamento manual ou notificar admin
   }
 
-  @Recover
-  public void recoverPasswordReset(Exception e, String email, String subject, String body) {
-    log.error("FALHA DEFINITIVA: Não foi possível enviar reset de senha para '{}'.", email);
-  }
-
-  // --- Métodos Auxiliares Privados ---
+  // --- Entrega SMTP (usada pelo despachante da caixa de saída) ---
 
-  private void executeSend(EmailRequest request) throws MessagingException {
+  /**
+   * Entrega o e-mail ao servidor SMTP. Chamado pelo {@link EmailOutboxDespachante}; bloqueia até o
+   * envio terminar ou atingir o timeout configurado no properties.
+   *
+   * @param request e-mail a enviar
+   * @throws MessagingException se a mensagem não puder ser montada ou enviada
+   */
+  public void entregar(EmailRequest request) throws MessagingException {
     MimeMessage message = mailSender.createMimeMessage();
     MimeMessageHelper helper = new MimeMessageHelper(message,
         MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
@@ -166,16 +147,4 @@ public class SmtpEmailService implements EmailService {
 
     mailSender.send(message);
   }
-
-  private void executeSendRaw(String to, String subject, String body) throws MessagingException {
-    MimeMessage message = mailSender.createMimeMessage();
-    MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
-    helper.setTo(to);
-    helper.setSubject(subject);
-    helper.setText(body, true);
-    if (fromAddress != null && !fromAddress.isBlank()) {
-      helper.setFrom(fromAddress);
-    }
-    mailSender.send(message);
-  }
 }
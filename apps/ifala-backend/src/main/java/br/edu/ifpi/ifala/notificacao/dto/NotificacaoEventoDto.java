@@ -0,0 +1,21 @@
+package br.edu.ifpi.ifala.notificacao.dto;
+
+import br.edu.ifpi.ifala.notificacao.enums.TiposNotificacao;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * Evento leve enviado pelo stream de notificações dos admins. Eventos de nova notificação trazem o
+ * tipo, a denúncia e a data; eventos de contador trazem apenas o total de não lidas. A página
+ * completa continua sendo buscada em /api/v1/notificacoes quando o admin abre a lista.
+ *
+ * @author Renê Morais
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NotificacaoEventoDto(Long notificacaoId, TiposNotificacao tipo, Long denunciaId,
+    LocalDateTime dataEnvio, long naoLidas) {
+
+  public static NotificacaoEventoDto contador(long naoLidas) {
+    return new NotificacaoEventoDto(null, null, null, null, naoLidas);
+  }
+}
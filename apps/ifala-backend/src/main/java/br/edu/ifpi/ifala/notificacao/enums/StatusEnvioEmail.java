@@ -0,0 +1,15 @@
+package br.edu.ifpi.ifala.notificacao.enums;
+
+/**
+ * Situação de um e-mail na caixa de saída (tabela email_outbox).
+ *
+ * @author Renê Morais
+ */
+public enum StatusEnvioEmail {
+  /** Aguardando envio ou nova tentativa. */
+  PENDENTE,
+  /** Entregue ao servidor SMTP. */
+  ENVIADO,
+  /** Tentativas esgotadas. */
+  FALHOU
+}
@@ -0,0 +1,17 @@
+package br.edu.ifpi.ifala.notificacao.enums;
+
+/**
+ * Tipo de um evento na caixa de saída de notificações (tabela notificacao_outbox).
+ *
+ * @author Renê Morais
+ */
+public enum TipoEventoNotificacao {
+  /** Denúncia registrada: avisa os admins e o denunciante identificado. */
+  NOVA_DENUNCIA,
+  /** Mensagem do denunciante: avisa os admins. */
+  NOVA_MENSAGEM,
+  /** Mensagem de um admin: avisa o denunciante. */
+  RESPOSTA_ADMIN,
+  /** Mudança de status: avisa o denunciante. */
+  STATUS_ALTERADO
+}
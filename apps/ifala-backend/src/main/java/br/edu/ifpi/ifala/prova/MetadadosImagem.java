@@ -0,0 +1,233 @@
+package br.edu.ifpi.ifala.prova;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Remoção de metadados de imagens sem recodificar os pixels. Em JPEG são descartados os segmentos
+ * APP1 (EXIF e XMP, onde ficam as coordenadas GPS), APP13 (IPTC), os demais APPn e comentários;
+ * ficam o JFIF (APP0), o perfil de cor ICC (APP2) e o segmento Adobe (APP14), necessários para
+ * exibir as cores corretamente. Em PNG são descartados os chunks eXIf, tEXt, zTXt, iTXt e tIME.
+ *
+ * @author Renê Morais
+ */
+final class MetadadosImagem {
+
+  /** Valor EXIF de orientação que dispensa rotação. */
+  static final int ORIENTACAO_NORMAL = 1;
+
+  private static final byte[] ASSINATURA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A,
+      '\n'};
+  private static final Set<String> CHUNKS_PNG_REMOVIDOS =
+      Set.of("eXIf", "tEXt", "zTXt", "iTXt", "tIME");
+  private static final byte[] ICC_PROFILE = "ICC_PROFILE\0".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] EXIF = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+  private static final int TAG_ORIENTACAO = 0x0112;
+
+  private static final int SOI = 0xD8;
+  private static final int SOS = 0xDA;
+  private static final int EOI = 0xD9;
+  private static final int APP0 = 0xE0;
+  private static final int APP1 = 0xE1;
+  private static final int APP2 = 0xE2;
+  private static final int APP14 = 0xEE;
+  private static final int APP15 = 0xEF;
+  private static final int COM = 0xFE;
+
+  private MetadadosImagem() {
+  }
+
+  /**
+   * Copia o JPEG sem os segmentos de metadados. Tudo a partir do início dos dados da imagem (SOS) é
+   * copiado sem alteração.
+   *
+   * @param jpeg conteúdo do arquivo
+   * @return conteúdo sem metadados
+   * @throws IOException se a estrutura de segmentos for inválida
+   */
+  static byte[] removerJpeg(byte[] jpeg) throws IOException {
+    if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != SOI) {
+      throw new IOException("JPEG inválido");
+    }
+    ByteArrayOutputStream saida = new ByteArrayOutputStream(jpeg.length);
+    saida.write(jpeg, 0, 2);
+    int posicao = 2;
+    while (posicao + 4 <= jpeg.length) {
+      if ((jpeg[posicao] & 0xFF) != 0xFF) {
+        throw new IOException("Marcador JPEG esperado na posição " + posicao);
+      }
+      int marcador = jpeg[posicao + 1] & 0xFF;
+      if (marcador == 0xFF) {
+        // Bytes de preenchimento entre segmentos
+        posicao++;
+        continue;
+      }
+      if (marcador == SOS || marcador == EOI) {
+        saida.write(jpeg, posicao, jpeg.length - posicao);
+        return saida.toByteArray();
+      }
+      int fim = posicao + 2 + tamanhoSegmento(jpeg, posicao);
+      if (fim > jpeg.length) {
+        throw new IOException("Segmento JPEG truncado");
+      }
+      if (!removerSegmento(jpeg, posicao, marcador)) {
+        saida.write(jpeg, posicao, fim - posicao);
+      }
+      posicao = fim;
+    }
+    throw new IOException("JPEG sem dados de imagem");
+  }
+
+  /**
+   * Lê a orientação EXIF (tag 0x0112) do JPEG. Retorna {@link #ORIENTACAO_NORMAL} se não houver
+   * EXIF ou se ele estiver malformado.
+   */
+  static int orientacaoJpeg(byte[] jpeg) {
+    int posicao = 2;
+    while (posicao + 4 <= jpeg.length && (jpeg[posicao] & 0xFF) == 0xFF) {
+      int marcador = jpeg[posicao + 1] & 0xFF;
+      if (marcador == 0xFF) {
+        posicao++;
+        continue;
+      }
+      if (marcador == SOS || marcador == EOI) {
+        break;
+      }
+      int tamanho = tamanhoSegmento(jpeg, posicao);
+      if (marcador == APP1 && comecaCom(jpeg, posicao + 4, EXIF)) {
+        int orientacao = orientacaoTiff(jpeg, posicao + 4 + EXIF.length, posicao + 2 + tamanho);
+        return orientacao >= 1 && orientacao <= 8 ? orientacao : ORIENTACAO_NORMAL;
+      }
+      posicao += 2 + tamanho;
+    }
+    return ORIENTACAO_NORMAL;
+  }
+
+  /**
+   * Copia o PNG sem os chunks de texto, data e EXIF.
+   *
+   * @param png conteúdo do arquivo
+   * @return conteúdo sem metadados
+   * @throws IOException se a estrutura de chunks for inválida
+   */
+  static byte[] removerPng(byte[] png) throws IOException {
+    if (!comecaCom(png, 0, ASSINATURA_PNG)) {
+      throw new IOException("PNG inválido");
+    }
+    ByteArrayOutputStream saida = new ByteArrayOutputStream(png.length);
+    saida.write(png, 0, ASSINATURA_PNG.length);
+    int posicao = ASSINATURA_PNG.length;
+    while (posicao + 12 <= png.length) {
+      long tamanho = inteiro(png, posicao, false) & 0xFFFFFFFFL;
+      long fim = posicao + 12 + tamanho;
+      if (fim > png.length) {
+        throw new IOException("Chunk PNG truncado");
+      }
+      String tipo = new String(png, posicao + 4, 4, StandardCharsets.US_ASCII);
+      if (!CHUNKS_PNG_REMOVIDOS.contains(tipo)) {
+        saida.write(png, posicao, (int) (fim - posicao));
+      }
+      posicao = (int) fim;
+      if ("IEND".equals(tipo)) {
+        return saida.toByteArray();
+      }
+    }
+    throw new IOException("PNG sem chunk IEND");
+  }
+
+  /**
+   * Aplica a orientação EXIF aos pixels, para que a imagem continue em pé depois que o EXIF for
+   * descartado.
+   */
+  static BufferedImage orientar(BufferedImage imagem, int orientacao) {
+    if (orientacao <= ORIENTACAO_NORMAL || orientacao > 8) {
+      return imagem;
+    }
+    int w = imagem.getWidth();
+    int h = imagem.getHeight();
+    // Matriz (m00, m10, m01, m11, m02, m12) que leva o pixel armazenado à posição de exibição
+    AffineTransform transformacao = switch (orientacao) {
+      case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+      case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+      case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+      case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+      case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+      case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+      default -> new AffineTransform(0, -1, 1, 0, 0, w);
+    };
+    boolean troca = orientacao >= 5;
+    BufferedImage destino = new BufferedImage(troca ? h : w, troca ? w : h,
+        imagem.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB
+            : BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = destino.createGraphics();
+    try {
+      g.drawImage(imagem, transformacao, null);
+    } finally {
+      g.dispose();
+    }
+    return destino;
+  }
+
+  private static boolean removerSegmento(byte[] jpeg, int posicao, int marcador) {
+    if (marcador == COM) {
+      return true;
+    }
+    if (marcador < APP0 || marcador > APP15 || marcador == APP0 || marcador == APP14) {
+      return false;
+    }
+    return marcador != APP2 || !comecaCom(jpeg, posicao + 4, ICC_PROFILE);
+  }
+
+  private static int tamanhoSegmento(byte[] jpeg, int posicao) {
+    return ((jpeg[posicao + 2] & 0xFF) << 8) | (jpeg[posicao + 3] & 0xFF);
+  }
+
+  /**
+   * Procura a tag de orientação no primeiro IFD do cabeçalho TIFF que começa em {@code inicio}.
+   */
+  private static int orientacaoTiff(byte[] dados, int inicio, int limite) {
+    if (inicio + 8 > limite) {
+      return ORIENTACAO_NORMAL;
+    }
+    boolean littleEndian = dados[inicio] == 'I' && dados[inicio + 1] == 'I';
+    long deslocamento = inteiro(dados, inicio + 4, littleEndian) & 0xFFFFFFFFL;
+    long ifd = inicio + deslocamento;
+    if (ifd + 2 > limite) {
+      return ORIENTACAO_NORMAL;
+    }
+    int entradas = curto(dados, (int) ifd, littleEndian);
+    for (int i = 0; i < entradas; i++) {
+      int entrada = (int) ifd + 2 + i * 12;
+      if (entrada + 12 > limite) {
+        break;
+      }
+      if (curto(dados, entrada, littleEndian) == TAG_ORIENTACAO) {
+        return curto(dados, entrada + 8, littleEndian);
+      }
+    }
+    return ORIENTACAO_NORMAL;
+  }
+
+  private static int curto(byte[] dados, int posicao, boolean littleEndian) {
+    int a = dados[posicao] & 0xFF;
+    int b = dados[posicao + 1] & 0xFF;
+    return littleEndian ? (b << 8) | a : (a << 8) | b;
+  }
+
+  private static int inteiro(byte[] dados, int posicao, boolean littleEndian) {
+    int alto = curto(dados, littleEndian ? posicao + 2 : posicao, littleEndian);
+    int baixo = curto(dados, littleEndian ? posicao : posicao + 2, littleEndian);
+    return (alto << 16) | baixo;
+  }
+
+  private static boolean comecaCom(byte[] dados, int posicao, byte[] prefixo) {
+    return posicao >= 0 && posicao + prefixo.length <= dados.length && Arrays
+        .equals(dados, posicao, posicao + prefixo.length, prefixo, 0, prefixo.length);
+  }
+}
@@ -0,0 +1,318 @@
+package br.edu.ifpi.ifala.prova;
+
+import br.edu.ifpi.ifala.prova.evento.ProvasRegistradas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Gera versões reduzidas (previews) das imagens das provas, para que o painel mostre miniaturas sem
+ * baixar o arquivo original.
+ *
+ * <p>
+ * Cada preview é gravado ao lado do arquivo original como {@code <arquivo>-<tamanho>.jpg} (ou
+ * {@code .png} quando a imagem tem transparência). Como o original é endereçado por conteúdo,
+ * provas com os mesmos bytes compartilham os previews. A imagem é decodificada uma única vez, já
+ * com subamostragem para o maior tamanho configurado, e os demais tamanhos são derivados dela.
+ * </p>
+ *
+ * <p>
+ * A geração roda no pool limitado {@code previewTaskExecutor}, após o commit do upload. Provas que
+ * ficaram PENDENTE (fila cheia, reinício da aplicação ou provas anteriores a este recurso) são
+ * retomadas pela varredura periódica.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Service
+public class PreviewProvaService {
+
+  private static final Logger log = LoggerFactory.getLogger(PreviewProvaService.class);
+
+  /** Acima disso a imagem é recusada, mesmo com subamostragem (proteção contra "image bombs"). */
+  static final long LIMITE_PIXELS = 100_000_000L;
+  private static final int LOTE_VARREDURA = 100;
+  private static final String TIPO_JPEG = "image/jpeg";
+  private static final String TIPO_PNG = "image/png";
+
+  private final ProvaRepository provaRepository;
+  private final Executor previewTaskExecutor;
+  private final MeterRegistry meterRegistry;
+  private final List<Integer> tamanhos;
+  private final float qualidadeJpeg;
+  private final long esperaVarreduraMinutos;
+
+  public PreviewProvaService(ProvaRepository provaRepository,
+      @Qualifier("previewTaskExecutor") Executor previewTaskExecutor, MeterRegistry meterRegistry,
+      @Value("${app.upload.provas.preview.tamanhos:256,1024}") int[] tamanhos,
+      @Value("${app.upload.provas.preview.qualidade-jpeg:0.82}") float qualidadeJpeg,
+      @Value("${app.upload.provas.preview.espera-varredura-minutes:5}") long esperaMinutos) {
+    this.provaRepository = provaRepository;
+    this.previewTaskExecutor = previewTaskExecutor;
+    this.meterRegistry = meterRegistry;
+    this.tamanhos = Arrays.stream(tamanhos).filter(t -> t > 0).sorted().distinct().boxed()
+        .toList();
+    if (this.tamanhos.isEmpty()) {
+      throw new IllegalArgumentException("app.upload.provas.preview.tamanhos não pode ser vazio");
+    }
+    this.qualidadeJpeg = qualidadeJpeg;
+    this.esperaVarreduraMinutos = esperaMinutos;
+  }
+
+  /**
+   * Preview escolhido para uma requisição.
+   *
+   * @param caminho arquivo do preview
+   * @param tamanho maior lado, em pixels
+   * @param tipoMime tipo do arquivo
+   */
+  public record Preview(Path caminho, int tamanho, String tipoMime) {
+  }
+
+  /**
+   * Escolhe o menor preview gerado que atende ao tamanho pedido. Vazio quando não há preview
+   * adequado (ainda pendente, formato sem suporte ou imagem original menor que o pedido); nesse
+   * caso o original deve ser usado.
+   *
+   * @param prova prova consultada
+   * @param tamanhoDesejado maior lado desejado, em pixels
+   * @return preview a ser enviado, se houver
+   */
+  public Optional<Preview> escolher(Prova prova, int tamanhoDesejado) {
+    Path original = Paths.get(prova.getCaminhoArquivo());
+    return prova.tamanhosPreview().stream().filter(t -> t >= tamanhoDesejado).findFirst()
+        .map(t -> new Preview(caminhoPreview(original, t, prova.getPreviewTipoMime()), t,
+            prova.getPreviewTipoMime()));
+  }
+
+  @Async("previewTaskExecutor")
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void aoRegistrarProvas(ProvasRegistradas evento) {
+    evento.provaIds().forEach(this::gerar);
+  }
+
+  /**
+   * Reenvia ao pool as provas que continuam sem preview. A espera mínima evita disputar com a
+   * geração disparada logo após o upload.
+   */
+  @Scheduled(fixedDelayString = "${app.upload.provas.preview.varredura-minutes:10}",
+      timeUnit = TimeUnit.MINUTES)
+  public void gerarPendentes() {
+    List<Long> pendentes = provaRepository.findIdsComPreviewPendente(
+        LocalDateTime.now().minusMinutes(esperaVarreduraMinutos),
+        PageRequest.of(0, LOTE_VARREDURA));
+    if (!pendentes.isEmpty()) {
+      log.info("{} provas sem preview reenviadas para geração.", pendentes.size());
+    }
+    // Com a fila cheia as tarefas excedentes são descartadas e voltam na próxima varredura
+    pendentes.forEach(id -> previewTaskExecutor.execute(() -> gerar(id)));
+  }
+
+  /**
+   * Gera os previews de uma prova e registra o resultado. Previews já existentes no disco (de outra
+   * prova com o mesmo conteúdo) são reaproveitados.
+   */
+  void gerar(Long provaId) {
+    Optional<Prova> encontrada = provaRepository.findById(provaId);
+    if (encontrada.isEmpty() || encontrada.get().getPreviewStatus() != StatusPreview.PENDENTE) {
+      return;
+    }
+    Prova prova = encontrada.get();
+    Timer.Sample amostra = Timer.start(meterRegistry);
+    StatusPreview resultado = StatusPreview.FALHOU;
+    try {
+      resultado = gerarArquivos(prova);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Falha ao gerar previews da prova ID {}: {}", provaId, e.getMessage());
+      provaRepository.atualizarPreview(provaId, StatusPreview.FALHOU, null, null);
+    } finally {
+      amostra.stop(Timer.builder("provas.preview.geracao")
+          .description("Tempo de geração dos previews de uma prova")
+          .tag("resultado", resultado.name().toLowerCase()).register(meterRegistry));
+    }
+  }
+
+  private StatusPreview gerarArquivos(Prova prova) throws IOException {
+    Path original = Paths.get(prova.getCaminhoArquivo());
+    int maiorTamanho = tamanhos.get(tamanhos.size() - 1);
+    Decodificada decodificada = decodificar(original, maiorTamanho);
+    if (decodificada == null) {
+      log.info("Formato da prova ID {} ({}) sem suporte para preview.", prova.getId(),
+          prova.getTipoMime());
+      provaRepository.atualizarPreview(prova.getId(), StatusPreview.INDISPONIVEL, null, null);
+      return StatusPreview.INDISPONIVEL;
+    }
+
+    boolean alfa = decodificada.imagem().getColorModel().hasAlpha();
+    String tipoMime = alfa ? TIPO_PNG : TIPO_JPEG;
+    List<Integer> gerados = new ArrayList<>();
+    // Do maior para o menor: cada tamanho é reduzido a partir do anterior
+    BufferedImage atual = decodificada.imagem();
+    for (int i = tamanhos.size() - 1; i >= 0; i--) {
+      int tamanho = tamanhos.get(i);
+      // Não amplia imagens menores que o preview; o original serve nesse caso
+      if (decodificada.maiorLadoOriginal() <= tamanho) {
+        continue;
+      }
+      atual = redimensionar(atual, tamanho, alfa);
+      Path destino = caminhoPreview(original, tamanho, tipoMime);
+      if (!Files.exists(destino)) {
+        gravar(atual, destino, tipoMime);
+      }
+      gerados.add(0, tamanho);
+    }
+
+    provaRepository.atualizarPreview(prova.getId(), StatusPreview.PRONTO,
+        gerados.stream().map(String::valueOf).collect(Collectors.joining(",")), tipoMime);
+    log.debug("Previews {} gerados para a prova ID {}.", gerados, prova.getId());
+    return StatusPreview.PRONTO;
+  }
+
+  private record Decodificada(BufferedImage imagem, int maiorLadoOriginal) {
+  }
+
+  /**
+   * Decodifica a primeira imagem do arquivo com subamostragem, de modo que o resultado ainda tenha
+   * pelo menos {@code maiorTamanho} pixels no maior lado. Retorna null se nenhum leitor do
+   * javax.imageio reconhecer o formato.
+   */
+  private static Decodificada decodificar(Path arquivo, int maiorTamanho) throws IOException {
+    try (ImageInputStream entrada = ImageIO.createImageInputStream(arquivo.toFile())) {
+      if (entrada == null) {
+        throw new IOException("Arquivo não encontrado: " + arquivo);
+      }
+      Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+      if (!leitores.hasNext()) {
+        return null;
+      }
+      ImageReader leitor = leitores.next();
+      try {
+        leitor.setInput(entrada, true, true);
+        int largura = leitor.getWidth(0);
+        int altura = leitor.getHeight(0);
+        if ((long) largura * altura > LIMITE_PIXELS) {
+          throw new IOException("Imagem muito grande: " + largura + "x" + altura);
+        }
+        int maiorLado = Math.max(largura, altura);
+        int fator = Math.max(1, maiorLado / maiorTamanho);
+        ImageReadParam parametros = leitor.getDefaultReadParam();
+        parametros.setSourceSubsampling(fator, fator, 0, 0);
+        return new Decodificada(leitor.read(0, parametros), maiorLado);
+      } finally {
+        leitor.dispose();
+      }
+    }
+  }
+
+  /**
+   * Reduz a imagem para que o maior lado tenha {@code maiorLado} pixels. Reduções maiores que 2x
+   * são feitas em etapas de metade, para que a interpolação bilinear não perca detalhes.
+   */
+  static BufferedImage redimensionar(BufferedImage origem, int maiorLado, boolean alfa) {
+    BufferedImage atual = origem;
+    int ladoAtual = Math.max(origem.getWidth(), origem.getHeight());
+    do {
+      int proximoLado = Math.max(maiorLado, ladoAtual / 2);
+      double escala = (double) proximoLado / ladoAtual;
+      int largura = Math.max(1, (int) Math.round(atual.getWidth() * escala));
+      int altura = Math.max(1, (int) Math.round(atual.getHeight() * escala));
+      BufferedImage reduzida = new BufferedImage(largura, altura,
+          alfa ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = reduzida.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(atual, 0, 0, largura, altura, null);
+      } finally {
+        g.dispose();
+      }
+      atual = reduzida;
+      ladoAtual = proximoLado;
+    } while (ladoAtual > maiorLado);
+    return atual;
+  }
+
+  /**
+   * Grava o preview em um arquivo temporário no mesmo diretório e o move para o destino, para que
+   * um download concorrente nunca veja um arquivo pela metade.
+   */
+  private void gravar(BufferedImage imagem, Path destino, String tipoMime) throws IOException {
+    Path temporario =
+        destino.resolveSibling(destino.getFileName() + "." + System.nanoTime() + ".tmp");
+    try {
+      try (OutputStream saida = Files.newOutputStream(temporario);
+          ImageOutputStream imagemSaida = ImageIO.createImageOutputStream(saida)) {
+        if (TIPO_PNG.equals(tipoMime)) {
+          ImageIO.write(imagem, "png", imagemSaida);
+        } else {
+          gravarJpeg(imagem, imagemSaida);
+        }
+      }
+      try {
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporario);
+    }
+  }
+
+  private void gravarJpeg(BufferedImage imagem, ImageOutputStream saida) throws IOException {
+    ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+    try {
+      ImageWriteParam parametros = escritor.getDefaultWriteParam();
+      parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      parametros.setCompressionQuality(qualidadeJpeg);
+      escritor.setOutput(saida);
+      escritor.write(null, new IIOImage(imagem, null, null), parametros);
+    } finally {
+      escritor.dispose();
+    }
+  }
+
+  /**
+   * Caminho do preview de um arquivo: {@code <arquivo>-<tamanho>.jpg} ou {@code .png}.
+   */
+  static Path caminhoPreview(Path original, int tamanho, String tipoMime) {
+    String extensao = TIPO_PNG.equals(tipoMime) ? ".png" : ".jpg";
+    return original.resolveSibling(original.getFileName() + "-" + tamanho + extensao);
+  }
+}
@@ -7,12 +7,15 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Classe que representa uma prova/evidência anexada a uma denúncia. Armazena os metadados dos
  * arquivos enviados como evidência.
  *
  * @author Guilherme Alves
+ * @author Renê Morais
  */
 @Entity
 @Table(name = "provas")
@@ -42,16 +45,36 @@ public class Prova implements Serializable {
   @Positive(message = "O tamanho do arquivo deve ser positivo")
   private Long tamanhoBytes;
 
+  @Column(name = "tamanho_original_bytes", nullable = false)
+  private Long tamanhoOriginalBytes;
+
+  @Column(name = "caminho_original", length = 500)
+  private String caminhoOriginal;
+
   @Column(name = "tipo_mime", nullable = false, length = 100)
   @NotBlank(message = "O tipo MIME não pode ser vazio")
   private String tipoMime;
 
+  @Column(name = "blob_sha256", length = 64)
+  private String blobSha256;
+
   @Column(name = "criado_em", nullable = false, updatable = false)
   private LocalDateTime criadoEm;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "preview_status", nullable = false, length = 20)
+  private StatusPreview previewStatus;
+
+  @Column(name = "preview_tamanhos", length = 50)
+  private String previewTamanhos;
+
+  @Column(name = "preview_tipo_mime", length = 100)
+  private String previewTipoMime;
+
 
   public Prova() {
     this.criadoEm = LocalDateTime.now();
+    this.previewStatus = StatusPreview.PENDENTE;
   }
 
 
@@ -59,6 +82,14 @@ public class Prova implements Serializable {
     return id;
   }
 
+  public String getBlobSha256() {
+    return blobSha256;
+  }
+
+  public void setBlobSha256(String blobSha256) {
+    this.blobSha256 = blobSha256;
+  }
+
   public void setId(Long id) {
     this.id = id;
   }
@@ -95,6 +126,22 @@ public class Prova implements Serializable {
     this.tamanhoBytes = tamanhoBytes;
   }
 
+  public Long getTamanhoOriginalBytes() {
+    return tamanhoOriginalBytes;
+  }
+
+  public void setTamanhoOriginalBytes(Long tamanhoOriginalBytes) {
+    this.tamanhoOriginalBytes = tamanhoOriginalBytes;
+  }
+
+  public String getCaminhoOriginal() {
+    return caminhoOriginal;
+  }
+
+  public void setCaminhoOriginal(String caminhoOriginal) {
+    this.caminhoOriginal = caminhoOriginal;
+  }
+
   public String getTipoMime() {
     return tipoMime;
   }
@@ -111,6 +158,42 @@ public class Prova implements Serializable {
     this.criadoEm = criadoEm;
   }
 
+  public StatusPreview getPreviewStatus() {
+    return previewStatus;
+  }
+
+  public void setPreviewStatus(StatusPreview previewStatus) {
+    this.previewStatus = previewStatus;
+  }
+
+  public String getPreviewTamanhos() {
+    return previewTamanhos;
+  }
+
+  public void setPreviewTamanhos(String previewTamanhos) {
+    this.previewTamanhos = previewTamanhos;
+  }
+
+  public String getPreviewTipoMime() {
+    return previewTipoMime;
+  }
+
+  public void setPreviewTipoMime(String previewTipoMime) {
+    this.previewTipoMime = previewTipoMime;
+  }
+
+  /**
+   * Tamanhos de preview gerados para esta prova, em ordem crescente.
+   */
+  public List<Integer> tamanhosPreview() {
+    if (previewStatus != StatusPreview.PRONTO || previewTamanhos == null
+        || previewTamanhos.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(previewTamanhos.split(",")).map(String::trim).map(Integer::valueOf)
+        .sorted().toList();
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj)
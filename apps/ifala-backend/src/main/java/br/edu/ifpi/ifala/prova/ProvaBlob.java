@@ -0,0 +1,63 @@
+package br.edu.ifpi.ifala.prova;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Conteúdo de uma prova, gravado uma única vez por SHA-256 e compartilhado por todas as provas com
+ * os mesmos bytes. O contador de referências é mantido por trigger na tabela provas.
+ *
+ * @author Renê Morais
+ */
+@Entity
+@Table(name = "provas_blobs")
+public class ProvaBlob {
+
+  @Id
+  @Column(length = 64)
+  private String sha256;
+
+  @Column(nullable = false, length = 500)
+  private String caminho;
+
+  @Column(name = "tamanho_bytes", nullable = false)
+  private long tamanhoBytes;
+
+  @Column(nullable = false)
+  private int referencias;
+
+  @Column(name = "criado_em", nullable = false, updatable = false)
+  private LocalDateTime criadoEm;
+
+  @Column(name = "ultimo_uso_em", nullable = false)
+  private LocalDateTime ultimoUsoEm;
+
+  protected ProvaBlob() {}
+
+  public String getSha256() {
+    return sha256;
+  }
+
+  public String getCaminho() {
+    return caminho;
+  }
+
+  public long getTamanhoBytes() {
+    return tamanhoBytes;
+  }
+
+  public int getReferencias() {
+    return referencias;
+  }
+
+  public LocalDateTime getCriadoEm() {
+    return criadoEm;
+  }
+
+  public LocalDateTime getUltimoUsoEm() {
+    return ultimoUsoEm;
+  }
+}
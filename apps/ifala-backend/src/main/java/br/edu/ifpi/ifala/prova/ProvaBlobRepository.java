@@ -0,0 +1,55 @@
+package br.edu.ifpi.ifala.prova;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository dos blobs de provas.
+ *
+ * @author Renê Morais
+ */
+@Repository
+public interface ProvaBlobRepository extends JpaRepository<ProvaBlob, String> {
+
+  /**
+   * Cria a linha do blob, ou renova o último uso se ela já existir. Em ambos os casos a linha fica
+   * bloqueada até o fim da transação, o que impede a limpeza de removê-la (e ao arquivo) enquanto
+   * a prova que a referencia ainda não foi gravada.
+   *
+   * @param sha256 hash do conteúdo em hexadecimal
+   * @param caminho caminho relativo ao diretório de uploads
+   * @param tamanhoBytes tamanho do conteúdo
+   * @return quantidade de linhas afetadas
+   */
+  @Modifying
+  @Query(value = """
+      INSERT INTO provas_blobs (sha256, caminho, tamanho_bytes)
+      VALUES (:sha256, :caminho, :tamanhoBytes)
+      ON CONFLICT (sha256) DO UPDATE SET ultimo_uso_em = now()
+      """, nativeQuery = true)
+  int reservar(@Param("sha256") String sha256, @Param("caminho") String caminho,
+      @Param("tamanhoBytes") long tamanhoBytes);
+
+  /**
+   * Bloqueia um lote de blobs sem referências e sem uso desde {@code limite}. Blobs bloqueados por
+   * um upload em andamento são pulados.
+   *
+   * @param limite último uso máximo
+   * @param lote quantidade máxima de linhas
+   * @return blobs a remover
+   */
+  @Query(value = """
+      SELECT * FROM provas_blobs
+      WHERE referencias = 0 AND ultimo_uso_em < :limite
+      ORDER BY ultimo_uso_em
+      LIMIT :lote
+      FOR UPDATE SKIP LOCKED
+      """, nativeQuery = true)
+  List<ProvaBlob> reservarSemReferencias(@Param("limite") LocalDateTime limite,
+      @Param("lote") int lote);
+}
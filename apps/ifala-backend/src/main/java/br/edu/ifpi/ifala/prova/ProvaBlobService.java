@@ -0,0 +1,208 @@
+package br.edu.ifpi.ifala.prova;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Armazenamento das provas endereçado por conteúdo. Cada conteúdo distinto é gravado uma única vez
+ * em {@code blobs/<2 hex>/<2 hex>/<sha256>} dentro do diretório de uploads; provas com os mesmos
+ * bytes apontam para o mesmo arquivo.
+ *
+ * <p>
+ * A linha do blob é bloqueada antes de conferir se o arquivo existe, e a limpeza só remove arquivos
+ * de linhas que ela própria bloqueou. Assim um upload e a limpeza nunca decidem sobre o mesmo blob
+ * ao mesmo tempo.
+ * </p>
+ *
+ * <p>
+ * Se a transação do upload for desfeita depois de o arquivo ter sido movido, a linha do blob some
+ * junto e o arquivo ficaria fora do alcance da limpeza, que só percorre a tabela. Nesse caso a
+ * linha é recriada sem referências em uma transação própria, e a limpeza remove o arquivo depois
+ * do período de carência, com o mesmo bloqueio usado nos demais casos.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Service
+@Transactional
+public class ProvaBlobService {
+
+  private static final Logger log = LoggerFactory.getLogger(ProvaBlobService.class);
+  private static final String DIRETORIO_BLOBS = "blobs";
+  private static final String DIRETORIO_ORIGINAIS = "originais";
+  private static final int LOTE_LIMPEZA = 100;
+
+  private final ProvaBlobRepository provaBlobRepository;
+  private final TransactionTemplate novaTransacao;
+  private final Path baseUploadPath;
+  private final long carenciaHoras;
+  private final Counter deduplicados;
+
+  public ProvaBlobService(ProvaBlobRepository provaBlobRepository, MeterRegistry meterRegistry,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.upload.provas.base-path:/app/uploads/provas}") String baseUploadPath,
+      @Value("${app.upload.provas.blobs.carencia-horas:24}") long carenciaHoras) {
+    this.provaBlobRepository = provaBlobRepository;
+    this.novaTransacao = new TransactionTemplate(transactionManager);
+    this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.baseUploadPath = Paths.get(baseUploadPath);
+    this.carenciaHoras = carenciaHoras;
+    this.deduplicados = Counter.builder("provas.blobs.deduplicados")
+        .description("Uploads cujo conteúdo já estava armazenado").register(meterRegistry);
+  }
+
+  /**
+   * Garante que o conteúdo do arquivo temporário está armazenado e retorna o caminho do blob. Se o
+   * conteúdo já existir, o arquivo temporário é deixado para descarte. Deve rodar na transação que
+   * grava a prova, para que a linha do blob fique bloqueada até a prova referenciá-la.
+   *
+   * @param arquivo arquivo temporário com o hash já calculado
+   * @return caminho absoluto do blob
+   * @throws IOException se o arquivo não puder ser movido
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Path armazenar(ProvasTemporarias.Arquivo arquivo) throws IOException {
+    String sha256 = arquivo.sha256();
+    String caminhoRelativo = caminhoRelativo(sha256);
+    provaBlobRepository.reservar(sha256, caminhoRelativo, arquivo.tamanhoBytes());
+
+    Path destino = baseUploadPath.resolve(caminhoRelativo);
+    if (Files.exists(destino)) {
+      deduplicados.increment();
+      log.info("Conteúdo {} já armazenado; upload deduplicado.", abreviar(sha256));
+      return destino;
+    }
+    Files.createDirectories(destino.getParent());
+    try {
+      Files.move(arquivo.caminho(), destino, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(arquivo.caminho(), destino);
+    }
+    recuperarSeDesfeito(sha256, caminhoRelativo, arquivo.tamanhoBytes());
+    return destino;
+  }
+
+  /**
+   * Registra a recriação da linha do blob para o caso de a transação atual ser desfeita, deixando o
+   * arquivo recém-movido aos cuidados da limpeza.
+   */
+  private void recuperarSeDesfeito(String sha256, String caminhoRelativo, long tamanhoBytes) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_ROLLED_BACK) {
+          return;
+        }
+        try {
+          novaTransacao.executeWithoutResult(
+              t -> provaBlobRepository.reservar(sha256, caminhoRelativo, tamanhoBytes));
+          log.info("Upload do conteúdo {} desfeito; blob deixado para a limpeza.",
+              abreviar(sha256));
+        } catch (RuntimeException e) {
+          log.warn("Não foi possível registrar o blob {} de um upload desfeito: {}",
+              abreviar(sha256), e.getMessage());
+        }
+      }
+    });
+  }
+
+  /**
+   * Arquiva o arquivo enviado que foi substituído pela recompressão em
+   * {@code originais/<2 hex>/<2 hex>/<sha256><extensão>}. Originais não são servidos pela API nem
+   * removidos pela limpeza; envios idênticos compartilham o mesmo arquivo.
+   *
+   * @param original arquivo temporário como foi enviado
+   * @return caminho absoluto do original arquivado
+   * @throws IOException se o arquivo não puder ser movido
+   */
+  public Path arquivarOriginal(ProvasTemporarias.Arquivo original) throws IOException {
+    String sha256 = original.sha256();
+    Path destino = baseUploadPath.resolve(String.join("/", DIRETORIO_ORIGINAIS,
+        sha256.substring(0, 2), sha256.substring(2, 4), sha256 + original.extensao()));
+    if (Files.exists(destino)) {
+      return destino;
+    }
+    Files.createDirectories(destino.getParent());
+    try {
+      Files.move(original.caminho(), destino, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(original.caminho(), destino);
+    } catch (FileAlreadyExistsException e) {
+      // Outro upload com o mesmo conteúdo arquivou primeiro
+    }
+    return destino;
+  }
+
+  /**
+   * Remove os blobs que ficaram sem provas há mais tempo que o período de carência.
+   */
+  @Scheduled(fixedDelayString = "${app.upload.provas.blobs.limpeza-minutes:60}",
+      timeUnit = TimeUnit.MINUTES)
+  public void removerNaoReferenciados() {
+    List<ProvaBlob> blobs = provaBlobRepository
+        .reservarSemReferencias(LocalDateTime.now().minusHours(carenciaHoras), LOTE_LIMPEZA);
+    int removidos = 0;
+    for (ProvaBlob blob : blobs) {
+      try {
+        Path arquivo = baseUploadPath.resolve(blob.getCaminho());
+        removerPreviews(arquivo);
+        Files.deleteIfExists(arquivo);
+        provaBlobRepository.delete(blob);
+        removidos++;
+      } catch (IOException e) {
+        log.warn("Não foi possível remover o blob {}: {}", abreviar(blob.getSha256()),
+            e.getMessage());
+      }
+    }
+    if (removidos > 0) {
+      log.info("{} blobs de provas sem referências removidos.", removidos);
+    }
+  }
+
+  /**
+   * Remove os previews gravados ao lado do blob pelo {@link PreviewProvaService}.
+   */
+  private static void removerPreviews(Path arquivo) throws IOException {
+    if (!Files.isDirectory(arquivo.getParent())) {
+      return;
+    }
+    try (DirectoryStream<Path> previews =
+        Files.newDirectoryStream(arquivo.getParent(), arquivo.getFileName() + "-*")) {
+      for (Path preview : previews) {
+        Files.deleteIfExists(preview);
+      }
+    }
+  }
+
+  static String caminhoRelativo(String sha256) {
+    return String.join("/", DIRETORIO_BLOBS, sha256.substring(0, 2), sha256.substring(2, 4),
+        sha256);
+  }
+
+  private static String abreviar(String sha256) {
+    return sha256.substring(0, 12);
+  }
+}
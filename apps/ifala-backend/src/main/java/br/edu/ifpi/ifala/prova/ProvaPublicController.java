@@ -9,25 +9,48 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
  * Controller público para operações com provas. Permite download de provas associadas a denúncias.
  *
+ * <p>
+ * O conteúdo de uma prova nunca muda, então o download envia ETag forte (o SHA-256 do conteúdo) e
+ * Last-Modified, responde 304 para revalidações e atende requisições Range. Com
+ * {@code app.upload.provas.x-accel-redirect.enabled}, a resposta leva apenas os cabeçalhos e o
+ * header X-Accel-Redirect; o nginx lê o arquivo do volume compartilhado e o envia com sendfile, sem
+ * ocupar uma thread do servlet com a transferência.
+ * </p>
+ *
+ * <p>
+ * O endpoint de preview envia as versões reduzidas geradas pelo {@link PreviewProvaService}, com
+ * cache longo e imutável. Enquanto não há preview adequado, envia o original com o cache normal,
+ * para que o navegador volte a pedir e passe a receber o preview quando ele existir.
+ * </p>
+ *
  * @author Guilherme Alves
+ * @author Renê Morais
  */
 @RestController
 @RequestMapping("/api/v1/public/provas")
@@ -37,44 +60,194 @@ public class ProvaPublicController {
 
   private static final Logger log = LoggerFactory.getLogger(ProvaPublicController.class);
 
+  /** Conteúdo imutável por ID: pode ser reutilizado pelo navegador, mas não por proxies. */
+  private static final CacheControl CACHE_PROVA =
+      CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+  /** Um preview gerado nunca muda; a URL só passa a apontar para outro arquivo ao ser gerado. */
+  private static final CacheControl CACHE_PREVIEW =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+  private static final String X_ACCEL_REDIRECT = "X-Accel-Redirect";
+
   private final ProvaService provaService;
+  private final PreviewProvaService previewProvaService;
+  private final Path baseUploadPath;
+  private final boolean xAccelRedirect;
+  private final String xAccelPrefixo;
 
-  public ProvaPublicController(ProvaService provaService) {
+  public ProvaPublicController(ProvaService provaService, PreviewProvaService previewProvaService,
+      @Value("${app.upload.provas.base-path:/app/uploads/provas}") String baseUploadPath,
+      @Value("${app.upload.provas.x-accel-redirect.enabled:false}") boolean xAccelRedirect,
+      @Value("${app.upload.provas.x-accel-redirect.prefixo:/_provas/}") String xAccelPrefixo) {
     this.provaService = provaService;
+    this.previewProvaService = previewProvaService;
+    this.baseUploadPath = Paths.get(baseUploadPath).toAbsolutePath().normalize();
+    this.xAccelRedirect = xAccelRedirect;
+    this.xAccelPrefixo = xAccelPrefixo.endsWith("/") ? xAccelPrefixo : xAccelPrefixo + "/";
   }
 
   @GetMapping("/{provaId}")
   @Operation(summary = "Baixar uma prova específica",
-      description = "Retorna o arquivo de uma prova/evidência pelo seu ID")
+      description = "Retorna o arquivo de uma prova/evidência pelo seu ID. Suporta If-None-Match, "
+          + "If-Modified-Since e Range.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Arquivo encontrado e retornado"),
-      @ApiResponse(responseCode = "404", description = "Prova não encontrada", content = @Content)})
-  public ResponseEntity<Resource> downloadProva(
-      @Parameter(description = "ID da prova", required = true) @PathVariable Long provaId) {
+      @ApiResponse(responseCode = "206", description = "Intervalo solicitado em Range"),
+      @ApiResponse(responseCode = "304", description = "Arquivo não mudou desde a cópia do cliente",
+          content = @Content),
+      @ApiResponse(responseCode = "404", description = "Prova não encontrada", content = @Content),
+      @ApiResponse(responseCode = "416", description = "Intervalo fora do arquivo",
+          content = @Content)})
+  public ResponseEntity<?> downloadProva(
+      @Parameter(description = "ID da prova", required = true) @PathVariable Long provaId,
+      @RequestHeader HttpHeaders cabecalhos, WebRequest webRequest) {
 
     log.info("Requisição de download de prova ID: {}", provaId);
 
-    try {
-      Prova prova = provaService.buscarPorId(provaId);
-      Path caminhoArquivo = Paths.get(prova.getCaminhoArquivo());
+    Prova prova = provaService.buscarPorId(provaId);
+    return servir(Paths.get(prova.getCaminhoArquivo()), prova.getNomeArquivo(),
+        MediaType.parseMediaType(prova.getTipoMime()), etag(prova), ultimaModificacao(prova),
+        CACHE_PROVA, cabecalhos, webRequest);
+  }
+
+  @GetMapping("/{provaId}/preview")
+  @Operation(summary = "Baixar o preview de uma prova",
+      description = "Retorna a menor versão reduzida da imagem com pelo menos o tamanho pedido "
+          + "(maior lado, em pixels). Enquanto o preview não existe, ou se a imagem original for "
+          + "menor que o pedido, retorna o arquivo original.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Preview (ou original) retornado"),
+      @ApiResponse(responseCode = "304", description = "Arquivo não mudou desde a cópia do cliente",
+          content = @Content),
+      @ApiResponse(responseCode = "404", description = "Prova não encontrada", content = @Content)})
+  public ResponseEntity<?> previewProva(
+      @Parameter(description = "ID da prova", required = true) @PathVariable Long provaId,
+      @Parameter(description = "Maior lado desejado, em pixels")
+      @RequestParam(defaultValue = "256") int tamanho,
+      @RequestHeader HttpHeaders cabecalhos, WebRequest webRequest) {
 
-      if (!Files.exists(caminhoArquivo)) {
-        log.error("Arquivo não encontrado no sistema de arquivos para prova ID: {}", provaId);
-        throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-            "Arquivo não encontrado no servidor");
+    Prova prova = provaService.buscarPorId(provaId);
+    long ultimaModificacao = ultimaModificacao(prova);
+    return previewProvaService.escolher(prova, tamanho).<ResponseEntity<?>>map(preview -> {
+      String etagOriginal = etag(prova);
+      String etag = etagOriginal.substring(0, etagOriginal.length() - 1) + "-p"
+          + preview.tamanho() + "\"";
+      String nome = "preview-" + preview.tamanho() + "-" + prova.getNomeArquivo();
+      return servir(preview.caminho(), nome, MediaType.parseMediaType(preview.tipoMime()), etag,
+          ultimaModificacao, CACHE_PREVIEW, cabecalhos, webRequest);
+    }).orElseGet(() -> servir(Paths.get(prova.getCaminhoArquivo()), prova.getNomeArquivo(),
+        MediaType.parseMediaType(prova.getTipoMime()), etag(prova), ultimaModificacao,
+        CACHE_PROVA, cabecalhos, webRequest));
+  }
+
+  /**
+   * Envia um arquivo imutável: responde 304 quando o cliente já tem a versão atual, delega ao nginx
+   * com X-Accel-Redirect quando habilitado e atende Range.
+   */
+  private ResponseEntity<?> servir(Path arquivo, String nomeArquivo, MediaType tipo, String etag,
+      long ultimaModificacao, CacheControl cache, HttpHeaders cabecalhos, WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag, ultimaModificacao)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+          .lastModified(ultimaModificacao).cacheControl(cache).build();
+    }
+
+    Path caminhoArquivo = arquivo.toAbsolutePath().normalize();
+    HttpHeaders resposta = new HttpHeaders();
+    resposta.setETag(etag);
+    resposta.setLastModified(ultimaModificacao);
+    resposta.setCacheControl(cache);
+    resposta.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + nomeArquivo + "\"");
+
+    // O nginx atende o arquivo (com Range e sendfile); o corpo da resposta fica vazio
+    if (xAccelRedirect && caminhoArquivo.startsWith(baseUploadPath)) {
+      resposta.set(X_ACCEL_REDIRECT,
+          xAccelPrefixo + baseUploadPath.relativize(caminhoArquivo).toString().replace('\\', '/'));
+      return ResponseEntity.ok().headers(resposta).contentType(tipo).build();
+    }
+
+    if (!Files.exists(caminhoArquivo)) {
+      log.error("Arquivo não encontrado no sistema de arquivos: {}", caminhoArquivo);
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Arquivo não encontrado no servidor");
+    }
+    FileSystemResource resource = new FileSystemResource(caminhoArquivo);
+    resposta.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    if (cabecalhos.containsKey(HttpHeaders.RANGE)) {
+      long tamanho = tamanho(resource);
+      if (!rangeAplicavel(cabecalhos, etag, ultimaModificacao)) {
+        // If-Range não confere: arquivo inteiro. InputStreamResource evita que o Spring aplique o
+        // Range por conta própria.
+        return ResponseEntity.ok().headers(resposta).contentType(tipo).contentLength(tamanho)
+            .body(abrir(resource));
+      }
+      try {
+        List<ResourceRegion> regioes =
+            HttpRange.toResourceRegions(cabecalhos.getRange(), resource);
+        if (regioes.size() == 1) {
+          return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(resposta)
+              .contentType(tipo).body(regioes.get(0));
+        }
+        // multipart/byteranges: o conversor define o Content-Type da resposta
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(resposta).body(regioes);
+      } catch (IllegalArgumentException e) {
+        resposta.set(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(resposta)
+            .build();
       }
+    }
+
+    return ResponseEntity.ok().headers(resposta).contentType(tipo).body(resource);
+  }
 
-      Resource resource = new FileSystemResource(caminhoArquivo.toFile());
+  /**
+   * ETag forte: o SHA-256 do conteúdo. Provas anteriores ao armazenamento por conteúdo usam ID,
+   * tamanho e data de criação, que também nunca mudam.
+   */
+  private static String etag(Prova prova) {
+    if (prova.getBlobSha256() != null) {
+      return "\"" + prova.getBlobSha256() + "\"";
+    }
+    return "\"" + prova.getId() + "-" + prova.getTamanhoBytes() + "-"
+        + Long.toHexString(ultimaModificacao(prova)) + "\"";
+  }
 
-      return ResponseEntity.ok().contentType(MediaType.parseMediaType(prova.getTipoMime()))
-          .header(HttpHeaders.CONTENT_DISPOSITION,
-              "inline; filename=\"" + prova.getNomeArquivo() + "\"")
-          .body(resource);
+  private static long ultimaModificacao(Prova prova) {
+    // Datas HTTP têm precisão de segundos
+    return prova.getCriadoEm().atZone(ZoneId.systemDefault()).toInstant()
+        .truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+  }
 
-    } catch (ResponseStatusException e) {
-      throw e;
-    } catch (Exception e) {
-      log.error("Erro ao processar download da prova {}: {}", provaId, e.getMessage(), e);
+  /**
+   * Avalia If-Range: sem o cabeçalho, o Range vale; com uma ETag, ela precisa ser igual à atual
+   * (comparação forte); com uma data, ela precisa ser igual ao Last-Modified.
+   */
+  static boolean rangeAplicavel(HttpHeaders cabecalhos, String etag, long ultimaModificacao) {
+    String ifRange = cabecalhos.getFirst(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag);
+    }
+    try {
+      return cabecalhos.getFirstDate(HttpHeaders.IF_RANGE) == ultimaModificacao;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static long tamanho(FileSystemResource resource) {
+    try {
+      return resource.contentLength();
+    } catch (IOException e) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+          "Erro ao processar download");
+    }
+  }
+
+  private static InputStreamResource abrir(FileSystemResource resource) {
+    try {
+      return new InputStreamResource(resource.getInputStream());
+    } catch (IOException e) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
           "Erro ao processar download");
     }
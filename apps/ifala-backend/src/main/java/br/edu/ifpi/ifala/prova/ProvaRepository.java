@@ -1,7 +1,13 @@
 package br.edu.ifpi.ifala.prova;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,4 +25,29 @@ public interface ProvaRepository extends JpaRepository<Prova, Long> {
    * @return Lista de provas da denuncia
    */
   List<Prova> findByDenunciaId(Long denunciaId);
+
+  /**
+   * IDs das provas criadas antes do limite que ainda aguardam a geração de previews.
+   *
+   * @param limite data de criação máxima (evita disputar com a geração logo após o upload)
+   * @param pageable tamanho do lote
+   * @return IDs em ordem de criação
+   */
+  @Query("""
+      select p.id from Prova p
+      where p.previewStatus = br.edu.ifpi.ifala.prova.StatusPreview.PENDENTE
+        and p.criadoEm < :limite
+      order by p.criadoEm, p.id
+      """)
+  List<Long> findIdsComPreviewPendente(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update Prova p set p.previewStatus = :status, p.previewTamanhos = :tamanhos,
+        p.previewTipoMime = :tipoMime
+      where p.id = :id
+      """)
+  int atualizarPreview(@Param("id") Long id, @Param("status") StatusPreview status,
+      @Param("tamanhos") String tamanhos, @Param("tipoMime") String tipoMime);
 }
@@ -1,25 +1,33 @@
 package br.edu.ifpi.ifala.prova;
 
 import br.edu.ifpi.ifala.denuncia.Denuncia;
+import br.edu.ifpi.ifala.prova.evento.ProvasRegistradas;
 import br.edu.ifpi.ifala.prova.provaDTO.ProvaDto;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,7 +35,15 @@ import java.util.stream.Collectors;
  * Serviço gerencia o armazenamento de provas. Implementa as regras de negócio para upload,
  * validação e organização de arquivos.
  *
+ * <p>
+ * O conteúdo é armazenado pelo {@link ProvaBlobService}, endereçado pelo SHA-256 calculado na
+ * mesma leitura que grava o upload em disco. Após o commit, o {@link PreviewProvaService} gera as
+ * miniaturas das provas registradas. Com a recompressão habilitada, os arquivos passam pelo
+ * {@link RecompressaoProvaService} antes do cálculo do endereço do conteúdo.
+ * </p>
+ *
  * @author Guilherme Alves
+ * @author Renê Morais
  */
 @Service
 @Transactional
@@ -46,13 +62,23 @@ public class ProvaService {
   private static final DateTimeFormatter TIMESTAMP_FORMATTER =
       DateTimeFormatter.ofPattern("ddMMyyyyHHmmssSSS");
 
+  // Subdiretório dos uploads ainda não associados a uma denúncia
+  private static final String DIRETORIO_TEMPORARIO = ".tmp";
+
   @Value("${app.upload.provas.base-path:/app/uploads/provas}")
   private String baseUploadPath;
 
   private final ProvaRepository provaRepository;
+  private final ProvaBlobService provaBlobService;
+  private final RecompressaoProvaService recompressaoProvaService;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public ProvaService(ProvaRepository provaRepository) {
+  public ProvaService(ProvaRepository provaRepository, ProvaBlobService provaBlobService,
+      RecompressaoProvaService recompressaoProvaService, ApplicationEventPublisher eventPublisher) {
     this.provaRepository = provaRepository;
+    this.provaBlobService = provaBlobService;
+    this.recompressaoProvaService = recompressaoProvaService;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -62,6 +88,7 @@ public class ProvaService {
   public void init() {
     try {
       Files.createDirectories(Paths.get(baseUploadPath));
+      Files.createDirectories(Paths.get(baseUploadPath, DIRETORIO_TEMPORARIO));
       log.info("Diretório de uploads de provas criado/verificado:");
     } catch (IOException e) {
       log.error("Erro ao criar diretório de uploads: {}", e.getMessage(), e);
@@ -70,36 +97,77 @@ public class ProvaService {
   }
 
   /**
-   * Salva multiplas provas associadas a uma denúncia.
+   * Valida os arquivos enviados e os grava em um diretório temporário, sem acessar o banco. Pode
+   * rodar antes da denúncia existir, em paralelo com as demais etapas do recebimento. Se a gravação
+   * falhar no meio, os arquivos já gravados são removidos.
    *
-   * @param denuncia Denúncia à qual as provas serão associadas
    * @param arquivos Lista de arquivos enviados
-   * @return Lista de DTOs das provas salvas
+   * @return arquivos temporários, a serem associados com
+   *         {@link #salvarProvas(Denuncia, ProvasTemporarias)} e depois descartados
    */
-  public List<ProvaDto> salvarProvas(Denuncia denuncia, List<MultipartFile> arquivos) {
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public ProvasTemporarias prepararProvas(List<MultipartFile> arquivos) {
     if (arquivos == null || arquivos.isEmpty()) {
-      return List.of();
+      return ProvasTemporarias.vazio();
     }
 
     validarArquivos(arquivos);
 
-    // Criar diretório específico para esta denúncia
-    String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-    String nomeDiretorio = String.format("denuncia-%d-%s", denuncia.getId(), timestamp);
-    Path diretorioDenuncia = Paths.get(baseUploadPath, nomeDiretorio);
-
+    Path diretorioTemporario;
     try {
-      Files.createDirectories(diretorioDenuncia);
-      log.info("Diretório criado para denúncia ID: {}", denuncia.getId());
+      diretorioTemporario = Files
+          .createTempDirectory(Paths.get(baseUploadPath, DIRETORIO_TEMPORARIO), "upload-");
     } catch (IOException e) {
-      log.error("Erro ao criar diretório para denúncia {}: {}", denuncia.getId(), e.getMessage());
+      log.error("Erro ao criar diretório temporário de upload: {}", e.getMessage());
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
           "Erro ao criar diretório de armazenamento");
     }
 
+    List<ProvasTemporarias.Arquivo> temporarios = new ArrayList<>(arquivos.size());
+    try {
+      for (MultipartFile arquivo : arquivos) {
+        // Files.copy cria o arquivo com as permissões padrão, como no destino final
+        Path temporario = diretorioTemporario.resolve("prova-" + temporarios.size() + ".upload");
+        // O hash é calculado na mesma leitura que grava o arquivo
+        MessageDigest sha256 = novoSha256();
+        try (InputStream entrada = new DigestInputStream(arquivo.getInputStream(), sha256)) {
+          Files.copy(entrada, temporario);
+        }
+        temporarios.add(new ProvasTemporarias.Arquivo(temporario,
+            HexFormat.of().formatHex(sha256.digest()), obterExtensao(arquivo.getOriginalFilename()),
+            arquivo.getContentType(), Files.size(temporario)));
+      }
+      temporarios = recompressaoProvaService.processar(temporarios);
+    } catch (IOException e) {
+      log.error("Erro ao gravar arquivo temporário de upload: {}", e.getMessage(), e);
+      ProvasTemporarias.excluirDiretorio(diretorioTemporario);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao salvar arquivo");
+    } catch (RuntimeException e) {
+      ProvasTemporarias.excluirDiretorio(diretorioTemporario);
+      throw e;
+    }
+    log.info("{} arquivos de prova gravados temporariamente.", temporarios.size());
+    return new ProvasTemporarias(diretorioTemporario, temporarios);
+  }
+
+  /**
+   * Armazena o conteúdo das provas preparadas (sem duplicar conteúdo já existente) e as registra
+   * no banco.
+   *
+   * @param denuncia Denúncia à qual as provas serão associadas
+   * @param provas Arquivos preparados por {@link #prepararProvas(List)}
+   * @return Lista de DTOs das provas salvas
+   */
+  public List<ProvaDto> salvarProvas(Denuncia denuncia, ProvasTemporarias provas) {
+    if (provas == null || provas.isEmpty()) {
+      return List.of();
+    }
+
     // Processar cada arquivo
-    return arquivos.stream().map(arquivo -> salvarArquivo(denuncia, arquivo, diretorioDenuncia))
-        .collect(Collectors.toList());
+    List<ProvaDto> salvas = provas.arquivos().stream()
+        .map(arquivo -> salvarArquivo(denuncia, arquivo)).collect(Collectors.toList());
+    eventPublisher.publishEvent(new ProvasRegistradas(salvas.stream().map(ProvaDto::id).toList()));
+    return salvas;
   }
 
   /**
@@ -133,33 +201,28 @@ public class ProvaService {
   /**
    * Salva um arquivo individual no sistema de arquivos e no banco de dados.
    */
-  private ProvaDto salvarArquivo(Denuncia denuncia, MultipartFile arquivo, Path diretorioDenuncia) {
+  private ProvaDto salvarArquivo(Denuncia denuncia, ProvasTemporarias.Arquivo arquivo) {
     try {
-      // nome único para o arquivo
+      // nome único para o arquivo (usado no download); o conteúdo fica no blob
       String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-      String extensao = obterExtensao(arquivo.getOriginalFilename());
+      String extensao = arquivo.extensao();
       String nomeArquivo = String.format("prova-%d-%s%s", System.nanoTime(), timestamp, extensao);
 
-      Path caminhoCompleto = diretorioDenuncia.resolve(nomeArquivo).normalize();
-
-      // Validar que o caminho final está dentro do diretório esperado (prevenção contra path
-      // traversal)
-      if (!caminhoCompleto.startsWith(diretorioDenuncia.normalize())) {
-        log.error("Tentativa de path traversal detectada: {}", nomeArquivo);
-        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nome de arquivo inválido");
-      }
-
-      // Salvar arquivo no disco
-      Files.copy(arquivo.getInputStream(), caminhoCompleto);
+      Path caminhoCompleto = provaBlobService.armazenar(arquivo);
       log.info("Arquivo salvo: {}", nomeArquivo);
 
       // Criar entidade Prova
       Prova prova = new Prova();
       prova.setDenuncia(denuncia);
       prova.setNomeArquivo(nomeArquivo);
+      prova.setBlobSha256(arquivo.sha256());
       prova.setCaminhoArquivo(caminhoCompleto.toString());
-      prova.setTamanhoBytes(arquivo.getSize());
-      prova.setTipoMime(arquivo.getContentType());
+      prova.setTamanhoBytes(arquivo.tamanhoBytes());
+      prova.setTamanhoOriginalBytes(arquivo.tamanhoOriginalBytes());
+      if (arquivo.original() != null && recompressaoProvaService.isManterOriginais()) {
+        prova.setCaminhoOriginal(provaBlobService.arquivarOriginal(arquivo.original()).toString());
+      }
+      prova.setTipoMime(arquivo.tipoMime());
 
       // Salvar no banco
       Prova provaSalva = provaRepository.save(prova);
@@ -173,6 +236,13 @@ public class ProvaService {
     }
   }
 
+  private static MessageDigest novoSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+    }
+  }
 
   private String obterExtensao(String nomeOriginal) {
     if (nomeOriginal == null || nomeOriginal.isEmpty()) {
@@ -0,0 +1,101 @@
+package br.edu.ifpi.ifala.prova;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Arquivos de prova já validados e gravados em um diretório temporário, aguardando a denúncia ser
+ * registrada. O diretório temporário fica dentro do diretório de uploads, de modo que mover os
+ * arquivos para o destino final é apenas uma renomeação. Arquivos cujo conteúdo já estava
+ * armazenado não são movidos e saem junto com o diretório temporário.
+ *
+ * <p>
+ * {@link #descartar()} remove o diretório temporário e o que ainda estiver nele; deve ser chamado
+ * sempre, tanto quando o registro falha quanto depois que os arquivos foram movidos.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+public final class ProvasTemporarias {
+
+  private static final Logger log = LoggerFactory.getLogger(ProvasTemporarias.class);
+  private static final ProvasTemporarias VAZIO = new ProvasTemporarias(null, List.of());
+
+  /**
+   * Arquivo gravado no diretório temporário.
+   *
+   * @param caminho caminho do arquivo temporário
+   * @param sha256 hash SHA-256 do conteúdo, em hexadecimal
+   * @param extensao extensão sanitizada do nome original (com o ponto), ou vazio
+   * @param tipoMime tipo MIME informado no upload
+   * @param tamanhoBytes tamanho em bytes
+   * @param original arquivo enviado, quando este for o resultado da recompressão; senão null
+   */
+  public record Arquivo(Path caminho, String sha256, String extensao, String tipoMime,
+      long tamanhoBytes, Arquivo original) {
+
+    public Arquivo(Path caminho, String sha256, String extensao, String tipoMime,
+        long tamanhoBytes) {
+      this(caminho, sha256, extensao, tipoMime, tamanhoBytes, null);
+    }
+
+    /**
+     * Tamanho do arquivo como foi enviado, antes de uma eventual recompressão.
+     */
+    public long tamanhoOriginalBytes() {
+      return original != null ? original.tamanhoBytes() : tamanhoBytes;
+    }
+  }
+
+  private final Path diretorio;
+  private final List<Arquivo> arquivos;
+
+  ProvasTemporarias(Path diretorio, List<Arquivo> arquivos) {
+    this.diretorio = diretorio;
+    this.arquivos = List.copyOf(arquivos);
+  }
+
+  public static ProvasTemporarias vazio() {
+    return VAZIO;
+  }
+
+  public List<Arquivo> arquivos() {
+    return arquivos;
+  }
+
+  public boolean isEmpty() {
+    return arquivos.isEmpty();
+  }
+
+  /**
+   * Remove o diretório temporário e os arquivos que não foram movidos para o destino final.
+   */
+  public void descartar() {
+    excluirDiretorio(diretorio);
+  }
+
+  static void excluirDiretorio(Path diretorio) {
+    if (diretorio == null || !Files.exists(diretorio)) {
+      return;
+    }
+    try (Stream<Path> caminhos = Files.walk(diretorio)) {
+      caminhos.sorted(Comparator.reverseOrder()).forEach(caminho -> {
+        try {
+          Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+          log.warn("Não foi possível remover o arquivo temporário {}: {}", caminho,
+              e.getMessage());
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Não foi possível remover o diretório temporário {}: {}", diretorio,
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,324 @@
+package br.edu.ifpi.ifala.prova;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Etapa opcional de entrada das provas ({@code app.upload.provas.recompressao.enabled}) que reduz o
+ * espaço em disco e a banda dos downloads e remove metadados como a localização GPS das fotos.
+ *
+ * <p>
+ * BMP, imagens acima de {@code dimensao-maxima} ou de {@code tamanho-maximo-bytes} e JPEGs com
+ * orientação EXIF são decodificados uma única vez e recodificados sem metadados: fotos em JPEG e
+ * imagens sem perdas em PNG, passando para JPEG se o PNG ainda exceder o limite e não houver
+ * transparência. Os demais JPEG e PNG têm apenas os segmentos de metadados removidos, sem tocar
+ * nos pixels. GIF e WebP são mantidos como foram enviados, assim como qualquer arquivo que falhe
+ * no processamento: a etapa nunca impede o registro da denúncia.
+ * </p>
+ *
+ * <p>
+ * O processamento roda no pool {@code ingestaoTaskExecutor}, limitado ao número de processadores,
+ * para não competir com as threads das requisições. Com {@code manter-originais}, o arquivo
+ * enviado é arquivado ao lado do armazenamento das provas (ver
+ * {@link ProvaBlobService#arquivarOriginal(ProvasTemporarias.Arquivo)}).
+ * </p>
+ *
+ * @author Renê Morais
+ */
+@Service
+public class RecompressaoProvaService {
+
+  private static final Logger log = LoggerFactory.getLogger(RecompressaoProvaService.class);
+
+  private static final String FORMATO_JPEG = "jpeg";
+  private static final String FORMATO_PNG = "png";
+  private static final String FORMATO_BMP = "bmp";
+  private static final Map<String, String> FORMATOS = Map.of("image/jpeg", FORMATO_JPEG,
+      "image/jpg", FORMATO_JPEG, "image/png", FORMATO_PNG, "image/bmp", FORMATO_BMP);
+  private static final float QUALIDADE_MINIMA = 0.6f;
+  private static final float PASSO_QUALIDADE = 0.1f;
+
+  private final Executor ingestaoTaskExecutor;
+  private final MeterRegistry meterRegistry;
+  private final boolean habilitada;
+  private final boolean manterOriginais;
+  private final int dimensaoMaxima;
+  private final long tamanhoMaximoBytes;
+  private final float qualidadeJpeg;
+  private final Counter bytesEconomizados;
+
+  public RecompressaoProvaService(@Qualifier("ingestaoTaskExecutor") Executor ingestaoTaskExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${app.upload.provas.recompressao.enabled:false}") boolean habilitada,
+      @Value("${app.upload.provas.recompressao.manter-originais:true}") boolean manterOriginais,
+      @Value("${app.upload.provas.recompressao.dimensao-maxima:2560}") int dimensaoMaxima,
+      @Value("${app.upload.provas.recompressao.tamanho-maximo-bytes:2097152}") long tamanhoMaximo,
+      @Value("${app.upload.provas.recompressao.qualidade-jpeg:0.85}") float qualidadeJpeg) {
+    this.ingestaoTaskExecutor = ingestaoTaskExecutor;
+    this.meterRegistry = meterRegistry;
+    this.habilitada = habilitada;
+    this.manterOriginais = manterOriginais;
+    this.dimensaoMaxima = dimensaoMaxima;
+    this.tamanhoMaximoBytes = tamanhoMaximo;
+    this.qualidadeJpeg = qualidadeJpeg;
+    this.bytesEconomizados = Counter.builder("provas.recompressao.bytes.economizados")
+        .description("Diferença entre o tamanho enviado e o armazenado das provas")
+        .baseUnit("bytes").register(meterRegistry);
+  }
+
+  /**
+   * Indica se os arquivos enviados devem ser arquivados quando a recompressão os substituir.
+   */
+  public boolean isManterOriginais() {
+    return manterOriginais;
+  }
+
+  /**
+   * Processa os arquivos temporários em paralelo no pool de ingestão e aguarda o resultado. Cada
+   * arquivo alterado é gravado ao lado do temporário e referencia o enviado em
+   * {@link ProvasTemporarias.Arquivo#original()}.
+   *
+   * @param arquivos arquivos gravados por {@link ProvaService#prepararProvas(List)}
+   * @return arquivos a armazenar, na mesma ordem
+   */
+  public List<ProvasTemporarias.Arquivo> processar(List<ProvasTemporarias.Arquivo> arquivos) {
+    if (!habilitada || arquivos.isEmpty()) {
+      return arquivos;
+    }
+    List<CompletableFuture<ProvasTemporarias.Arquivo>> tarefas = arquivos.stream()
+        .map(arquivo -> CompletableFuture.supplyAsync(() -> processarArquivo(arquivo),
+            ingestaoTaskExecutor))
+        .toList();
+    return tarefas.stream().map(CompletableFuture::join).toList();
+  }
+
+  private ProvasTemporarias.Arquivo processarArquivo(ProvasTemporarias.Arquivo arquivo) {
+    String formato = arquivo.tipoMime() == null ? null
+        : FORMATOS.get(arquivo.tipoMime().toLowerCase());
+    if (formato == null) {
+      contar("inalterada");
+      return arquivo;
+    }
+    try {
+      byte[] conteudo = Files.readAllBytes(arquivo.caminho());
+      int orientacao = FORMATO_JPEG.equals(formato) ? MetadadosImagem.orientacaoJpeg(conteudo)
+          : MetadadosImagem.ORIENTACAO_NORMAL;
+      int maiorLado = maiorLado(conteudo);
+      boolean obrigatoria = FORMATO_BMP.equals(formato)
+          || orientacao != MetadadosImagem.ORIENTACAO_NORMAL || maiorLado > dimensaoMaxima;
+
+      Resultado resultado = null;
+      if (obrigatoria || conteudo.length > tamanhoMaximoBytes) {
+        resultado = recodificar(conteudo, formato, orientacao, maiorLado);
+      }
+      if (!obrigatoria && (resultado == null || resultado.conteudo().length >= conteudo.length)) {
+        // Recodificar não compensou: só os metadados saem
+        byte[] semMetadados = FORMATO_JPEG.equals(formato) ? MetadadosImagem.removerJpeg(conteudo)
+            : MetadadosImagem.removerPng(conteudo);
+        if (semMetadados.length == conteudo.length) {
+          contar("inalterada");
+          return arquivo;
+        }
+        resultado = new Resultado(semMetadados, formato, false);
+      }
+      return gravar(arquivo, resultado);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Prova {} mantida como enviada; falha na recompressão: {}",
+          arquivo.caminho().getFileName(), e.getMessage());
+      contar("falha");
+      return arquivo;
+    }
+  }
+
+  /**
+   * Conteúdo final de um arquivo.
+   *
+   * @param conteudo bytes a gravar
+   * @param formato formato de {@code conteudo} (jpeg ou png)
+   * @param recodificada se os pixels foram recodificados (ou apenas os metadados removidos)
+   */
+  private record Resultado(byte[] conteudo, String formato, boolean recodificada) {
+  }
+
+  private Resultado recodificar(byte[] conteudo, String formato, int orientacao, int maiorLado)
+      throws IOException {
+    // Subamostragem na leitura: a imagem decodificada já fica perto da dimensão máxima
+    BufferedImage imagem = decodificar(conteudo, Math.max(1, maiorLado / dimensaoMaxima));
+    boolean alfa = imagem.getColorModel().hasAlpha();
+    if (Math.max(imagem.getWidth(), imagem.getHeight()) > dimensaoMaxima) {
+      imagem = PreviewProvaService.redimensionar(imagem, dimensaoMaxima, alfa);
+    }
+    imagem = MetadadosImagem.orientar(imagem, orientacao);
+
+    if (FORMATO_JPEG.equals(formato)) {
+      return new Resultado(codificarJpeg(imagem), FORMATO_JPEG, true);
+    }
+    byte[] png = codificarPng(imagem);
+    if (!alfa && png.length > tamanhoMaximoBytes) {
+      return new Resultado(codificarJpeg(imagem), FORMATO_JPEG, true);
+    }
+    return new Resultado(png, FORMATO_PNG, true);
+  }
+
+  private static int maiorLado(byte[] conteudo) throws IOException {
+    try (ImageInputStream entrada =
+        ImageIO.createImageInputStream(new ByteArrayInputStream(conteudo))) {
+      ImageReader leitor = leitor(entrada);
+      try {
+        leitor.setInput(entrada, true, true);
+        int largura = leitor.getWidth(0);
+        int altura = leitor.getHeight(0);
+        if ((long) largura * altura > PreviewProvaService.LIMITE_PIXELS) {
+          throw new IOException("Imagem muito grande: " + largura + "x" + altura);
+        }
+        return Math.max(largura, altura);
+      } finally {
+        leitor.dispose();
+      }
+    }
+  }
+
+  private static BufferedImage decodificar(byte[] conteudo, int fator) throws IOException {
+    try (ImageInputStream entrada =
+        ImageIO.createImageInputStream(new ByteArrayInputStream(conteudo))) {
+      ImageReader leitor = leitor(entrada);
+      try {
+        leitor.setInput(entrada, true, true);
+        ImageReadParam parametros = leitor.getDefaultReadParam();
+        parametros.setSourceSubsampling(fator, fator, 0, 0);
+        return leitor.read(0, parametros);
+      } finally {
+        leitor.dispose();
+      }
+    }
+  }
+
+  private static ImageReader leitor(ImageInputStream entrada) throws IOException {
+    Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+    if (!leitores.hasNext()) {
+      throw new IOException("Formato de imagem não reconhecido");
+    }
+    return leitores.next();
+  }
+
+  /**
+   * Codifica em JPEG, reduzindo a qualidade em passos até caber em {@code tamanho-maximo-bytes} ou
+   * atingir a qualidade mínima.
+   */
+  private byte[] codificarJpeg(BufferedImage imagem) throws IOException {
+    BufferedImage rgb = paraRgb(imagem);
+    float qualidade = qualidadeJpeg;
+    byte[] jpeg = codificarJpeg(rgb, qualidade);
+    while (jpeg.length > tamanhoMaximoBytes && qualidade - PASSO_QUALIDADE >= QUALIDADE_MINIMA) {
+      qualidade -= PASSO_QUALIDADE;
+      jpeg = codificarJpeg(rgb, qualidade);
+    }
+    return jpeg;
+  }
+
+  private static byte[] codificarJpeg(BufferedImage imagem, float qualidade) throws IOException {
+    ImageWriter escritor = ImageIO.getImageWritersByFormatName(FORMATO_JPEG).next();
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    try (ImageOutputStream imagemSaida = ImageIO.createImageOutputStream(saida)) {
+      ImageWriteParam parametros = escritor.getDefaultWriteParam();
+      parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      parametros.setCompressionQuality(qualidade);
+      escritor.setOutput(imagemSaida);
+      escritor.write(null, new IIOImage(imagem, null, null), parametros);
+    } finally {
+      escritor.dispose();
+    }
+    return saida.toByteArray();
+  }
+
+  private static byte[] codificarPng(BufferedImage imagem) throws IOException {
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    if (!ImageIO.write(imagem, FORMATO_PNG, saida)) {
+      throw new IOException("Sem codificador PNG para a imagem");
+    }
+    return saida.toByteArray();
+  }
+
+  /**
+   * O codificador JPEG não aceita transparência nem paletas; converte para RGB quando necessário.
+   */
+  private static BufferedImage paraRgb(BufferedImage imagem) {
+    int tipo = imagem.getType();
+    if (tipo == BufferedImage.TYPE_INT_RGB || tipo == BufferedImage.TYPE_3BYTE_BGR
+        || tipo == BufferedImage.TYPE_BYTE_GRAY) {
+      return imagem;
+    }
+    BufferedImage rgb =
+        new BufferedImage(imagem.getWidth(), imagem.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = rgb.createGraphics();
+    try {
+      g.drawImage(imagem, 0, 0, Color.WHITE, null);
+    } finally {
+      g.dispose();
+    }
+    return rgb;
+  }
+
+  private ProvasTemporarias.Arquivo gravar(ProvasTemporarias.Arquivo arquivo, Resultado resultado)
+      throws IOException {
+    byte[] conteudo = resultado.conteudo();
+    Path destino =
+        arquivo.caminho().resolveSibling(arquivo.caminho().getFileName() + ".recomprimido");
+    Files.write(destino, conteudo);
+
+    String tipoMime = arquivo.tipoMime();
+    String extensao = arquivo.extensao();
+    if (!resultado.formato().equals(FORMATOS.get(tipoMime.toLowerCase()))) {
+      tipoMime = "image/" + resultado.formato();
+      extensao = FORMATO_JPEG.equals(resultado.formato()) ? ".jpg" : ".png";
+    }
+    contar(resultado.recodificada() ? "recodificada" : "metadados-removidos");
+    bytesEconomizados.increment(Math.max(0, arquivo.tamanhoBytes() - conteudo.length));
+    log.debug("Prova {} recomprimida: {} -> {} bytes.", arquivo.caminho().getFileName(),
+        arquivo.tamanhoBytes(), conteudo.length);
+    return new ProvasTemporarias.Arquivo(destino, sha256(conteudo), extensao, tipoMime,
+        conteudo.length, arquivo);
+  }
+
+  private void contar(String acao) {
+    Counter.builder("provas.recompressao").description("Provas processadas na entrada, por ação")
+        .tag("acao", acao).register(meterRegistry).increment();
+  }
+
+  private static String sha256(byte[] conteudo) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package br.edu.ifpi.ifala.prova;
+
+/**
+ * Situação da geração dos previews de uma prova.
+ *
+ * @author Renê Morais
+ */
+public enum StatusPreview {
+  /** Aguardando geração. */
+  PENDENTE,
+  /** Previews gerados (pode não haver nenhum se a imagem já for pequena). */
+  PRONTO,
+  /** Formato sem leitor no javax.imageio (por exemplo WebP). */
+  INDISPONIVEL,
+  /** Erro ao ler ou gravar a imagem. */
+  FALHOU
+}
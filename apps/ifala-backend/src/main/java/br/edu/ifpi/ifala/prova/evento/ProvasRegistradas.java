@@ -0,0 +1,14 @@
+package br.edu.ifpi.ifala.prova.evento;
+
+import java.util.List;
+
+/**
+ * Evento publicado quando provas são registradas para uma denúncia. É tratado após o commit, quando
+ * os arquivos já estão no armazenamento definitivo.
+ *
+ * @param provaIds IDs das provas registradas
+ *
+ * @author Renê Morais
+ */
+public record ProvasRegistradas(List<Long> provaIds) {
+}
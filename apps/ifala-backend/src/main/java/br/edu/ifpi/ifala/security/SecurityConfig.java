@@ -1,5 +1,9 @@
 package br.edu.ifpi.ifala.security;
 
+import br.edu.ifpi.ifala.security.ratelimit.RateLimitConfig;
+import br.edu.ifpi.ifala.security.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,6 +17,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.core.Ordered;
 
 /**
  * Configuração de segurança da aplicação. Define as regras de autenticação e autorização para as
@@ -51,6 +56,21 @@ public class SecurityConfig {
     return new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenBlacklistService);
   }
 
+  /**
+   * Registra o limite de requisições nas rotas públicas antes da cadeia do Spring Security, para
+   * que requisições acima do limite sejam recusadas sem nenhum acesso ao banco ou ao reCAPTCHA.
+   */
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitConfig config,
+      MeterRegistry meterRegistry) {
+    FilterRegistrationBean<RateLimitFilter> registro =
+        new FilterRegistrationBean<>(new RateLimitFilter(config, meterRegistry));
+    registro.addUrlPatterns("/api/v1/public/*");
+    registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    registro.setEnabled(config.isEnabled());
+    return registro;
+  }
+
   @Bean
   public PasswordEncoder passwordEncoder() {
     return new BCryptPasswordEncoder(8);
@@ -0,0 +1,127 @@
+package br.edu.ifpi.ifala.security.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configurações do limite de requisições dos endpoints públicos. Cada regra define as rotas a que
+ * se aplica, a chave do balde (IP do cliente ou token de acompanhamento) e quantas requisições são
+ * permitidas por período. Uma requisição que casa com várias regras precisa passar em todas.
+ *
+ * @author Renê Morais
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+  private boolean enabled = true;
+  // Quantidade de proxies reversos confiáveis (nginx) à frente da aplicação
+  private int proxiesConfiaveis = 1;
+  // Limite de baldes mantidos em memória (IPs e tokens distintos)
+  private long maxBaldes = 100_000;
+  private List<Regra> regras = new ArrayList<>();
+
+  /**
+   * Origem da chave do balde.
+   */
+  public enum Chave {
+    IP, TOKEN
+  }
+
+  /**
+   * Regra de limite aplicada a um conjunto de rotas. Os padrões seguem a sintaxe de PathPattern do
+   * Spring; regras por TOKEN usam a variável {@code {token}} do padrão.
+   */
+  public static class Regra {
+
+    private String nome;
+    private String metodo;
+    private List<String> padroes = new ArrayList<>();
+    private Chave chave = Chave.IP;
+    private long capacidade;
+    private Duration periodo;
+
+    public String getNome() {
+      return nome;
+    }
+
+    public void setNome(String nome) {
+      this.nome = nome;
+    }
+
+    public String getMetodo() {
+      return metodo;
+    }
+
+    public void setMetodo(String metodo) {
+      this.metodo = metodo;
+    }
+
+    public List<String> getPadroes() {
+      return padroes;
+    }
+
+    public void setPadroes(List<String> padroes) {
+      this.padroes = padroes;
+    }
+
+    public Chave getChave() {
+      return chave;
+    }
+
+    public void setChave(Chave chave) {
+      this.chave = chave;
+    }
+
+    public long getCapacidade() {
+      return capacidade;
+    }
+
+    public void setCapacidade(long capacidade) {
+      this.capacidade = capacidade;
+    }
+
+    public Duration getPeriodo() {
+      return periodo;
+    }
+
+    public void setPeriodo(Duration periodo) {
+      this.periodo = periodo;
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getProxiesConfiaveis() {
+    return proxiesConfiaveis;
+  }
+
+  public void setProxiesConfiaveis(int proxiesConfiaveis) {
+    this.proxiesConfiaveis = proxiesConfiaveis;
+  }
+
+  public long getMaxBaldes() {
+    return maxBaldes;
+  }
+
+  public void setMaxBaldes(long maxBaldes) {
+    this.maxBaldes = maxBaldes;
+  }
+
+  public List<Regra> getRegras() {
+    return regras;
+  }
+
+  public void setRegras(List<Regra> regras) {
+    this.regras = regras;
+  }
+}
@@ -0,0 +1,172 @@
+package br.edu.ifpi.ifala.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Limita a taxa de requisições dos endpoints públicos com baldes de tokens (Bucket4j) em memória,
+ * por IP do cliente e por token de acompanhamento. Roda antes do Spring Security e dos
+ * controllers, de modo que uma requisição rejeitada não chega a consultar o banco nem o reCAPTCHA.
+ *
+ * <p>
+ * Os baldes ficam em um cache Caffeine limitado em tamanho e que descarta baldes sem uso após o
+ * maior período configurado (um balde ocioso por esse tempo estaria cheio de novo). Acima do
+ * limite a resposta é 429 com {@code Retry-After} em segundos.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+  private static final String CORPO_REJEICAO =
+      "{\"error\": \"Muitas tentativas. Por favor, tente novamente mais tarde.\"}";
+
+  private final List<RegraCompilada> regras;
+  private final Cache<String, Bucket> baldes;
+  private final int proxiesConfiaveis;
+  private final MeterRegistry meterRegistry;
+
+  public RateLimitFilter(RateLimitConfig config, MeterRegistry meterRegistry) {
+    this.proxiesConfiaveis = config.getProxiesConfiaveis();
+    this.meterRegistry = meterRegistry;
+    PathPatternParser parser = PathPatternParser.defaultInstance;
+    this.regras = config.getRegras().stream()
+        .map(regra -> new RegraCompilada(regra,
+            regra.getPadroes().stream().map(parser::parse).toList()))
+        .toList();
+    Duration maiorPeriodo = config.getRegras().stream().map(RateLimitConfig.Regra::getPeriodo)
+        .max(Duration::compareTo).orElse(Duration.ofMinutes(1));
+    this.baldes = Caffeine.newBuilder().maximumSize(config.getMaxBaldes())
+        .expireAfterAccess(maiorPeriodo.toMillis(), TimeUnit.MILLISECONDS).build();
+  }
+
+  private record RegraCompilada(RateLimitConfig.Regra regra, List<PathPattern> padroes) {
+
+    Bandwidth banda() {
+      return Bandwidth.classic(regra.getCapacidade(),
+          Refill.greedy(regra.getCapacidade(), regra.getPeriodo()));
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+
+    PathContainer caminho = PathContainer.parsePath(request.getRequestURI()
+        .substring(request.getContextPath().length()));
+    String ip = null;
+
+    for (RegraCompilada compilada : regras) {
+      RateLimitConfig.Regra regra = compilada.regra();
+      if (regra.getMetodo() != null && !regra.getMetodo().equalsIgnoreCase(request.getMethod())) {
+        continue;
+      }
+      PathPattern.PathMatchInfo casamento = casar(compilada.padroes(), caminho);
+      if (casamento == null) {
+        continue;
+      }
+
+      String chave;
+      if (regra.getChave() == RateLimitConfig.Chave.TOKEN) {
+        chave = normalizarToken(casamento.getUriVariables());
+        if (chave == null) {
+          continue;
+        }
+      } else {
+        if (ip == null) {
+          ip = resolverIp(request);
+        }
+        chave = ip;
+      }
+
+      Bucket balde = baldes.get(regra.getNome() + "|" + chave,
+          k -> Bucket.builder().addLimit(compilada.banda()).build());
+      ConsumptionProbe consumo = balde.tryConsumeAndReturnRemaining(1);
+      if (!consumo.isConsumed()) {
+        long segundos = Math.max(1,
+            TimeUnit.NANOSECONDS.toSeconds(consumo.getNanosToWaitForRefill() + 999_999_999L));
+        log.warn("Limite de requisições '{}' atingido ({} {}).", regra.getNome(),
+            request.getMethod(), request.getRequestURI().replaceAll("[0-9a-fA-F-]{36}", "***"));
+        Counter.builder("rate_limit.rejeicoes").tag("regra", regra.getNome())
+            .register(meterRegistry).increment();
+        rejeitar(response, segundos);
+        return;
+      }
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  private static PathPattern.PathMatchInfo casar(List<PathPattern> padroes,
+      PathContainer caminho) {
+    for (PathPattern padrao : padroes) {
+      PathPattern.PathMatchInfo casamento = padrao.matchAndExtract(caminho);
+      if (casamento != null) {
+        return casamento;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Token da rota em forma canônica, para que variações de caixa não gerem baldes diferentes.
+   * Valores que não são UUID ficam sem balde próprio: a rota responde 400 sem acessar o banco.
+   */
+  private static String normalizarToken(Map<String, String> variaveis) {
+    String token = variaveis.get("token");
+    if (token == null || token.length() != 36) {
+      return null;
+    }
+    return token.toLowerCase();
+  }
+
+  /**
+   * IP do cliente. Atrás de {@code proxiesConfiaveis} proxies, o IP real é a entrada do
+   * X-Forwarded-For acrescentada pelo proxy mais externo; entradas à esquerda dela são enviadas
+   * pelo próprio cliente e não são confiáveis.
+   */
+  private String resolverIp(HttpServletRequest request) {
+    String encaminhado = request.getHeader("X-Forwarded-For");
+    if (proxiesConfiaveis > 0 && encaminhado != null && !encaminhado.isBlank()) {
+      String[] saltos = encaminhado.split(",");
+      int indice = Math.max(0, saltos.length - proxiesConfiaveis);
+      return saltos[indice].trim();
+    }
+    return request.getRemoteAddr();
+  }
+
+  private static void rejeitar(HttpServletResponse response, long segundos) throws IOException {
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    response.getWriter().write(CORPO_REJEICAO);
+  }
+}
@@ -1,5 +1,6 @@
 package br.edu.ifpi.ifala.security.recaptcha;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +16,44 @@ public class RecaptchaConfig {
 
   private String secret; // Chave secreta do reCAPTCHA
   private String url; // URL do reCAPTCHA
+  private Duration connectTimeout = Duration.ofSeconds(2); // Tempo máximo para abrir a conexão
+  private Duration readTimeout = Duration.ofSeconds(3); // Tempo máximo de espera pela resposta
+  // Decisão quando o Google não responde ou o circuito está aberto
+  private PoliticaIndisponibilidade politicaIndisponibilidade = PoliticaIndisponibilidade.REJEITAR;
+  private final Circuito circuito = new Circuito();
+
+  /**
+   * O que fazer com a denúncia quando não for possível validar o token: REJEITAR (fail-closed,
+   * padrão) recusa a denúncia; ACEITAR (fail-open) a aceita sem validação.
+   */
+  public enum PoliticaIndisponibilidade {
+    REJEITAR, ACEITAR
+  }
+
+  /**
+   * Configuração do disjuntor das chamadas ao Google.
+   */
+  public static class Circuito {
+
+    private int limiarFalhas = 5; // Falhas consecutivas para abrir o circuito
+    private Duration tempoAberto = Duration.ofSeconds(30); // Tempo até a chamada de teste
+
+    public int getLimiarFalhas() {
+      return limiarFalhas;
+    }
+
+    public void setLimiarFalhas(int limiarFalhas) {
+      this.limiarFalhas = limiarFalhas;
+    }
+
+    public Duration getTempoAberto() {
+      return tempoAberto;
+    }
+
+    public void setTempoAberto(Duration tempoAberto) {
+      this.tempoAberto = tempoAberto;
+    }
+  }
 
   public String getSecret() {
     return secret;
@@ -31,4 +70,32 @@ public class RecaptchaConfig {
   public void setUrl(String url) {
     this.url = url;
   }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(Duration readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  public PoliticaIndisponibilidade getPoliticaIndisponibilidade() {
+    return politicaIndisponibilidade;
+  }
+
+  public void setPoliticaIndisponibilidade(PoliticaIndisponibilidade politicaIndisponibilidade) {
+    this.politicaIndisponibilidade = politicaIndisponibilidade;
+  }
+
+  public Circuito getCircuito() {
+    return circuito;
+  }
 }
@@ -1,5 +1,6 @@
 package br.edu.ifpi.ifala.security.recaptcha;
 
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -7,29 +8,67 @@ import org.springframework.web.client.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import br.edu.ifpi.ifala.security.recaptcha.RecaptchaConfig.PoliticaIndisponibilidade;
 import br.edu.ifpi.ifala.security.recaptcha.recaptchaDTO.RecaptchaResponseDto;
+import br.edu.ifpi.ifala.shared.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.http.HttpClient;
 
 /**
  * Serviço para validação do reCAPTCHA do Google. Esta classe utiliza o RestClient para enviar
  * requisições ao serviço reCAPTCHA e validar tokens.
  *
+ * <p>
+ * As chamadas usam um HttpClient do JDK dedicado, que mantém as conexões abertas e as reutiliza
+ * (keep-alive), com timeouts de conexão e de resposta configuráveis. Falhas consecutivas abrem um
+ * {@link CircuitBreaker}; enquanto ele estiver aberto o Google não é chamado e a
+ * {@link PoliticaIndisponibilidade} configurada decide se o token é aceito ou recusado. A latência
+ * é registrada no timer {@code recaptcha.verificacao}, por resultado.
+ * </p>
+ *
  * @author Jhonatas G Ribeiro
+ * @author Renê Morais
  */
 @Service
 public class RecaptchaService {
 
   private final RestClient restClient;
   private final RecaptchaConfig recaptchaConfig;
+  private final CircuitBreaker circuito;
+  private final MeterRegistry meterRegistry;
+  private final Counter recusasCircuitoAberto;
   private static final Logger log = LoggerFactory.getLogger(RecaptchaService.class);
 
   /**
    * Construtor do serviço de validação do reCAPTCHA.
    *
-   * @param recaptchaConfig configuração contendo a URL e a chave secreta do reCAPTCHA
+   * @param recaptchaConfig configuração contendo a URL, a chave secreta, os timeouts e o disjuntor
+   * @param meterRegistry registro das métricas de latência e resultado
    */
-  public RecaptchaService(RecaptchaConfig recaptchaConfig) {
-    this.restClient = RestClient.create();
+  public RecaptchaService(RecaptchaConfig recaptchaConfig, MeterRegistry meterRegistry) {
+    this.restClient = criarRestClient(recaptchaConfig);
     this.recaptchaConfig = recaptchaConfig;
+    this.meterRegistry = meterRegistry;
+    this.circuito = new CircuitBreaker(recaptchaConfig.getCircuito().getLimiarFalhas(),
+        recaptchaConfig.getCircuito().getTempoAberto());
+    Gauge.builder("recaptcha.circuito.estado", circuito, c -> c.estado().ordinal())
+        .description("Estado do circuito do reCAPTCHA: 0 = fechado, 1 = meio aberto, 2 = aberto")
+        .register(meterRegistry);
+    this.recusasCircuitoAberto = Counter.builder("recaptcha.circuito.recusas")
+        .description("Validações não tentadas porque o circuito do reCAPTCHA estava aberto")
+        .register(meterRegistry);
+  }
+
+  private static RestClient criarRestClient(RecaptchaConfig config) {
+    // Cliente próprio: o pool de conexões e os timeouts não dependem do RestClient padrão
+    HttpClient httpClient =
+        HttpClient.newBuilder().connectTimeout(config.getConnectTimeout()).build();
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(config.getReadTimeout());
+    return RestClient.builder().requestFactory(requestFactory).build();
   }
 
   /**
@@ -51,50 +90,77 @@ public class RecaptchaService {
     formData.add("secret", recaptchaConfig.getSecret());
     formData.add("response", token);
 
+    if (!circuito.permiteChamada()) {
+      recusasCircuitoAberto.increment();
+      log.warn("⚠️ Circuito do reCAPTCHA aberto: validação não tentada.");
+      return resultadoIndisponivel();
+    }
+
+    Timer.Sample amostra = Timer.start(meterRegistry);
+    RecaptchaResponseDto dto;
     try {
       log.debug("📤 Enviando requisição para: {}", recaptchaConfig.getUrl());
-      RecaptchaResponseDto dto = restClient.post().uri(recaptchaConfig.getUrl()).body(formData)
-          .retrieve().body(RecaptchaResponseDto.class);
-
-      if (dto == null) {
-        log.warn("⚠️ Falha na validação do reCAPTCHA: resposta nula.");
-        return false;
-      }
-
-      // Log detalhado da resposta do Google
-      log.info("📥 Resposta do Google reCAPTCHA:");
-      log.info("   - success: {}", dto.isSuccess());
-      log.info("   - action: '{}'", dto.getAction());
-      log.info("   - score: {}", dto.getScore());
-      log.info("   - errorCodes: {}",
-          dto.getErrorCodes() != null ? String.join(", ", dto.getErrorCodes()) : "nenhum");
-
-      // Verificação específica para detectar uso de chaves v2 com código v3
-      if (dto.isSuccess() && dto.getAction() == null && dto.getScore() == 0.0) {
-        log.error("❌ ERRO CRÍTICO: Resposta indica chave reCAPTCHA v2 sendo usada com código v3!");
-        log.error("   Action e Score são null/0.0. Verifique:");
-        log.error("   1. Se a chave no Google Console está realmente configurada como v3");
-        log.error("   2. Se você está usando a Site Key correta (não a Secret Key)");
-        log.error("   3. Se o domínio está autorizado no Google Console");
-        return false;
-      }
-
-      boolean isSuccess = dto.isSuccess() && dto.getAction() != null
-          && dto.getAction().equalsIgnoreCase(actionEsperada) && dto.getScore() >= scoreMinimo;
-      if (isSuccess) {
-        log.info("✅ reCAPTCHA validado com sucesso: ação '{}' com score {}.", dto.getAction(),
-            dto.getScore());
-      } else {
-        log.warn("⚠️ Falha na validação do reCAPTCHA:");
-        log.warn("   - Ação esperada: '{}', recebida: '{}'", actionEsperada, dto.getAction());
-        log.warn("   - Score esperado: >= {}, recebido: {}", scoreMinimo, dto.getScore());
-        log.warn("   - Success: {}", dto.isSuccess());
-      }
-      return isSuccess;
-
+      dto = restClient.post().uri(recaptchaConfig.getUrl()).body(formData).retrieve()
+          .body(RecaptchaResponseDto.class);
+      circuito.registrarSucesso();
     } catch (Exception e) {
+      circuito.registrarFalha();
+      amostra.stop(timer("erro"));
       log.error("❌ Erro ao validar o reCAPTCHA: {}", e.getMessage());
+      return resultadoIndisponivel();
+    }
+
+    if (dto == null) {
+      amostra.stop(timer("reprovado"));
+      log.warn("⚠️ Falha na validação do reCAPTCHA: resposta nula.");
       return false;
     }
+
+    // Log detalhado da resposta do Google
+    log.info("📥 Resposta do Google reCAPTCHA:");
+    log.info("   - success: {}", dto.isSuccess());
+    log.info("   - action: '{}'", dto.getAction());
+    log.info("   - score: {}", dto.getScore());
+    log.info("   - errorCodes: {}",
+        dto.getErrorCodes() != null ? String.join(", ", dto.getErrorCodes()) : "nenhum");
+
+    // Verificação específica para detectar uso de chaves v2 com código v3
+    if (dto.isSuccess() && dto.getAction() == null && dto.getScore() == 0.0) {
+      log.error("❌ ERRO CRÍTICO: Resposta indica chave reCAPTCHA v2 sendo usada com código v3!");
+      log.error("   Action e Score são null/0.0. Verifique:");
+      log.error("   1. Se a chave no Google Console está realmente configurada como v3");
+      log.error("   2. Se você está usando a Site Key correta (não a Secret Key)");
+      log.error("   3. Se o domínio está autorizado no Google Console");
+      amostra.stop(timer("reprovado"));
+      return false;
+    }
+
+    boolean isSuccess = dto.isSuccess() && dto.getAction() != null
+        && dto.getAction().equalsIgnoreCase(actionEsperada) && dto.getScore() >= scoreMinimo;
+    amostra.stop(timer(isSuccess ? "aprovado" : "reprovado"));
+    if (isSuccess) {
+      log.info("✅ reCAPTCHA validado com sucesso: ação '{}' com score {}.", dto.getAction(),
+          dto.getScore());
+    } else {
+      log.warn("⚠️ Falha na validação do reCAPTCHA:");
+      log.warn("   - Ação esperada: '{}', recebida: '{}'", actionEsperada, dto.getAction());
+      log.warn("   - Score esperado: >= {}, recebido: {}", scoreMinimo, dto.getScore());
+      log.warn("   - Success: {}", dto.isSuccess());
+    }
+    return isSuccess;
+  }
+
+  private Boolean resultadoIndisponivel() {
+    if (recaptchaConfig.getPoliticaIndisponibilidade() == PoliticaIndisponibilidade.ACEITAR) {
+      log.warn("⚠️ reCAPTCHA indisponível: token aceito sem validação (política ACEITAR).");
+      return true;
+    }
+    return false;
+  }
+
+  private Timer timer(String resultado) {
+    return Timer.builder("recaptcha.verificacao").tag("resultado", resultado)
+        .description("Latência das validações de token no Google reCAPTCHA")
+        .register(meterRegistry);
   }
 }
@@ -0,0 +1,130 @@
+package br.edu.ifpi.ifala.shared.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Conjunto imutável de valores {@code long} armazenados em um array primitivo com endereçamento
+ * aberto (sondagem linear). Evita o boxing de {@code Set<Long>} e oferece {@link #contains(long)}
+ * em O(1) esperado, com um único array contíguo em memória.
+ *
+ * @author Renê Morais
+ */
+public final class ImmutableLongHashSet {
+
+  private static final ImmutableLongHashSet EMPTY = new ImmutableLongHashSet(new long[0]);
+
+  // 0 é usado como marcador de posição livre; sua presença é registrada à parte
+  private final long[] tabela;
+  private final int mascara;
+  private final boolean contemZero;
+  private final int tamanho;
+
+  private ImmutableLongHashSet(long[] valores) {
+    int capacidade = Integer.highestOneBit(Math.max(2, valores.length * 2 - 1)) << 1;
+    this.tabela = new long[capacidade];
+    this.mascara = capacidade - 1;
+
+    boolean zero = false;
+    int count = 0;
+    for (long valor : valores) {
+      if (valor == 0L) {
+        if (!zero) {
+          zero = true;
+          count++;
+        }
+        continue;
+      }
+      int i = indice(valor);
+      while (tabela[i] != 0L && tabela[i] != valor) {
+        i = (i + 1) & mascara;
+      }
+      if (tabela[i] == 0L) {
+        tabela[i] = valor;
+        count++;
+      }
+    }
+    this.contemZero = zero;
+    this.tamanho = count;
+  }
+
+  /**
+   * Retorna o conjunto vazio.
+   *
+   * @return conjunto sem elementos
+   */
+  public static ImmutableLongHashSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Cria um conjunto a partir de uma coleção de IDs. Valores nulos são ignorados.
+   *
+   * @param valores valores do conjunto
+   * @return conjunto imutável
+   */
+  public static ImmutableLongHashSet of(Collection<Long> valores) {
+    if (valores == null || valores.isEmpty()) {
+      return EMPTY;
+    }
+    return new ImmutableLongHashSet(
+        valores.stream().filter(v -> v != null).mapToLong(Long::longValue).toArray());
+  }
+
+  /**
+   * Verifica se o valor pertence ao conjunto.
+   *
+   * @param valor valor procurado
+   * @return true se o valor está no conjunto
+   */
+  public boolean contains(long valor) {
+    if (valor == 0L) {
+      return contemZero;
+    }
+    int i = indice(valor);
+    while (tabela[i] != 0L) {
+      if (tabela[i] == valor) {
+        return true;
+      }
+      i = (i + 1) & mascara;
+    }
+    return false;
+  }
+
+  public int size() {
+    return tamanho;
+  }
+
+  public boolean isEmpty() {
+    return tamanho == 0;
+  }
+
+  /**
+   * Retorna os valores do conjunto em um novo array ordenado.
+   *
+   * @return valores ordenados
+   */
+  public long[] toSortedArray() {
+    long[] valores = new long[tamanho];
+    int j = 0;
+    if (contemZero) {
+      valores[j++] = 0L;
+    }
+    for (long valor : tabela) {
+      if (valor != 0L) {
+        valores[j++] = valor;
+      }
+    }
+    Arrays.sort(valores);
+    return valores;
+  }
+
+  private int indice(long valor) {
+    // Espalhamento (fmix64 do MurmurHash3) para IDs sequenciais não formarem agrupamentos
+    long h = valor;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h & mascara;
+  }
+}
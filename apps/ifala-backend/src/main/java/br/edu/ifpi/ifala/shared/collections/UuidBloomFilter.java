@@ -0,0 +1,106 @@
+package br.edu.ifpi.ifala.shared.collections;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de UUIDs sobre um array de bits. Responde "talvez contenha" ou "certamente não
+ * contém": nunca há falso negativo, e a taxa de falsos positivos fica próxima da configurada
+ * enquanto o número de elementos não passar da capacidade.
+ *
+ * <p>
+ * Os bits ficam em um {@link AtomicLongArray}, de modo que {@link #adicionar(UUID)} pode ser
+ * chamado concorrentemente com {@link #podeConter(UUID)}. As posições dos k bits usam hashing
+ * duplo a partir das duas metades do UUID.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+public final class UuidBloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long totalBits;
+  private final int funcoesHash;
+
+  private UuidBloomFilter(long totalBits, int funcoesHash) {
+    this.totalBits = totalBits;
+    this.funcoesHash = funcoesHash;
+    this.bits = new AtomicLongArray((int) ((totalBits + 63) >>> 6));
+  }
+
+  /**
+   * Cria um filtro dimensionado para a capacidade e a taxa de falsos positivos desejadas.
+   *
+   * @param capacidade número esperado de elementos
+   * @param taxaFalsoPositivo taxa de falsos positivos aceitável (entre 0 e 1, exclusivos)
+   * @return filtro vazio
+   */
+  public static UuidBloomFilter criar(long capacidade, double taxaFalsoPositivo) {
+    if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+      throw new IllegalArgumentException("Taxa de falso positivo deve estar entre 0 e 1.");
+    }
+    long n = Math.max(1, capacidade);
+    double ln2 = Math.log(2);
+    long m = Math.max(64, (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (ln2 * ln2)));
+    int k = Math.max(1, (int) Math.round((double) m / n * ln2));
+    return new UuidBloomFilter(m, k);
+  }
+
+  /**
+   * Registra um UUID no filtro.
+   *
+   * @param valor UUID a registrar
+   */
+  public void adicionar(UUID valor) {
+    long h1 = fmix64(valor.getMostSignificantBits());
+    long h2 = fmix64(valor.getLeastSignificantBits()) | 1L;
+    for (int i = 0; i < funcoesHash; i++) {
+      long bit = Math.floorMod(h1 + i * h2, totalBits);
+      int palavra = (int) (bit >>> 6);
+      long mascara = 1L << bit;
+      long atual = bits.get(palavra);
+      while ((atual & mascara) == 0
+          && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+        atual = bits.get(palavra);
+      }
+    }
+  }
+
+  /**
+   * Indica se o UUID pode ter sido registrado.
+   *
+   * @param valor UUID consultado
+   * @return false se o UUID certamente não foi registrado; true se talvez tenha sido
+   */
+  public boolean podeConter(UUID valor) {
+    long h1 = fmix64(valor.getMostSignificantBits());
+    long h2 = fmix64(valor.getLeastSignificantBits()) | 1L;
+    for (int i = 0; i < funcoesHash; i++) {
+      long bit = Math.floorMod(h1 + i * h2, totalBits);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tamanho do filtro em bytes.
+   *
+   * @return bytes ocupados pelo array de bits
+   */
+  public long tamanhoEmBytes() {
+    return (long) bits.length() * Long.BYTES;
+  }
+
+  private static long fmix64(long valor) {
+    // Finalizador do MurmurHash3: espalha os bits antes do hashing duplo
+    long h = valor;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,18 @@
+package br.edu.ifpi.ifala.shared.dto;
+
+import java.util.List;
+
+/**
+ * DTO para respostas paginadas por cursor (keyset). Não informa totais: o cliente apenas segue o
+ * {@code nextCursor} enquanto {@code hasNext} for verdadeiro.
+ *
+ * @param <T> tipo dos itens da página
+ * @param items itens da página atual
+ * @param nextCursor cursor opaco para buscar a próxima página (null quando não há próxima)
+ * @param hasNext indica se existe próxima página
+ * @param size tamanho de página solicitado
+ *
+ * @author Renê Morais
+ */
+public record CursorPageDto<T>(List<T> items, String nextCursor, boolean hasNext, int size) {
+}
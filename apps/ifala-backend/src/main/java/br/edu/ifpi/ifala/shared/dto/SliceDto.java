@@ -0,0 +1,35 @@
+package br.edu.ifpi.ifala.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+
+/**
+ * DTO para respostas paginadas sem total exato (modo {@code withTotal=false}). A consulta busca uma
+ * linha a mais que o tamanho da página para informar {@code hasNext}, dispensando o COUNT.
+ *
+ * @param <T> tipo dos itens da página
+ * @param items itens da página atual
+ * @param currentPage número da página (base 0)
+ * @param pageSize tamanho de página solicitado
+ * @param hasNext indica se existe próxima página
+ * @param approximateTotal total aproximado (estatísticas do banco), quando disponível
+ *
+ * @author Renê Morais
+ */
+public record SliceDto<T>(List<T> items, int currentPage, int pageSize, boolean hasNext,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long approximateTotal) {
+
+  /**
+   * Cria o DTO a partir de um {@link Slice} do Spring Data.
+   *
+   * @param slice fatia retornada pela consulta
+   * @param approximateTotal total aproximado (pode ser null)
+   * @param <T> tipo dos itens
+   * @return DTO da fatia
+   */
+  public static <T> SliceDto<T> of(Slice<T> slice, Long approximateTotal) {
+    return new SliceDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+        approximateTotal);
+  }
+}
@@ -0,0 +1,92 @@
+package br.edu.ifpi.ifala.shared.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor (circuit breaker) para chamadas a serviços externos.
+ *
+ * <p>
+ * FECHADO: as chamadas passam; após {@code limiarFalhas} falhas consecutivas o circuito abre.
+ * ABERTO: as chamadas são recusadas sem tentar o serviço até passar {@code tempoAberto}.
+ * MEIO_ABERTO: uma única chamada de teste é liberada; sucesso fecha o circuito e falha o abre de
+ * novo. Quem chama consulta {@link #permiteChamada()} antes e informa o resultado com
+ * {@link #registrarSucesso()} ou {@link #registrarFalha()}.
+ * </p>
+ *
+ * @author Renê Morais
+ */
+public final class CircuitBreaker {
+
+  /** Estados do circuito. */
+  public enum Estado {
+    FECHADO, MEIO_ABERTO, ABERTO
+  }
+
+  private final int limiarFalhas;
+  private final long tempoAbertoNanos;
+  private final LongSupplier relogio;
+
+  private Estado estado = Estado.FECHADO;
+  private int falhasConsecutivas;
+  private long abertoEm;
+  private boolean chamadaDeTesteEmAndamento;
+
+  public CircuitBreaker(int limiarFalhas, Duration tempoAberto) {
+    this(limiarFalhas, tempoAberto, System::nanoTime);
+  }
+
+  CircuitBreaker(int limiarFalhas, Duration tempoAberto, LongSupplier relogio) {
+    if (limiarFalhas < 1) {
+      throw new IllegalArgumentException("O limiar de falhas deve ser ao menos 1.");
+    }
+    this.limiarFalhas = limiarFalhas;
+    this.tempoAbertoNanos = tempoAberto.toNanos();
+    this.relogio = relogio;
+  }
+
+  /**
+   * Indica se a chamada pode ser feita agora. Com o circuito aberto, libera a chamada de teste
+   * quando o tempo de abertura termina.
+   *
+   * @return true se a chamada deve ser tentada
+   */
+  public synchronized boolean permiteChamada() {
+    switch (estado) {
+      case FECHADO:
+        return true;
+      case ABERTO:
+        if (relogio.getAsLong() - abertoEm < tempoAbertoNanos) {
+          return false;
+        }
+        estado = Estado.MEIO_ABERTO;
+        chamadaDeTesteEmAndamento = true;
+        return true;
+      default:
+        if (chamadaDeTesteEmAndamento) {
+          return false;
+        }
+        chamadaDeTesteEmAndamento = true;
+        return true;
+    }
+  }
+
+  public synchronized void registrarSucesso() {
+    falhasConsecutivas = 0;
+    chamadaDeTesteEmAndamento = false;
+    estado = Estado.FECHADO;
+  }
+
+  public synchronized void registrarFalha() {
+    chamadaDeTesteEmAndamento = false;
+    falhasConsecutivas++;
+    if (estado == Estado.MEIO_ABERTO || falhasConsecutivas >= limiarFalhas) {
+      estado = Estado.ABERTO;
+      abertoEm = relogio.getAsLong();
+    }
+  }
+
+  public synchronized Estado estado() {
+    return estado;
+  }
+}
@@ -0,0 +1,75 @@
+-- ============================================================================
+-- Migration V15: Resumo de atividade mantido na tabela denuncias
+-- ============================================================================
+-- A listagem administrativa fazia LEFT JOIN com todos os acompanhamentos,
+-- GROUP BY e MAX(CASE ...) a cada página para descobrir se havia mensagens
+-- não lidas do denunciante. O custo crescia com o número de mensagens.
+--
+-- Estas colunas passam a ser mantidas pelo DenunciaService a cada novo
+-- acompanhamento e a cada marcação de mensagens como visualizadas, permitindo
+-- que a listagem filtre e ordene apenas pela tabela denuncias.
+-- ============================================================================
+
+-- ============================================================================
+-- 1. ADICIONAR COLUNAS DE RESUMO
+-- ============================================================================
+
+ALTER TABLE denuncias
+ADD COLUMN IF NOT EXISTS mensagens_nao_lidas_anonimo INTEGER NOT NULL DEFAULT 0,
+ADD COLUMN IF NOT EXISTS possui_resposta_admin BOOLEAN NOT NULL DEFAULT FALSE,
+ADD COLUMN IF NOT EXISTS ultimo_autor VARCHAR(255),
+ADD COLUMN IF NOT EXISTS ultima_atividade_em TIMESTAMP WITHOUT TIME ZONE;
+
+-- ============================================================================
+-- 2. POPULAR COLUNAS COM OS DADOS EXISTENTES
+-- ============================================================================
+
+UPDATE denuncias d
+SET mensagens_nao_lidas_anonimo = resumo.nao_lidas,
+    possui_resposta_admin = resumo.possui_admin
+FROM (
+    SELECT a.denuncia_id,
+           COUNT(*) FILTER (WHERE a.autor = 'ANONIMO' AND a.visualizado = FALSE) AS nao_lidas,
+           BOOL_OR(a.autor = 'ADMIN') AS possui_admin
+    FROM acompanhamentos a
+    GROUP BY a.denuncia_id
+) resumo
+WHERE resumo.denuncia_id = d.id;
+
+UPDATE denuncias d
+SET ultimo_autor = ultimo.autor,
+    ultima_atividade_em = ultimo.data_envio
+FROM (
+    SELECT DISTINCT ON (a.denuncia_id) a.denuncia_id, a.autor, a.data_envio
+    FROM acompanhamentos a
+    ORDER BY a.denuncia_id, a.data_envio DESC, a.id DESC
+) ultimo
+WHERE ultimo.denuncia_id = d.id;
+
+-- Denúncias sem acompanhamentos usam a própria data de criação
+UPDATE denuncias
+SET ultima_atividade_em = criado_em
+WHERE ultima_atividade_em IS NULL;
+
+-- ============================================================================
+-- 3. ÍNDICES PARA A LISTAGEM ADMINISTRATIVA
+-- ============================================================================
+-- A ordenação padrão é: não lidas primeiro, depois data de criação.
+-- O índice parcial cobre o subconjunto pequeno de denúncias com mensagens
+-- pendentes; o índice por data cobre o restante da varredura ordenada.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_denuncias_criado_em
+ON denuncias (criado_em DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_denuncias_nao_lidas_anonimo
+ON denuncias (criado_em DESC, id DESC)
+WHERE mensagens_nao_lidas_anonimo > 0;
+
+-- Comentários para documentação
+COMMENT ON COLUMN denuncias.mensagens_nao_lidas_anonimo IS 'Quantidade de mensagens do denunciante (ANONIMO) ainda não visualizadas por um admin';
+COMMENT ON COLUMN denuncias.possui_resposta_admin IS 'Indica se algum admin já enviou mensagem nesta denúncia';
+COMMENT ON COLUMN denuncias.ultimo_autor IS 'Autor (ADMIN ou ANONIMO) do acompanhamento mais recente';
+COMMENT ON COLUMN denuncias.ultima_atividade_em IS 'Data/hora do acompanhamento mais recente';
+
+ANALYZE denuncias;
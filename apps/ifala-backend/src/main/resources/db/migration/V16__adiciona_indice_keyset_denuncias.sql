@@ -0,0 +1,28 @@
+-- ============================================================================
+-- Migration V16: Índice para paginação por cursor (keyset) na listagem admin
+-- ============================================================================
+-- O modo cursor da listagem administrativa ordena por
+--   (fixada DESC, possui não lidas DESC, criado_em DESC, id DESC)
+-- e continua a partir da última chave retornada, sem OFFSET nem COUNT.
+--
+-- "fixada" depende do admin e não pode entrar no índice, então a listagem é
+-- feita em duas consultas em DenunciaRepository:
+--   1. fixadas: buscadas pelos IDs do DenunciaFixadaCache (poucas por admin);
+--   2. não fixadas: comparação de linha
+--        (não lida, criado_em, id) < (cursor)
+--      coberta por este índice, que precisa usar exatamente a mesma expressão
+--      da consulta nativa. O PostgreSQL percorre o índice a partir do cursor e
+--      para no LIMIT, sem ordenar; as fixadas saem por anti-join na unique
+--      (usuario_id, denuncia_id) de denuncia_fixada.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_denuncias_keyset_listagem
+ON denuncias (
+    (CASE WHEN mensagens_nao_lidas_anonimo > 0 THEN 1 ELSE 0 END) DESC,
+    criado_em DESC,
+    id DESC
+);
+
+COMMENT ON INDEX idx_denuncias_keyset_listagem IS 'Chave (não lida, criado_em, id) da paginação por cursor das denúncias não fixadas na listagem administrativa';
+
+ANALYZE denuncias;
@@ -0,0 +1,69 @@
+-- ============================================================================
+-- Migration V17: Busca textual paginada em uma única consulta
+-- ============================================================================
+-- Antes, a busca textual da listagem administrativa:
+-- 1. buscava TODOS os IDs em buscar_denuncias_por_texto (sem limite);
+-- 2. carregava todas as entidades com coleções para aplicar filtros/ordenação;
+-- 3. paginava em Java.
+-- Um termo amplo materializava a tabela inteira no heap da aplicação.
+--
+-- Esta função aplica filtros (status, categoria, admin acompanhando), a
+-- ordenação com fixadas primeiro e a paginação (LIMIT/OFFSET) no próprio
+-- PostgreSQL, devolvendo apenas os IDs da página e o total via window function.
+-- ============================================================================
+
+CREATE OR REPLACE FUNCTION buscar_denuncias_por_texto_paginado(
+    termo_busca TEXT,
+    p_usuario_id BIGINT,
+    p_status VARCHAR,
+    p_categoria VARCHAR,
+    p_admin_email VARCHAR,
+    p_limite INTEGER,
+    p_deslocamento INTEGER)
+RETURNS TABLE(denuncia_id BIGINT, total BIGINT) AS $$
+DECLARE
+    consulta tsquery;
+BEGIN
+    -- Retorna vazio se termo de busca for nulo ou vazio
+    IF termo_busca IS NULL OR TRIM(termo_busca) = '' THEN
+        RETURN;
+    END IF;
+
+    consulta := plainto_tsquery('portuguese', termo_busca);
+
+    RETURN QUERY
+    WITH encontrados AS (
+        -- Utiliza o índice: idx_denuncias_busca_fts
+        SELECT d.id
+        FROM denuncias d
+        WHERE d.busca_texto @@ consulta
+
+        UNION
+
+        -- Utiliza o índice: idx_acompanhamentos_busca_fts
+        SELECT a.denuncia_id
+        FROM acompanhamentos a
+        WHERE a.busca_texto @@ consulta
+    )
+    SELECT d.id, COUNT(*) OVER () AS total
+    FROM encontrados e
+    JOIN denuncias d ON d.id = e.id
+    LEFT JOIN denuncia_fixada df ON df.denuncia_id = d.id AND df.usuario_id = p_usuario_id
+    WHERE (p_status IS NULL OR d.status = p_status)
+      AND (p_categoria IS NULL OR d.categoria = p_categoria)
+      AND (p_admin_email IS NULL OR d.admin_acompanhando_email = p_admin_email)
+    ORDER BY
+        CASE WHEN df.fixada_em IS NOT NULL THEN 0 ELSE 1 END,
+        df.fixada_em DESC NULLS LAST,
+        d.criado_em DESC,
+        d.id DESC
+    LIMIT p_limite
+    OFFSET p_deslocamento;
+END;
+$$ LANGUAGE plpgsql STABLE;
+
+COMMENT ON FUNCTION buscar_denuncias_por_texto_paginado(TEXT, BIGINT, VARCHAR, VARCHAR, VARCHAR, INTEGER, INTEGER) IS
+'Busca textual paginada (V17). Aplica Full Text Search, filtros de status/categoria/admin,
+ordenação com denúncias fixadas do usuário primeiro e LIMIT/OFFSET.
+Retorna os IDs da página e, em cada linha, o total de resultados (COUNT(*) OVER ()).
+Uso: SELECT * FROM buscar_denuncias_por_texto_paginado(''termo'', 1, NULL, NULL, NULL, 12, 0);';
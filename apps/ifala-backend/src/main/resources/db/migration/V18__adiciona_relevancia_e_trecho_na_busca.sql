@@ -0,0 +1,103 @@
+-- ============================================================================
+-- Migration V18: Relevância (ts_rank) e trecho destacado (ts_headline) na busca
+-- ============================================================================
+-- A V12 já apontava ts_rank e ts_headline como próximos passos, mas a busca
+-- devolvia apenas IDs: os resultados eram ordenados por data e o admin
+-- precisava abrir cada denúncia para descobrir por que ela foi encontrada.
+--
+-- A função paginada passa a devolver, por linha:
+--   relevancia - maior ts_rank entre a descrição e as mensagens da denúncia;
+--   trecho     - ts_headline do texto que obteve essa relevância.
+--
+-- A relevância é calculada para todos os encontrados (é barata e entra na
+-- ordenação). O ts_headline, que precisa reprocessar o texto original, roda
+-- SOMENTE para as linhas da página atual, depois do LIMIT/OFFSET.
+--
+-- Ordenação: fixadas do usuário primeiro, depois relevância, depois data.
+-- ============================================================================
+
+-- O tipo de retorno muda, então a função precisa ser recriada
+DROP FUNCTION IF EXISTS buscar_denuncias_por_texto_paginado(TEXT, BIGINT, VARCHAR, VARCHAR, VARCHAR, INTEGER, INTEGER);
+
+CREATE OR REPLACE FUNCTION buscar_denuncias_por_texto_paginado(
+    termo_busca TEXT,
+    p_usuario_id BIGINT,
+    p_status VARCHAR,
+    p_categoria VARCHAR,
+    p_admin_email VARCHAR,
+    p_limite INTEGER,
+    p_deslocamento INTEGER)
+RETURNS TABLE(denuncia_id BIGINT, total BIGINT, relevancia REAL, trecho TEXT) AS $$
+DECLARE
+    consulta tsquery;
+BEGIN
+    -- Retorna vazio se termo de busca for nulo ou vazio
+    IF termo_busca IS NULL OR TRIM(termo_busca) = '' THEN
+        RETURN;
+    END IF;
+
+    consulta := plainto_tsquery('portuguese', termo_busca);
+
+    -- Colunas sempre qualificadas: os nomes de saída (total, relevancia...)
+    -- também são variáveis dentro da função
+    RETURN QUERY
+    WITH encontrados AS (
+        -- Utiliza o índice: idx_denuncias_busca_fts
+        SELECT d.id, ts_rank(d.busca_texto, consulta) AS rank, NULL::BIGINT AS acompanhamento_id
+        FROM denuncias d
+        WHERE d.busca_texto @@ consulta
+
+        UNION ALL
+
+        -- Utiliza o índice: idx_acompanhamentos_busca_fts
+        SELECT a.denuncia_id, ts_rank(a.busca_texto, consulta), a.id
+        FROM acompanhamentos a
+        WHERE a.busca_texto @@ consulta
+    ),
+    melhor AS (
+        -- Um resultado por denúncia: o texto de maior relevância (empate favorece a descrição)
+        SELECT DISTINCT ON (e.id) e.id, e.rank, e.acompanhamento_id
+        FROM encontrados e
+        ORDER BY e.id, e.rank DESC, e.acompanhamento_id NULLS FIRST
+    ),
+    pagina AS (
+        SELECT d.id,
+               d.descricao,
+               m.rank,
+               m.acompanhamento_id,
+               COUNT(*) OVER () AS qtd,
+               ROW_NUMBER() OVER (
+                   ORDER BY
+                       CASE WHEN df.fixada_em IS NOT NULL THEN 0 ELSE 1 END,
+                       df.fixada_em DESC NULLS LAST,
+                       m.rank DESC,
+                       d.criado_em DESC,
+                       d.id DESC) AS ordem
+        FROM melhor m
+        JOIN denuncias d ON d.id = m.id
+        LEFT JOIN denuncia_fixada df ON df.denuncia_id = d.id AND df.usuario_id = p_usuario_id
+        WHERE (p_status IS NULL OR d.status = p_status)
+          AND (p_categoria IS NULL OR d.categoria = p_categoria)
+          AND (p_admin_email IS NULL OR d.admin_acompanhando_email = p_admin_email)
+        ORDER BY ordem
+        LIMIT p_limite
+        OFFSET p_deslocamento
+    )
+    SELECT p.id,
+           p.qtd,
+           p.rank,
+           ts_headline('portuguese', COALESCE(a.mensagem, p.descricao, ''), consulta,
+               'StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, ShortWord=3, '
+               || 'MaxFragments=2, FragmentDelimiter=" ... "')
+    FROM pagina p
+    LEFT JOIN acompanhamentos a ON a.id = p.acompanhamento_id
+    ORDER BY p.ordem;
+END;
+$$ LANGUAGE plpgsql STABLE;
+
+COMMENT ON FUNCTION buscar_denuncias_por_texto_paginado(TEXT, BIGINT, VARCHAR, VARCHAR, VARCHAR, INTEGER, INTEGER) IS
+'Busca textual paginada (V18). Aplica Full Text Search, filtros de status/categoria/admin,
+ordenação com denúncias fixadas do usuário primeiro e depois por relevância, e LIMIT/OFFSET.
+Retorna os IDs da página, o total de resultados (COUNT(*) OVER ()), a relevância (ts_rank)
+e o trecho destacado (ts_headline com <mark>), calculado apenas para a página.
+Uso: SELECT * FROM buscar_denuncias_por_texto_paginado(''termo'', 1, NULL, NULL, NULL, 12, 0);';
@@ -0,0 +1,30 @@
+-- ============================================================================
+-- Migration V19: Contador de mensagens do admin não lidas pelo denunciante
+-- ============================================================================
+-- A consulta pública por token (polling do denunciante) fazia, a cada GET:
+-- 1. carga da denúncia com todos os acompanhamentos e provas;
+-- 2. UPDATE incondicional de acompanhamentos (visualizado = true);
+-- 3. EXISTS separado para saber se havia mensagens não lidas.
+--
+-- Com o contador na própria denúncia, a leitura pública é uma única consulta
+-- indexada pelo token. O UPDATE de confirmação de leitura só acontece quando
+-- o contador lido nessa mesma consulta é maior que zero; o polling em regime
+-- estável não gera escritas.
+-- ============================================================================
+
+ALTER TABLE denuncias
+ADD COLUMN IF NOT EXISTS mensagens_nao_lidas_admin INTEGER NOT NULL DEFAULT 0;
+
+UPDATE denuncias d
+SET mensagens_nao_lidas_admin = resumo.nao_lidas
+FROM (
+    SELECT a.denuncia_id, COUNT(*) AS nao_lidas
+    FROM acompanhamentos a
+    WHERE a.autor = 'ADMIN' AND a.visualizado = FALSE
+    GROUP BY a.denuncia_id
+) resumo
+WHERE resumo.denuncia_id = d.id;
+
+COMMENT ON COLUMN denuncias.mensagens_nao_lidas_admin IS 'Quantidade de mensagens de admin ainda não visualizadas pelo denunciante (ANONIMO)';
+
+ANALYZE denuncias;
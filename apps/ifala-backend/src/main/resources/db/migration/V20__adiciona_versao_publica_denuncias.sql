@@ -0,0 +1,18 @@
+-- ============================================================================
+-- Migration V20: Versão pública da denúncia para ETags
+-- ============================================================================
+-- A página de acompanhamento do denunciante consulta periodicamente
+-- /api/v1/public/denuncias/{token} e /{token}/acompanhamentos, recebendo o
+-- JSON completo a cada consulta mesmo sem nenhuma alteração.
+--
+-- A coluna versao é incrementada no próprio UPDATE (versao = versao + 1)
+-- sempre que algo visível ao denunciante muda (novo acompanhamento, status ou
+-- motivo de rejeição); o bloqueio da linha garante um valor distinto por
+-- commit. Os endpoints públicos usam o valor como ETag forte e respondem 304
+-- consultando apenas esta coluna pelo índice único do token.
+-- ============================================================================
+
+ALTER TABLE denuncias
+ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN denuncias.versao IS 'Contador incrementado a cada alteração visível ao denunciante; usado como ETag nos endpoints públicos';
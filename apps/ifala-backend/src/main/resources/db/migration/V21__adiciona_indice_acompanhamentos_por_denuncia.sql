@@ -0,0 +1,19 @@
+-- ============================================================================
+-- Migration V21: Índice para leitura incremental dos acompanhamentos
+-- ============================================================================
+-- As telas de acompanhamento (admin e pública) recarregavam o histórico inteiro
+-- a cada atualização. A leitura incremental busca apenas as mensagens após uma
+-- chave (data_envio, id), em ordem crescente e com limite:
+--   WHERE denuncia_id = ? AND (data_envio > ? OR (data_envio = ? AND id > ?))
+--   ORDER BY data_envio, id LIMIT ?
+--
+-- Este índice cobre o filtro por denúncia e a ordenação, de modo que cada
+-- consulta lê somente as linhas novas.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_acompanhamentos_denuncia_data_envio
+ON acompanhamentos (denuncia_id, data_envio, id);
+
+COMMENT ON INDEX idx_acompanhamentos_denuncia_data_envio IS 'Chave de ordenação da leitura incremental dos acompanhamentos de uma denúncia';
+
+ANALYZE acompanhamentos;
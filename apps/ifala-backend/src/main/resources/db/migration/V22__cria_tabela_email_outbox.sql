@@ -0,0 +1,59 @@
+-- ============================================================================
+-- Migration V22: Caixa de saída (outbox) de e-mails
+-- ============================================================================
+-- Os e-mails eram enviados por um executor em memória com @Retryable. Um
+-- reinício da aplicação ou um pico de envios (fila cheia) perdia mensagens.
+--
+-- Agora cada e-mail é gravado nesta tabela na mesma transação da alteração
+-- que o originou. O EmailOutboxDespachante reserva lotes de linhas pendentes
+-- com FOR UPDATE SKIP LOCKED (várias instâncias podem despachar em paralelo
+-- sem disputar as mesmas linhas), envia com concorrência limitada e registra
+-- tentativas e a próxima retentativa.
+-- ============================================================================
+
+-- ============================================================================
+-- 1. TABELA
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    destinatarios TEXT NOT NULL,
+    copia TEXT,
+    copia_oculta TEXT,
+    assunto TEXT NOT NULL,
+    corpo TEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT TRUE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    ultimo_erro TEXT,
+    criado_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    enviado_em TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT ck_email_outbox_status CHECK (status IN ('PENDENTE', 'ENVIADO', 'FALHOU'))
+);
+
+-- ============================================================================
+-- 2. ÍNDICES
+-- ============================================================================
+-- O despachante só lê linhas pendentes, ordenadas pela próxima tentativa.
+-- O índice parcial fica pequeno mesmo com muitos e-mails já enviados.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pendentes
+ON email_outbox (proxima_tentativa_em, id)
+WHERE status = 'PENDENTE';
+
+-- Limpeza periódica dos e-mails já enviados
+CREATE INDEX IF NOT EXISTS idx_email_outbox_enviado_em
+ON email_outbox (enviado_em)
+WHERE status = 'ENVIADO';
+
+-- Comentários para documentação
+COMMENT ON TABLE email_outbox IS 'E-mails a enviar, gravados na mesma transação da alteração que os originou';
+COMMENT ON COLUMN email_outbox.destinatarios IS 'Destinatários (to) separados por vírgula';
+COMMENT ON COLUMN email_outbox.status IS 'PENDENTE, ENVIADO ou FALHOU (tentativas esgotadas)';
+COMMENT ON COLUMN email_outbox.tentativas IS 'Quantidade de tentativas de envio já iniciadas';
+COMMENT ON COLUMN email_outbox.proxima_tentativa_em IS 'Quando a linha pode ser reservada novamente (também serve de prazo da reserva em andamento)';
+COMMENT ON COLUMN email_outbox.ultimo_erro IS 'Mensagem do último erro de envio';
+
+ANALYZE email_outbox;
@@ -0,0 +1,79 @@
+-- ============================================================================
+-- Migration V23: Armazenamento de provas endereçado por conteúdo
+-- ============================================================================
+-- Cada upload era copiado para um diretório novo por denúncia. A mesma imagem
+-- enviada em várias denúncias (comum em casos de assédio que viralizam) era
+-- gravada de novo a cada vez.
+--
+-- Agora o conteúdo é identificado pelo SHA-256, calculado durante a gravação
+-- do upload, e guardado uma única vez em blobs/<2 hex>/<2 hex>/<sha256>. A
+-- linha de provas referencia o blob; o contador de referências é mantido por
+-- triggers, inclusive nas exclusões em cascata de denúncias. Blobs sem
+-- referências são removidos periodicamente pela aplicação.
+--
+-- Provas antigas continuam com blob_sha256 nulo e o caminho original.
+-- ============================================================================
+
+-- ============================================================================
+-- 1. TABELA DE BLOBS
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS provas_blobs (
+    sha256 CHAR(64) PRIMARY KEY,
+    caminho VARCHAR(500) NOT NULL,
+    tamanho_bytes BIGINT NOT NULL,
+    referencias INTEGER NOT NULL DEFAULT 0,
+    criado_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    ultimo_uso_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT ck_provas_blobs_referencias CHECK (referencias >= 0)
+);
+
+-- Limpeza dos blobs sem referências
+CREATE INDEX IF NOT EXISTS idx_provas_blobs_sem_referencias
+ON provas_blobs (ultimo_uso_em)
+WHERE referencias = 0;
+
+-- ============================================================================
+-- 2. REFERÊNCIA EM PROVAS
+-- ============================================================================
+
+ALTER TABLE provas
+ADD COLUMN IF NOT EXISTS blob_sha256 CHAR(64)
+    REFERENCES provas_blobs (sha256);
+
+CREATE INDEX IF NOT EXISTS idx_provas_blob_sha256
+ON provas (blob_sha256);
+
+-- ============================================================================
+-- 3. CONTADOR DE REFERÊNCIAS
+-- ============================================================================
+
+CREATE OR REPLACE FUNCTION atualizar_referencias_prova_blob()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.blob_sha256 IS NOT NULL THEN
+        UPDATE provas_blobs
+        SET referencias = referencias + 1, ultimo_uso_em = now()
+        WHERE sha256 = NEW.blob_sha256;
+    END IF;
+    IF TG_OP IN ('DELETE', 'UPDATE') AND OLD.blob_sha256 IS NOT NULL THEN
+        UPDATE provas_blobs
+        SET referencias = referencias - 1, ultimo_uso_em = now()
+        WHERE sha256 = OLD.blob_sha256;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_provas_referencias_blob ON provas;
+CREATE TRIGGER trg_provas_referencias_blob
+AFTER INSERT OR DELETE OR UPDATE OF blob_sha256 ON provas
+FOR EACH ROW
+EXECUTE FUNCTION atualizar_referencias_prova_blob();
+
+-- Comentários para documentação
+COMMENT ON TABLE provas_blobs IS 'Conteúdo das provas, gravado uma única vez por SHA-256';
+COMMENT ON COLUMN provas_blobs.caminho IS 'Caminho relativo ao diretório de uploads (blobs/ab/cd/<sha256>)';
+COMMENT ON COLUMN provas_blobs.referencias IS 'Quantidade de linhas de provas que usam o blob (mantida por trigger)';
+COMMENT ON COLUMN provas_blobs.ultimo_uso_em IS 'Última gravação ou alteração de referências; protege blobs recém-enviados da limpeza';
+COMMENT ON COLUMN provas.blob_sha256 IS 'Blob com o conteúdo da prova (nulo para provas anteriores à V23)';
@@ -0,0 +1,31 @@
+-- ============================================================================
+-- Migration V24: Previews (miniaturas) das provas
+-- ============================================================================
+-- Para identificar uma prova o admin precisava baixar a imagem original
+-- (até 20MB por denúncia). Após o upload, o PreviewProvaService gera versões
+-- reduzidas (por padrão 256px e 1024px no maior lado), gravadas ao lado do
+-- arquivo original, e registra o resultado nestas colunas.
+--
+-- Provas existentes ficam PENDENTE e são processadas pela varredura periódica.
+-- ============================================================================
+
+ALTER TABLE provas
+ADD COLUMN IF NOT EXISTS preview_status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+ADD COLUMN IF NOT EXISTS preview_tamanhos VARCHAR(50),
+ADD COLUMN IF NOT EXISTS preview_tipo_mime VARCHAR(100);
+
+ALTER TABLE provas
+ADD CONSTRAINT ck_provas_preview_status
+    CHECK (preview_status IN ('PENDENTE', 'PRONTO', 'INDISPONIVEL', 'FALHOU'));
+
+-- Varredura das provas ainda sem preview
+CREATE INDEX IF NOT EXISTS idx_provas_preview_pendente
+ON provas (criado_em)
+WHERE preview_status = 'PENDENTE';
+
+-- Comentários para documentação
+COMMENT ON COLUMN provas.preview_status IS 'PENDENTE, PRONTO, INDISPONIVEL (formato não suportado) ou FALHOU';
+COMMENT ON COLUMN provas.preview_tamanhos IS 'Tamanhos gerados (maior lado em px), separados por vírgula';
+COMMENT ON COLUMN provas.preview_tipo_mime IS 'Tipo MIME dos previews (image/jpeg ou image/png)';
+
+ANALYZE provas;
@@ -0,0 +1,28 @@
+-- ============================================================================
+-- Migration V25: Tamanho original e arquivo original das provas
+-- ============================================================================
+-- Com a recompressão no recebimento habilitada, o arquivo armazenado pode ser
+-- menor que o enviado (metadados removidos, BMP convertido, imagem reduzida).
+-- tamanho_bytes continua sendo o tamanho armazenado; tamanho_original_bytes
+-- guarda o tamanho enviado. caminho_original aponta para o arquivo enviado
+-- quando a política de manter originais está ativa.
+-- ============================================================================
+
+ALTER TABLE provas
+ADD COLUMN IF NOT EXISTS tamanho_original_bytes BIGINT,
+ADD COLUMN IF NOT EXISTS caminho_original VARCHAR(500);
+
+-- Provas existentes foram armazenadas como enviadas
+UPDATE provas
+SET tamanho_original_bytes = tamanho_bytes
+WHERE tamanho_original_bytes IS NULL;
+
+ALTER TABLE provas
+ALTER COLUMN tamanho_original_bytes SET NOT NULL;
+
+-- Comentários para documentação
+COMMENT ON COLUMN provas.tamanho_bytes IS 'Tamanho do arquivo armazenado em bytes';
+COMMENT ON COLUMN provas.tamanho_original_bytes IS 'Tamanho do arquivo enviado, antes da recompressão';
+COMMENT ON COLUMN provas.caminho_original IS 'Arquivo enviado, quando substituído pela recompressão e mantido';
+
+ANALYZE provas;
@@ -0,0 +1,104 @@
+-- ============================================================================
+-- Migration V26: Busca textual paginada independente do usuário
+-- ============================================================================
+-- A V18 recebia o ID do usuário e juntava denuncia_fixada para ordenar as
+-- fixadas primeiro. Com isso a página dependia de quem buscava e o cache da
+-- aplicação precisava incluir o usuário na chave: dois admins nunca
+-- aproveitavam a mesma busca.
+--
+-- A função passa a receber os IDs das denúncias fixadas do usuário (a
+-- aplicação já os mantém em memória) em vez do ID do usuário. Admins com as
+-- mesmas fixadas (em geral, nenhuma) produzem a mesma chave e compartilham a
+-- página em cache. Filtros, ordenação, LIMIT/OFFSET e o total via window
+-- function continuam no PostgreSQL: apenas as linhas da página saem do banco,
+-- e o ts_headline roda somente para elas.
+--
+-- Ordenação: fixadas primeiro, depois relevância, depois data e ID. As
+-- fixadas deixam de ser ordenadas pela data em que foram fixadas, que não faz
+-- parte do que a aplicação guarda.
+-- ============================================================================
+
+-- A assinatura muda (usuário -> IDs fixados), então a função é recriada
+DROP FUNCTION IF EXISTS buscar_denuncias_por_texto_paginado(TEXT, BIGINT, VARCHAR, VARCHAR, VARCHAR, INTEGER, INTEGER);
+
+CREATE OR REPLACE FUNCTION buscar_denuncias_por_texto_paginado(
+    termo_busca TEXT,
+    p_fixadas BIGINT[],
+    p_status VARCHAR,
+    p_categoria VARCHAR,
+    p_admin_email VARCHAR,
+    p_limite INTEGER,
+    p_deslocamento INTEGER)
+RETURNS TABLE(denuncia_id BIGINT, total BIGINT, relevancia REAL, trecho TEXT) AS $$
+DECLARE
+    consulta tsquery;
+BEGIN
+    -- Retorna vazio se termo de busca for nulo ou vazio
+    IF termo_busca IS NULL OR TRIM(termo_busca) = '' THEN
+        RETURN;
+    END IF;
+
+    consulta := plainto_tsquery('portuguese', termo_busca);
+
+    -- Colunas sempre qualificadas: os nomes de saída (total, relevancia...)
+    -- também são variáveis dentro da função
+    RETURN QUERY
+    WITH encontrados AS (
+        -- Utiliza o índice: idx_denuncias_busca_fts
+        SELECT d.id, ts_rank(d.busca_texto, consulta) AS rank, NULL::BIGINT AS acompanhamento_id
+        FROM denuncias d
+        WHERE d.busca_texto @@ consulta
+
+        UNION ALL
+
+        -- Utiliza o índice: idx_acompanhamentos_busca_fts
+        SELECT a.denuncia_id, ts_rank(a.busca_texto, consulta), a.id
+        FROM acompanhamentos a
+        WHERE a.busca_texto @@ consulta
+    ),
+    melhor AS (
+        -- Um resultado por denúncia: o texto de maior relevância (empate favorece a descrição)
+        SELECT DISTINCT ON (e.id) e.id, e.rank, e.acompanhamento_id
+        FROM encontrados e
+        ORDER BY e.id, e.rank DESC, e.acompanhamento_id NULLS FIRST
+    ),
+    pagina AS (
+        SELECT d.id,
+               d.descricao,
+               m.rank,
+               m.acompanhamento_id,
+               COUNT(*) OVER () AS qtd,
+               ROW_NUMBER() OVER (
+                   ORDER BY
+                       CASE WHEN d.id = ANY(p_fixadas) THEN 0 ELSE 1 END,
+                       m.rank DESC,
+                       d.criado_em DESC,
+                       d.id DESC) AS ordem
+        FROM melhor m
+        JOIN denuncias d ON d.id = m.id
+        WHERE (p_status IS NULL OR d.status = p_status)
+          AND (p_categoria IS NULL OR d.categoria = p_categoria)
+          AND (p_admin_email IS NULL OR d.admin_acompanhando_email = p_admin_email)
+        ORDER BY ordem
+        LIMIT p_limite
+        OFFSET p_deslocamento
+    )
+    SELECT p.id,
+           p.qtd,
+           p.rank,
+           ts_headline('portuguese', COALESCE(a.mensagem, p.descricao, ''), consulta,
+               'StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, ShortWord=3, '
+               || 'MaxFragments=2, FragmentDelimiter=" ... "')
+    FROM pagina p
+    LEFT JOIN acompanhamentos a ON a.id = p.acompanhamento_id
+    ORDER BY p.ordem;
+END;
+$$ LANGUAGE plpgsql STABLE;
+
+COMMENT ON FUNCTION buscar_denuncias_por_texto_paginado(TEXT, BIGINT[], VARCHAR, VARCHAR, VARCHAR, INTEGER, INTEGER) IS
+'Busca textual paginada (V26). Aplica Full Text Search, filtros de status/categoria/admin,
+ordenação com as denúncias fixadas informadas primeiro e depois por relevância, e LIMIT/OFFSET.
+Retorna os IDs da página, o total de resultados (COUNT(*) OVER ()), a relevância (ts_rank)
+e o trecho destacado (ts_headline com <mark>), calculado apenas para a página. O texto de
+origem pode conter HTML; a aplicação sanitiza o trecho deixando <mark> como única marcação.
+Uso: SELECT * FROM buscar_denuncias_por_texto_paginado(''termo'', ''{}'', NULL, NULL, NULL, 12, 0);';
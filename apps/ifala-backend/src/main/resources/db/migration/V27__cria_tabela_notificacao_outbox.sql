@@ -0,0 +1,57 @@
+-- ============================================================================
+-- Migration V27: Caixa de saída (outbox) dos eventos de notificação
+-- ============================================================================
+-- Os eventos das denúncias (nova denúncia, nova mensagem, mudança de status)
+-- eram tratados dentro da transação que os publicou: busca dos e-mails de
+-- todos os usuários, gravação da notificação do painel, montagem do HTML e
+-- gravação em email_outbox aconteciam na thread da requisição, e em uma nova
+-- mensagem ainda com o bloqueio da linha em denuncias.
+--
+-- Agora a transação de negócio grava apenas uma linha pequena nesta tabela
+-- (tipo do evento, denúncia, mensagem e status). O NotificacaoOutboxDespachante
+-- reserva as linhas com FOR UPDATE SKIP LOCKED e, em uma transação própria por
+-- evento, cria a notificação do painel e os e-mails e remove a linha. Se o
+-- processamento falhar, a linha é reagendada com backoff.
+-- ============================================================================
+
+-- ============================================================================
+-- 1. TABELA
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS notificacao_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    denuncia_id BIGINT NOT NULL REFERENCES denuncias(id) ON DELETE CASCADE,
+    acompanhamento_id BIGINT,
+    status VARCHAR(50),
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    falhou BOOLEAN NOT NULL DEFAULT FALSE,
+    ultimo_erro TEXT,
+    criado_em TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT ck_notificacao_outbox_tipo CHECK (tipo IN ('NOVA_DENUNCIA', 'NOVA_MENSAGEM', 'RESPOSTA_ADMIN', 'STATUS_ALTERADO'))
+);
+
+-- ============================================================================
+-- 2. ÍNDICES
+-- ============================================================================
+-- Linhas processadas são removidas; só as que esgotaram as tentativas ficam
+-- para análise, fora do índice do despachante.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_notificacao_outbox_pendentes
+ON notificacao_outbox (proxima_tentativa_em, id)
+WHERE NOT falhou;
+
+-- Exclusão de denúncias (ON DELETE CASCADE)
+CREATE INDEX IF NOT EXISTS idx_notificacao_outbox_denuncia
+ON notificacao_outbox (denuncia_id);
+
+-- Comentários para documentação
+COMMENT ON TABLE notificacao_outbox IS 'Eventos de notificação a processar, gravados na mesma transação da alteração que os originou';
+COMMENT ON COLUMN notificacao_outbox.tipo IS 'NOVA_DENUNCIA, NOVA_MENSAGEM (do denunciante), RESPOSTA_ADMIN ou STATUS_ALTERADO';
+COMMENT ON COLUMN notificacao_outbox.acompanhamento_id IS 'Mensagem que originou o evento (NOVA_MENSAGEM)';
+COMMENT ON COLUMN notificacao_outbox.status IS 'Novo status da denúncia (STATUS_ALTERADO)';
+COMMENT ON COLUMN notificacao_outbox.falhou IS 'Tentativas esgotadas; a linha não é mais reservada';
+
+ANALYZE notificacao_outbox;
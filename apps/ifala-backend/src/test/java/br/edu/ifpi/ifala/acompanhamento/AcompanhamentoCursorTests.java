@@ -0,0 +1,53 @@
+package br.edu.ifpi.ifala.acompanhamento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Valida a serialização do {@link AcompanhamentoCursor} usado na leitura incremental do
+ * histórico.
+ */
+class AcompanhamentoCursorTests {
+
+  @Test
+  void decodificaOQueCodificou() {
+    AcompanhamentoCursor cursor =
+        new AcompanhamentoCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000), 99L);
+
+    String codificado = cursor.encode();
+
+    assertThat(codificado).doesNotContain("|", "=", "+", "/");
+    assertThat(AcompanhamentoCursor.decode(codificado)).isEqualTo(cursor);
+  }
+
+  @Test
+  void cursoresEspeciaisSobrevivemAoRoundTrip() {
+    AcompanhamentoCursor desde = AcompanhamentoCursor.desde(LocalDateTime.of(2025, 1, 2, 3, 4));
+
+    assertThat(desde.id()).isEqualTo(Long.MAX_VALUE);
+    assertThat(AcompanhamentoCursor.decode(desde.encode())).isEqualTo(desde);
+    assertThat(AcompanhamentoCursor.decode(AcompanhamentoCursor.inicio().encode()))
+        .isEqualTo(AcompanhamentoCursor.inicio());
+  }
+
+  @Test
+  void cursorInvalidoRetorna400() {
+    String semId = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("2025-03-14T15:09".getBytes(StandardCharsets.UTF_8));
+    String idInvalido = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("2025-03-14T15:09|abc".getBytes(StandardCharsets.UTF_8));
+
+    for (String cursor : new String[] {"não é base64!", semId, idInvalido}) {
+      assertThatThrownBy(() -> AcompanhamentoCursor.decode(cursor))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Valida a serialização do {@link DenunciaCursor} usado na paginação por cursor da listagem
+ * administrativa.
+ */
+class DenunciaCursorTests {
+
+  @Test
+  void decodificaOQueCodificou() {
+    DenunciaCursor cursor =
+        new DenunciaCursor(1, 0, LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000), 4242L);
+
+    String codificado = cursor.encode();
+
+    assertThat(codificado).doesNotContain("|", "=", "+", "/");
+    assertThat(DenunciaCursor.decode(codificado)).isEqualTo(cursor);
+  }
+
+  @Test
+  void cursorAusenteComecaDoInicio() {
+    assertThat(DenunciaCursor.decode(null)).isEqualTo(DenunciaCursor.inicio());
+    assertThat(DenunciaCursor.decode(" ")).isEqualTo(DenunciaCursor.inicio());
+    assertThat(DenunciaCursor.decode(DenunciaCursor.inicio().encode()))
+        .isEqualTo(DenunciaCursor.inicio());
+  }
+
+  @Test
+  void cursorInvalidoRetorna400() {
+    String camposFaltando = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("1|0|2025-03-14T15:09".getBytes(StandardCharsets.UTF_8));
+    String dataInvalida = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("1|0|ontem|7".getBytes(StandardCharsets.UTF_8));
+
+    for (String cursor : new String[] {"não é base64!", camposFaltando, dataInvalida}) {
+      assertThatThrownBy(() -> DenunciaCursor.decode(cursor))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+  }
+}
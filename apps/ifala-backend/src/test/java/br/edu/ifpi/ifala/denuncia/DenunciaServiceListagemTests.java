@@ -0,0 +1,90 @@
+package br.edu.ifpi.ifala.denuncia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.edu.ifpi.ifala.autenticacao.Usuario;
+import br.edu.ifpi.ifala.autenticacao.UsuarioRepository;
+import br.edu.ifpi.ifala.denuncia.denunciaDTO.DenunciaAdminResponseDto;
+import br.edu.ifpi.ifala.denunciaFixada.DenunciaFixada;
+import br.edu.ifpi.ifala.denunciaFixada.DenunciaFixadaRepository;
+import br.edu.ifpi.ifala.shared.enums.Categorias;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Garante que a montagem de uma página da listagem administrativa usa um número fixo de comandos
+ * SQL, independente da quantidade de linhas (sem consultas por linha).
+ */
+// O despachante de e-mails consulta o banco periodicamente e somaria comandos às estatísticas
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+    "email.outbox.intervalo-ms=3600000"})
+@Transactional
+class DenunciaServiceListagemTests {
+
+  // Com caches frios: usuário logado, ID da página, COUNT, projeção da página, fixadas e nomes dos
+  // admins
+  private static final long MAX_COMANDOS_POR_LISTAGEM = 6;
+
+  private static final String ADMIN_EMAIL = "rene.moraes@ifpi.edu.br";
+
+  @Autowired
+  private DenunciaService denunciaService;
+
+  @Autowired
+  private DenunciaRepository denunciaRepository;
+
+  @Autowired
+  private DenunciaFixadaRepository denunciaFixadaRepository;
+
+  @Autowired
+  private UsuarioRepository usuarioRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void listarTodasUsaQuantidadeFixaDeComandosPorPagina() {
+    Usuario admin = usuarioRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    List<Usuario> admins = usuarioRepository.findAll().stream().limit(5).toList();
+
+    List<Denuncia> denuncias = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Denuncia denuncia = new Denuncia();
+      denuncia.setDescricao("Descrição de teste da listagem administrativa número " + i
+          + " com tamanho suficiente.");
+      denuncia.setCategoria(Categorias.OUTROS);
+      denuncia.setAdminAcompanhandoEmail(admins.get(i % admins.size()).getEmail());
+      denuncias.add(denunciaRepository.save(denuncia));
+    }
+    denunciaFixadaRepository.save(new DenunciaFixada(admin, denuncias.get(0)));
+    denunciaFixadaRepository.save(new DenunciaFixada(admin, denuncias.get(1)));
+
+    entityManager.flush();
+    entityManager.clear();
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    Page<DenunciaAdminResponseDto> page = denunciaService.listarTodas(null, null, null, null,
+        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id")), ADMIN_EMAIL);
+
+    assertThat(page.getContent()).isNotEmpty();
+    assertThat(page.getContent()).anyMatch(d -> d.adminAcompanhandoNome() != null);
+    assertThat(page.getContent()).anyMatch(DenunciaAdminResponseDto::fixada);
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_COMANDOS_POR_LISTAGEM);
+  }
+}
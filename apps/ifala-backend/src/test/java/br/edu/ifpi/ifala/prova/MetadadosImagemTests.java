@@ -0,0 +1,127 @@
+package br.edu.ifpi.ifala.prova;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Valida a remoção de metadados de JPEG e PNG: os segmentos e chunks com dados pessoais saem, os
+ * necessários para exibir a imagem ficam e o restante do arquivo é copiado sem alteração.
+ */
+class MetadadosImagemTests {
+
+  private static final byte[] SOI = {(byte) 0xFF, (byte) 0xD8};
+  private static final byte[] SOS_E_DADOS =
+      {(byte) 0xFF, (byte) 0xDA, 0x00, 0x02, 0x12, 0x34, 0x56, (byte) 0xFF, (byte) 0xD9};
+  private static final byte[] ASSINATURA_PNG =
+      {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+  private static byte[] concatenar(byte[]... partes) {
+    ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    for (byte[] parte : partes) {
+      saida.writeBytes(parte);
+    }
+    return saida.toByteArray();
+  }
+
+  private static byte[] segmento(int marcador, String conteudo) {
+    byte[] dados = conteudo.getBytes(StandardCharsets.ISO_8859_1);
+    int tamanho = dados.length + 2;
+    return concatenar(new byte[] {(byte) 0xFF, (byte) marcador, (byte) (tamanho >> 8),
+        (byte) tamanho}, dados);
+  }
+
+  private static byte[] chunk(String tipo, String conteudo) {
+    byte[] dados = conteudo.getBytes(StandardCharsets.ISO_8859_1);
+    int n = dados.length;
+    // O CRC não é validado na remoção; zeros bastam
+    return concatenar(new byte[] {(byte) (n >> 24), (byte) (n >> 16), (byte) (n >> 8), (byte) n},
+        tipo.getBytes(StandardCharsets.US_ASCII), dados, new byte[4]);
+  }
+
+  @Test
+  void removeMetadadosDoJpegEMantemOsSegmentosDeExibicao() throws IOException {
+    byte[] jfif = segmento(0xE0, "JFIF\0\1\1");
+    byte[] exif = segmento(0xE1, "Exif\0\0GPS");
+    byte[] xmp = segmento(0xE1, "http://ns.adobe.com/xap/1.0/\0<x:xmpmeta/>");
+    byte[] icc = segmento(0xE2, "ICC_PROFILE\0\1\1perfil");
+    byte[] mpf = segmento(0xE2, "MPF\0");
+    byte[] iptc = segmento(0xED, "Photoshop 3.0\0");
+    byte[] adobe = segmento(0xEE, "Adobe\0");
+    byte[] comentario = segmento(0xFE, "autor");
+    // Segmento de quantização: não é metadado e precisa ser preservado
+    byte[] dqt = segmento(0xDB, "\0tabela");
+
+    byte[] jpeg = concatenar(SOI, jfif, exif, xmp, icc, mpf, iptc, adobe, comentario, dqt,
+        SOS_E_DADOS);
+
+    assertThat(MetadadosImagem.removerJpeg(jpeg))
+        .isEqualTo(concatenar(SOI, jfif, icc, adobe, dqt, SOS_E_DADOS));
+  }
+
+  @Test
+  void jpegLimpoContinuaDecodificavel() throws IOException {
+    BufferedImage imagem = new BufferedImage(16, 8, BufferedImage.TYPE_INT_RGB);
+    imagem.setRGB(3, 2, 0xFF0000);
+    ByteArrayOutputStream gerado = new ByteArrayOutputStream();
+    ImageIO.write(imagem, "jpg", gerado);
+    byte[] original = gerado.toByteArray();
+    byte[] comExif = concatenar(SOI, segmento(0xE1, "Exif\0\0GPS"),
+        Arrays.copyOfRange(original, 2, original.length));
+
+    byte[] limpo = MetadadosImagem.removerJpeg(comExif);
+
+    assertThat(limpo).isEqualTo(original);
+    BufferedImage lida = ImageIO.read(new ByteArrayInputStream(limpo));
+    assertThat(lida.getWidth()).isEqualTo(16);
+    assertThat(lida.getHeight()).isEqualTo(8);
+  }
+
+  @Test
+  void rejeitaJpegInvalidoOuTruncado() {
+    assertThatThrownBy(() -> MetadadosImagem.removerJpeg(ASSINATURA_PNG))
+        .isInstanceOf(IOException.class);
+
+    byte[] truncado = concatenar(SOI, new byte[] {(byte) 0xFF, (byte) 0xE1, 0x01, 0x00, 'E'});
+    assertThatThrownBy(() -> MetadadosImagem.removerJpeg(truncado))
+        .isInstanceOf(IOException.class);
+
+    byte[] semImagem = concatenar(SOI, segmento(0xE0, "JFIF\0"));
+    assertThatThrownBy(() -> MetadadosImagem.removerJpeg(semImagem))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void removeChunksDeTextoDataEExifDoPng() throws IOException {
+    byte[] ihdr = chunk("IHDR", "0123456789abc");
+    byte[] idat = chunk("IDAT", "pixels");
+    byte[] iend = chunk("IEND", "");
+
+    byte[] png = concatenar(ASSINATURA_PNG, ihdr, chunk("tEXt", "Author\0fulano"),
+        chunk("eXIf", "MM\0*GPS"), idat, chunk("zTXt", "x"), chunk("iTXt", "y"),
+        chunk("tIME", "1234567"), iend);
+
+    assertThat(MetadadosImagem.removerPng(png))
+        .isEqualTo(concatenar(ASSINATURA_PNG, ihdr, idat, iend));
+  }
+
+  @Test
+  void rejeitaPngInvalidoOuSemFim() {
+    assertThatThrownBy(() -> MetadadosImagem.removerPng(SOI)).isInstanceOf(IOException.class);
+
+    byte[] semFim = concatenar(ASSINATURA_PNG, chunk("IHDR", "0123456789abc"));
+    assertThatThrownBy(() -> MetadadosImagem.removerPng(semFim)).isInstanceOf(IOException.class);
+
+    byte[] truncado = Arrays.copyOf(concatenar(ASSINATURA_PNG, chunk("IDAT", "pixels")), 20);
+    assertThatThrownBy(() -> MetadadosImagem.removerPng(truncado))
+        .isInstanceOf(IOException.class);
+  }
+}
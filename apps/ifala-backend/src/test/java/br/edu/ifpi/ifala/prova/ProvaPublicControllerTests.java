@@ -0,0 +1,60 @@
+package br.edu.ifpi.ifala.prova;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Valida a avaliação do If-Range no download de provas: o Range só vale quando o validador
+ * enviado pelo cliente confere com a versão atual do arquivo.
+ */
+class ProvaPublicControllerTests {
+
+  private static final String ETAG = "\"3f1c9a0e\"";
+  private static final ZonedDateTime MODIFICACAO =
+      ZonedDateTime.parse("2025-03-14T15:09:26Z");
+  private static final long ULTIMA_MODIFICACAO = MODIFICACAO.toInstant().toEpochMilli();
+
+  private static HttpHeaders comIfRange(String ifRange) {
+    HttpHeaders cabecalhos = new HttpHeaders();
+    cabecalhos.set(HttpHeaders.RANGE, "bytes=0-99");
+    if (ifRange != null) {
+      cabecalhos.set(HttpHeaders.IF_RANGE, ifRange);
+    }
+    return cabecalhos;
+  }
+
+  private static boolean aplicavel(String ifRange) {
+    return ProvaPublicController.rangeAplicavel(comIfRange(ifRange), ETAG, ULTIMA_MODIFICACAO);
+  }
+
+  @Test
+  void semIfRangeORangeVale() {
+    assertThat(aplicavel(null)).isTrue();
+  }
+
+  @Test
+  void etagPrecisaSerIgualComComparacaoForte() {
+    assertThat(aplicavel(ETAG)).isTrue();
+    assertThat(aplicavel("\"outra\"")).isFalse();
+    // ETag fraca nunca vale para Range
+    assertThat(aplicavel("W/" + ETAG)).isFalse();
+  }
+
+  @Test
+  void dataPrecisaSerIgualAoLastModified() {
+    DateTimeFormatter http = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    assertThat(aplicavel(http.format(MODIFICACAO))).isTrue();
+    assertThat(aplicavel(http.format(MODIFICACAO.minusSeconds(1)))).isFalse();
+    assertThat(aplicavel(http.format(MODIFICACAO.plusDays(1)))).isFalse();
+  }
+
+  @Test
+  void valorInvalidoDescartaORange() {
+    assertThat(aplicavel("ontem")).isFalse();
+  }
+}
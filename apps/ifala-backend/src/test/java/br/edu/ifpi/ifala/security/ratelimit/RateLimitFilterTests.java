@@ -0,0 +1,164 @@
+package br.edu.ifpi.ifala.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Valida o {@link RateLimitFilter} com requisições simuladas: chave por IP (inclusive atrás de
+ * proxy), chave por token de acompanhamento e a resposta 429 com {@code Retry-After}.
+ */
+class RateLimitFilterTests {
+
+  private static final String ROTA_DENUNCIAS = "/api/v1/public/denuncias";
+  private static final String ROTA_ACOMPANHAMENTO = "/api/v1/public/denuncias/%s/acompanhamentos";
+
+  private SimpleMeterRegistry meterRegistry;
+  private RateLimitConfig config;
+
+  @BeforeEach
+  void configurar() {
+    meterRegistry = new SimpleMeterRegistry();
+    config = new RateLimitConfig();
+    config.setRegras(List.of(
+        regra("criacao", "POST", RateLimitConfig.Chave.IP, ROTA_DENUNCIAS),
+        regra("acompanhamento", "GET", RateLimitConfig.Chave.TOKEN,
+            "/api/v1/public/denuncias/{token}/acompanhamentos")));
+  }
+
+  private static RateLimitConfig.Regra regra(String nome, String metodo,
+      RateLimitConfig.Chave chave, String padrao) {
+    RateLimitConfig.Regra regra = new RateLimitConfig.Regra();
+    regra.setNome(nome);
+    regra.setMetodo(metodo);
+    regra.setChave(chave);
+    regra.setPadroes(List.of(padrao));
+    regra.setCapacidade(2);
+    regra.setPeriodo(Duration.ofHours(1));
+    return regra;
+  }
+
+  private static MockHttpServletRequest requisicao(String metodo, String uri, String ip,
+      String encaminhado) {
+    MockHttpServletRequest request = new MockHttpServletRequest(metodo, uri);
+    request.setRemoteAddr(ip);
+    if (encaminhado != null) {
+      request.addHeader("X-Forwarded-For", encaminhado);
+    }
+    return request;
+  }
+
+  private static MockHttpServletResponse executar(RateLimitFilter filtro,
+      MockHttpServletRequest request) throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filtro.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+
+  @Test
+  void rejeitaAcimaDoLimiteCom429ERetryAfter() throws Exception {
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "10.0.0.1", null))
+          .getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+    MockHttpServletRequest request = requisicao("POST", ROTA_DENUNCIAS, "10.0.0.1", null);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+    filtro.doFilter(request, response, chain);
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    // Balde de 2 por hora: o próximo token chega em cerca de 30 minutos
+    assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER)))
+        .isBetween(1L, 1800L);
+    assertThat(response.getContentAsString()).contains("Muitas tentativas");
+    assertThat(chain.getRequest()).as("a requisição não deve seguir adiante").isNull();
+    assertThat(meterRegistry.get("rate_limit.rejeicoes").tag("regra", "criacao").counter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void separaBaldesPorIpEIgnoraOutrosMetodos() throws Exception {
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+    for (int i = 0; i < 3; i++) {
+      executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "10.0.0.1", null));
+    }
+
+    assertThat(executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "10.0.0.2", null))
+        .getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(executar(filtro, requisicao("GET", ROTA_DENUNCIAS, "10.0.0.1", null))
+        .getStatus()).isEqualTo(HttpStatus.OK.value());
+  }
+
+  @Test
+  void atrasDoProxyUsaAEntradaAcrescentadaPeloProxy() throws Exception {
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+
+    // O cliente varia a parte do cabeçalho que ele mesmo envia; o proxy acrescenta o IP real
+    for (int i = 0; i < 2; i++) {
+      executar(filtro,
+          requisicao("POST", ROTA_DENUNCIAS, "172.16.0.10", "1.1.1." + i + ", 8.8.8.8"));
+    }
+    assertThat(executar(filtro,
+        requisicao("POST", ROTA_DENUNCIAS, "172.16.0.10", "9.9.9.9, 8.8.8.8")).getStatus())
+        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+    // Outro cliente atrás do mesmo proxy tem balde próprio
+    assertThat(executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "172.16.0.10", "8.8.4.4"))
+        .getStatus()).isEqualTo(HttpStatus.OK.value());
+  }
+
+  @Test
+  void semProxyConfiavelIgnoraXForwardedFor() throws Exception {
+    config.setProxiesConfiaveis(0);
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+
+    for (int i = 0; i < 2; i++) {
+      executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "10.0.0.1", "1.1.1." + i));
+    }
+
+    assertThat(executar(filtro, requisicao("POST", ROTA_DENUNCIAS, "10.0.0.1", "2.2.2.2"))
+        .getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+  }
+
+  @Test
+  void limitaPorTokenIndependenteDaCaixaEDoIp() throws Exception {
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+    String token = UUID.randomUUID().toString();
+
+    executar(filtro, requisicao("GET", ROTA_ACOMPANHAMENTO.formatted(token), "10.0.0.1", null));
+    executar(filtro, requisicao("GET", ROTA_ACOMPANHAMENTO.formatted(token.toUpperCase()),
+        "10.0.0.2", null));
+
+    assertThat(executar(filtro,
+        requisicao("GET", ROTA_ACOMPANHAMENTO.formatted(token), "10.0.0.3", null)).getStatus())
+        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    assertThat(executar(filtro, requisicao("GET",
+        ROTA_ACOMPANHAMENTO.formatted(UUID.randomUUID()), "10.0.0.1", null)).getStatus())
+        .isEqualTo(HttpStatus.OK.value());
+  }
+
+  @Test
+  void tokenQueNaoEUuidNaoGanhaBalde() throws Exception {
+    RateLimitFilter filtro = new RateLimitFilter(config, meterRegistry);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(executar(filtro,
+          requisicao("GET", ROTA_ACOMPANHAMENTO.formatted("nao-e-uuid"), "10.0.0.1", null))
+          .getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+  }
+}
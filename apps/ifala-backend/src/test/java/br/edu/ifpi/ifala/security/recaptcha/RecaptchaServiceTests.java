@@ -0,0 +1,91 @@
+package br.edu.ifpi.ifala.security.recaptcha;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.edu.ifpi.ifala.security.recaptcha.RecaptchaConfig.PoliticaIndisponibilidade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Valida o cliente do reCAPTCHA contra o {@link RecaptchaStubServer}: timeouts, disjuntor,
+ * política de indisponibilidade e métricas, sem acesso à rede.
+ */
+class RecaptchaServiceTests {
+
+  private RecaptchaStubServer stub;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void iniciarStub() throws IOException {
+    stub = RecaptchaStubServer.iniciar();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void pararStub() {
+    stub.close();
+  }
+
+  private RecaptchaService criarServico(PoliticaIndisponibilidade politica) {
+    RecaptchaConfig config = new RecaptchaConfig();
+    config.setSecret("segredo-de-teste");
+    config.setUrl(stub.url());
+    config.setConnectTimeout(Duration.ofMillis(500));
+    config.setReadTimeout(Duration.ofMillis(200));
+    config.setPoliticaIndisponibilidade(politica);
+    config.getCircuito().setLimiarFalhas(2);
+    config.getCircuito().setTempoAberto(Duration.ofMinutes(1));
+    return new RecaptchaService(config, meterRegistry);
+  }
+
+  private long contagem(String resultado) {
+    return meterRegistry.get("recaptcha.verificacao").tag("resultado", resultado).timer().count();
+  }
+
+  @Test
+  void aceitaTokenAprovadoEReprovaScoreBaixo() {
+    RecaptchaService service = criarServico(PoliticaIndisponibilidade.REJEITAR);
+
+    assertThat(service.validarToken("token", "denuncia", 0.5)).isTrue();
+    stub.responder(true, "denuncia", 0.1);
+    assertThat(service.validarToken("token", "denuncia", 0.5)).isFalse();
+
+    assertThat(contagem("aprovado")).isEqualTo(1);
+    assertThat(contagem("reprovado")).isEqualTo(1);
+  }
+
+  @Test
+  void respostaLentaRespeitaTimeoutDeLeitura() {
+    RecaptchaService service = criarServico(PoliticaIndisponibilidade.REJEITAR);
+    stub.atrasar(Duration.ofSeconds(5));
+
+    long inicio = System.nanoTime();
+    Boolean valido = service.validarToken("token", "denuncia", 0.5);
+    Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+    assertThat(valido).isFalse();
+    assertThat(duracao).isLessThan(Duration.ofSeconds(2));
+    assertThat(contagem("erro")).isEqualTo(1);
+  }
+
+  @Test
+  void circuitoAbertoNaoChamaOServicoEAplicaPolitica() {
+    RecaptchaService service = criarServico(PoliticaIndisponibilidade.ACEITAR);
+    stub.falhar(503);
+
+    // Falhas até o limiar: o serviço é chamado e a política ACEITAR libera o token
+    assertThat(service.validarToken("token", "denuncia", 0.5)).isTrue();
+    assertThat(service.validarToken("token", "denuncia", 0.5)).isTrue();
+    assertThat(stub.requisicoes()).isEqualTo(2);
+
+    // Circuito aberto: nenhuma nova chamada ao serviço
+    assertThat(service.validarToken("token", "denuncia", 0.5)).isTrue();
+    assertThat(stub.requisicoes()).isEqualTo(2);
+    assertThat(meterRegistry.get("recaptcha.circuito.recusas").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("recaptcha.circuito.estado").gauge().value()).isEqualTo(2);
+  }
+}
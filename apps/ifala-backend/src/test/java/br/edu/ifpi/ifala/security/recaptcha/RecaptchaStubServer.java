@@ -0,0 +1,106 @@
+package br.edu.ifpi.ifala.security.recaptcha;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor local que imita o endpoint siteverify do Google reCAPTCHA, para testes de integração
+ * sem acesso à rede. A resposta, o status HTTP e um atraso artificial podem ser trocados durante o
+ * teste, permitindo medir o efeito da latência do Google sobre o recebimento de denúncias.
+ *
+ * @author Renê Morais
+ */
+final class RecaptchaStubServer implements AutoCloseable {
+
+  private static final String CAMINHO = "/recaptcha/api/siteverify";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final AtomicInteger requisicoes = new AtomicInteger();
+  private volatile int status = 200;
+  private volatile String corpo = resposta(true, "denuncia", 0.9);
+  private volatile Duration atraso = Duration.ZERO;
+
+  private RecaptchaStubServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  static RecaptchaStubServer iniciar() throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    RecaptchaStubServer stub = new RecaptchaStubServer(server, executor);
+    server.createContext(CAMINHO, stub::atender);
+    server.setExecutor(executor);
+    server.start();
+    return stub;
+  }
+
+  String url() {
+    return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+        + CAMINHO;
+  }
+
+  void responder(boolean success, String action, double score) {
+    this.status = 200;
+    this.corpo = resposta(success, action, score);
+  }
+
+  void falhar(int status) {
+    this.status = status;
+    this.corpo = "{}";
+  }
+
+  void atrasar(Duration atraso) {
+    this.atraso = atraso;
+  }
+
+  int requisicoes() {
+    return requisicoes.get();
+  }
+
+  private void atender(HttpExchange exchange) throws IOException {
+    requisicoes.incrementAndGet();
+    try (InputStream entrada = exchange.getRequestBody()) {
+      entrada.readAllBytes();
+    }
+    try {
+      Thread.sleep(atraso);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      exchange.close();
+      return;
+    }
+    byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream saida = exchange.getResponseBody()) {
+      saida.write(bytes);
+    } catch (IOException e) {
+      // O cliente desistiu (timeout)
+    }
+  }
+
+  private static String resposta(boolean success, String action, double score) {
+    return String.format(Locale.ROOT, "{\"success\":%s,\"action\":\"%s\",\"score\":%.2f}",
+        success, action, score);
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
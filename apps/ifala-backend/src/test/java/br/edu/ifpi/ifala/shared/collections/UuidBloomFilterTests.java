@@ -0,0 +1,85 @@
+package br.edu.ifpi.ifala.shared.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Valida o {@link UuidBloomFilter}: nenhum falso negativo, taxa de falsos positivos próxima da
+ * configurada dentro da capacidade e validação dos parâmetros.
+ */
+class UuidBloomFilterTests {
+
+  private static final int CAPACIDADE = 10_000;
+  private static final double TAXA = 0.01;
+
+  // Semente fixa: o teste não depende de sorte na geração dos UUIDs
+  private final Random random = new Random(42);
+
+  private UUID uuidAleatorio() {
+    return new UUID(random.nextLong(), random.nextLong());
+  }
+
+  @Test
+  void filtroVazioNaoContemNada() {
+    UuidBloomFilter filtro = UuidBloomFilter.criar(CAPACIDADE, TAXA);
+
+    for (int i = 0; i < 1_000; i++) {
+      assertThat(filtro.podeConter(uuidAleatorio())).isFalse();
+    }
+  }
+
+  @Test
+  void nuncaRetornaFalsoNegativo() {
+    UuidBloomFilter filtro = UuidBloomFilter.criar(CAPACIDADE, TAXA);
+    List<UUID> registrados = new ArrayList<>();
+    for (int i = 0; i < CAPACIDADE; i++) {
+      UUID uuid = UUID.randomUUID();
+      registrados.add(uuid);
+      filtro.adicionar(uuid);
+    }
+
+    assertThat(registrados).allMatch(filtro::podeConter);
+  }
+
+  @Test
+  void taxaDeFalsosPositivosFicaProximaDaConfigurada() {
+    UuidBloomFilter filtro = UuidBloomFilter.criar(CAPACIDADE, TAXA);
+    for (int i = 0; i < CAPACIDADE; i++) {
+      filtro.adicionar(uuidAleatorio());
+    }
+
+    int consultas = 100_000;
+    int falsosPositivos = 0;
+    for (int i = 0; i < consultas; i++) {
+      if (filtro.podeConter(uuidAleatorio())) {
+        falsosPositivos++;
+      }
+    }
+
+    // Margem para a variação estatística: o dobro da taxa configurada
+    assertThat((double) falsosPositivos / consultas).isLessThan(TAXA * 2);
+  }
+
+  @Test
+  void dimensionaPelaCapacidadeETaxa() {
+    // ~9,6 bits por elemento para 1% de falsos positivos
+    UuidBloomFilter filtro = UuidBloomFilter.criar(CAPACIDADE, TAXA);
+
+    assertThat(filtro.tamanhoEmBytes()).isBetween(11_000L, 13_000L);
+    assertThat(UuidBloomFilter.criar(0, TAXA).tamanhoEmBytes()).isEqualTo(Long.BYTES);
+  }
+
+  @Test
+  void rejeitaTaxaForaDoIntervalo() {
+    assertThatThrownBy(() -> UuidBloomFilter.criar(CAPACIDADE, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> UuidBloomFilter.criar(CAPACIDADE, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}